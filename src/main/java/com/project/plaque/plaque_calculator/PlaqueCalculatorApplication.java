@@ -2,8 +2,10 @@ package com.project.plaque.plaque_calculator;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PlaqueCalculatorApplication {
 
 	public static void main(String[] args) {
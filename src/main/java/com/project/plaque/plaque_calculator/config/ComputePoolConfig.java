@@ -0,0 +1,31 @@
+package com.project.plaque.plaque_calculator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one pool for parallel work of the application: chunked input parsing, FD and key discovery,
+ * the BCNF decomposition search and the RIC evaluations of the RIC-guided search.
+ * It is shut down with the application context, so redeploys and context refreshes leave no threads behind.
+ */
+@Configuration
+public class ComputePoolConfig {
+
+	@Bean(destroyMethod = "shutdownNow")
+	public ForkJoinPool computePool(@Value("${compute.pool.parallelism:0}") int parallelism) {
+		int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors());
+		AtomicInteger threadCount = new AtomicInteger();
+		ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("compute-pool-" + threadCount.incrementAndGet());
+			return thread;
+		};
+		System.out.println("[ComputePoolConfig] parallelism=" + threads);
+		return new ForkJoinPool(threads, factory, null, false);
+	}
+}
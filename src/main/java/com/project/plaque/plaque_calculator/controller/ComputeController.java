@@ -1,12 +1,24 @@
 package com.project.plaque.plaque_calculator.controller;
 
-import com.google.gson.Gson;
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.ParsedTable;
 import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.model.RicMatrix;
+import com.project.plaque.plaque_calculator.service.CandidateKeyFinder;
+import com.project.plaque.plaque_calculator.service.ComputationRecord;
+import com.project.plaque.plaque_calculator.service.ComputationStore;
+import com.project.plaque.plaque_calculator.service.DatasetRegistry;
 import com.project.plaque.plaque_calculator.service.FDService;
+import com.project.plaque.plaque_calculator.service.FdDiscoveryService;
+import com.project.plaque.plaque_calculator.service.FdValidationService;
+import com.project.plaque.plaque_calculator.service.MinimalCoverService;
 import com.project.plaque.plaque_calculator.service.RicService;
+import com.project.plaque.plaque_calculator.service.SessionTableStore;
+import com.project.plaque.plaque_calculator.service.UccDiscoveryService;
 import com.project.plaque.plaque_calculator.service.DecomposeService;
 import com.project.plaque.plaque_calculator.util.CsvParsingUtil;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,12 +26,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.UUID;
 
@@ -27,15 +42,45 @@ import java.util.UUID;
 @RequestMapping("/compute")
 public class ComputeController {
 
+	// /discover-fds searches tables with more rows on a row sample
+	@Value("${fd.discovery.sampling-threshold:20000}")
+	private int samplingThreshold;
+
+	// Fixed, so the same table always gives the same sample and the same discovered FDs
+	@Value("${fd.discovery.sample-seed:42}")
+	private long sampleSeed;
+
 	private final FDService fdService;
 	private final RicService ricService;
 	private final DecomposeService decomposeService;
-	private final Gson gson = new Gson();
-
-	public ComputeController(FDService fdService, RicService ricService, DecomposeService decomposeService) {
+	private final MinimalCoverService minimalCoverService;
+	private final FdDiscoveryService fdDiscoveryService;
+	private final FdValidationService fdValidationService;
+	private final UccDiscoveryService uccDiscoveryService;
+	private final SessionTableStore sessionTableStore;
+	private final DatasetRegistry datasetRegistry;
+	private final ComputationStore computationStore;
+	private final ForkJoinPool computePool;
+
+	// Outcome of the RIC step; exact runs are shared through the DatasetRegistry
+	private record RicRun(RicMatrix matrix, String finalStrategy, List<String> steps) { }
+
+	public ComputeController(FDService fdService, RicService ricService, DecomposeService decomposeService,
+							 MinimalCoverService minimalCoverService, FdDiscoveryService fdDiscoveryService,
+							 FdValidationService fdValidationService, UccDiscoveryService uccDiscoveryService,
+							 SessionTableStore sessionTableStore, DatasetRegistry datasetRegistry,
+							 ComputationStore computationStore, ForkJoinPool computePool) {
 		this.fdService = fdService;
 		this.ricService = ricService;
 		this.decomposeService = decomposeService;
+		this.minimalCoverService = minimalCoverService;
+		this.fdDiscoveryService = fdDiscoveryService;
+		this.fdValidationService = fdValidationService;
+		this.uccDiscoveryService = uccDiscoveryService;
+		this.sessionTableStore = sessionTableStore;
+		this.datasetRegistry = datasetRegistry;
+		this.computationStore = computationStore;
+		this.computePool = computePool;
 	}
 
 	@PostMapping
@@ -54,8 +99,10 @@ public class ComputeController {
 
 		clearNormalizationSessionState(session, computationId);
 
-		// Converting user's input to safe strings
-		String safeManual = sanitizeManualData(manualData);
+		// Parse the input once; the RIC jar gets its RIC-encoded form, the registry (and its hash) the original form as in streamComputation
+		ParsedTable table = parseManualData(manualData);
+		ParsedTable ricTable = table.ricEncoded();
+		String datasetHash = DatasetRegistry.contentHash(table.toColumnar());
 		String safeFds = sanitizeFds(fds);
 
 		// Check plaque mode from session
@@ -64,15 +111,15 @@ public class ComputeController {
 
 		// Call RicService with adaptive Monte Carlo fallbacks so we can degrade
 		// from exact computation to approximations when the external jar hits timeouts.
-		double[][] ricArr = new double[0][0];
+		RicMatrix ricMatrix = RicMatrix.EMPTY;
 		List<String> ricSteps = new ArrayList<>();
 		String finalStrategy = null;
 
 		if (!skipRic) {
 			// WITH-PLAQUE mode: Perform RIC computation
 			try {
-				RicService.RicComputationResult result = ricService.computeRicAdaptive(safeManual, safeFds, monteCarlo, samples);
-				ricArr = result.matrix();
+				RicRun result = computeRic(datasetHash, ricTable.getSource(), safeFds, monteCarlo, samples, null);
+				ricMatrix = result.matrix();
 				ricSteps = result.steps();
 				finalStrategy = result.finalStrategy();
 			} catch (RicService.RicComputationException adaptiveEx) {
@@ -93,7 +140,7 @@ public class ComputeController {
 		model.addAttribute("ricSteps", ricSteps);
 		model.addAttribute("ricFinalStrategy", finalStrategy);
 
-		persistResults(session, model, safeManual, safeFds, ricArr, ricSteps, finalStrategy, monteCarlo, samples, duplicatesRemoved, computationId);
+		persistResults(session, model, table, datasetHash, safeFds, ricMatrix, ricSteps, finalStrategy, monteCarlo, samples, duplicatesRemoved, computationId);
 
 		// Add computation ID to model for redirect
 		model.addAttribute("computationId", computationId);
@@ -111,7 +158,8 @@ public class ComputeController {
 	@PostMapping(value = "/stream-init", produces = MediaType.APPLICATION_JSON_VALUE)
 	@ResponseBody
 	public Map<String, String> initStream(
-			@RequestParam String manualData,
+			@RequestParam(required = false) String manualData,
+			@RequestParam(required = false) String datasetId,
 			@RequestParam(required = false) String fds,
 			@RequestParam(required = false, defaultValue = "false") boolean monteCarlo,
 			@RequestParam(required = false, defaultValue = "100000") int samples,
@@ -120,22 +168,21 @@ public class ComputeController {
 	) {
 		try {
 			// Do not clear normalization state here; actual stream will do that.
-			// Keep original format for UI/session storage
-			String originalManual = manualData;
-			// Convert to RIC-compatible format for JAR
-			String ricManual = sanitizeManualData(manualData);
+			// The parsed table keeps the original format for UI/session storage and derives the RIC format for the JAR
+			ParsedTable table = resolveTable(manualData, datasetId, session);
 			String safeFds = sanitizeFds(fds);
 
 			String token = UUID.randomUUID().toString();
 			Map<String, Object> payload = new HashMap<>();
-			payload.put("originalManualData", originalManual);  // Original format with quotes
-			payload.put("manualData", ricManual);               // RIC format with | instead of ,
+			payload.put("table", table);
 			payload.put("fds", safeFds);
 			payload.put("monteCarlo", monteCarlo);
 			payload.put("samples", samples);
 			payload.put("duplicatesRemoved", duplicatesRemoved);
 			storeComputeRequest(session, token, payload);
 			return Map.of("token", token);
+		} catch (IllegalArgumentException ex) {
+			return Map.of("error", ex.getMessage());
 		} catch (Exception ex) {
 			throw ex;
 		}
@@ -145,6 +192,7 @@ public class ComputeController {
 	@ResponseBody
 	public SseEmitter streamComputation(
 			@RequestParam(required = false) String manualData,
+			@RequestParam(required = false) String datasetId,
 			@RequestParam(required = false) String fds,
 			@RequestParam(required = false, defaultValue = "false") boolean monteCarlo,
 			@RequestParam(required = false, defaultValue = "100000") int samples,
@@ -166,21 +214,16 @@ public class ComputeController {
 		String computationId = UUID.randomUUID().toString();
 		clearNormalizationSessionState(session, computationId);
 
-		String ricManual;      // RIC format for JAR (commas replaced with |)
-		String originalManual; // Original format for UI/session
+		ParsedTable table; // Original format for UI/session, RIC format for the JAR via ricEncoded()
 		String safeFds;
 		boolean mc;
 		int smp;
 		int duplicatesRemoved;
 		try {
 			if (payloadFromToken != null) {
-				// Data from token: ricManual is already in RIC format, originalManual is original
-				ricManual = String.valueOf(payloadFromToken.getOrDefault("manualData", ""));
-				originalManual = String.valueOf(payloadFromToken.getOrDefault("originalManualData", ""));
-				// If originalManualData wasn't stored (backward compatibility), use ricManual
-				if (originalManual.isEmpty()) {
-					originalManual = ricManual;
-				}
+				// Data from token: parsed when the request was stored
+				Object storedTable = payloadFromToken.get("table");
+				table = storedTable instanceof ParsedTable parsed ? parsed : ParsedTable.parse(null, computePool);
 				safeFds = String.valueOf(payloadFromToken.getOrDefault("fds", ""));
 				Object mcObj = payloadFromToken.get("monteCarlo");
 				mc = mcObj instanceof Boolean ? (Boolean) mcObj : Boolean.parseBoolean(String.valueOf(mcObj));
@@ -188,13 +231,12 @@ public class ComputeController {
 				smp = spObj instanceof Integer ? (Integer) spObj : Integer.parseInt(String.valueOf(spObj));
 				Object dupObj = payloadFromToken.get("duplicatesRemoved");
 				duplicatesRemoved = dupObj instanceof Integer ? (Integer) dupObj : Integer.parseInt(String.valueOf(dupObj));
-				System.out.println("[ComputeController] ricManual length: " + ricManual.length());
+				System.out.println("[ComputeController] table rows: " + table.getRowCount());
 				System.out.println("[ComputeController] safeFds: " + safeFds);
 				System.out.println("[ComputeController] mc: " + mc + ", smp: " + smp);
 				System.out.flush();
 			} else {
-				originalManual = manualData;
-				ricManual = sanitizeManualData(manualData);
+				table = resolveTable(manualData, datasetId, session);
 				safeFds = sanitizeFds(fds);
 				mc = monteCarlo;
 				smp = samples;
@@ -207,32 +249,29 @@ public class ComputeController {
 			return bad;
 		}
 
-		String validated = validateAndReturnOrError(ricManual);
-		System.out.println("[ComputeController] Validation result: " + (validated.equals("__INCONSISTENT__") ? "INCONSISTENT" : (validated.isEmpty() ? "EMPTY" : "OK, length=" + validated.length())));
+		// Column counts are checked on the rows the JAR will see
+		ParsedTable ricTable = table.ricEncoded();
+		System.out.println("[ComputeController] Validation result: " + (!ricTable.isConsistent() ? "INCONSISTENT" : (ricTable.isEmpty() ? "EMPTY" : "OK, length=" + ricTable.getSource().length())));
 		System.out.flush();
 
 		// Use without limit for large computations
 		SseEmitter emitter = new SseEmitter(0L);
 
-		if (validated.equals("__INCONSISTENT__")) {
+		if (!ricTable.isConsistent()) {
 			sendEvent(emitter, "error", Map.of("message", "Inconsistent column counts detected across rows."));
 			emitter.complete();
 			return emitter;
 		}
-		if (validated.isEmpty()) {
+		if (ricTable.isEmpty()) {
 			sendEvent(emitter, "error", Map.of("message", "Table data is required for computation."));
 			emitter.complete();
 			return emitter;
 		}
 
-		final String finalRicManual = validated;        // RIC format for JAR
-		final String finalOriginalManual = originalManual; // Original format for session/UI
+		final String finalRicManual = ricTable.getSource(); // RIC format for JAR
+		final ParsedTable finalTable = table;               // Original format for session/UI
 
-		// Calculate row/col count safely
-		String[] rows = finalRicManual.split(";");
-		int rowCount = rows.length;
-		int colCount = rows.length > 0 ? rows[0].split(",", -1).length : 0;
-		System.out.println("[ComputeController] RIC Stream starting. rows=" + rowCount + ", cols=" + colCount + ", length=" + finalRicManual.length());
+		System.out.println("[ComputeController] RIC Stream starting. rows=" + ricTable.getRowCount() + ", cols=" + ricTable.getColumnCount() + ", length=" + finalRicManual.length());
 		System.out.flush();
 
 		// Send initial keep-alive event immediately
@@ -257,15 +296,20 @@ public class ComputeController {
 			boolean skipRic = "disabled".equals(plaqueMode);
 
 			try {
+				// Hashed once; both the RIC cache lookup and the registry use it (original form, as in compute)
+				String datasetHash = DatasetRegistry.contentHash(finalTable.toColumnar());
+				// Check the entered FDs against the data before paying for RIC (results are informational only)
+				validateFdsOnData(emitter, finalTable, safeFds, progressCallback);
+
 				if (!skipRic) {
 					// WITH-PLAQUE mode: Perform RIC computation
 					System.out.println("[ComputeController] Starting RIC computation...");
 					// Use RIC format for JAR computation
-					RicService.RicComputationResult result = ricService.computeRicAdaptive(finalRicManual, safeFds, mc, smp, progressCallback);
+					RicRun result = computeRic(datasetHash, finalRicManual, safeFds, mc, smp, progressCallback);
 					System.out.println("[ComputeController] RIC computation completed, persisting results...");
 					List<String> finalSteps = result.steps() != null ? result.steps() : progressSteps;
 					// Use ORIGINAL format for session storage (so UI shows correct values)
-					persistResults(session, null, finalOriginalManual, safeFds, result.matrix(), finalSteps, result.finalStrategy(), mc, smp, duplicatesRemoved, computationId);
+					persistResults(session, null, finalTable, datasetHash, safeFds, result.matrix(), finalSteps, result.finalStrategy(), mc, smp, duplicatesRemoved, computationId);
 					System.out.println("[ComputeController] Results persisted, sending complete event...");
 					sendEvent(emitter, "complete", Map.of("finalStrategy", result.finalStrategy(), "redirectUrl", "/calc-results?id=" + computationId, "computationId", computationId));
 					emitter.complete();
@@ -275,7 +319,7 @@ public class ComputeController {
 					System.out.println("[ComputeController] NO-PLAQUE mode: Skipping RIC computation");
 					sendEvent(emitter, "progress", Map.of("message", "NO-PLAQUE mode: Skipping RIC computation"));
 					List<String> skippedSteps = List.of("RIC computation skipped (NO-PLAQUE mode)");
-					persistResults(session, null, finalOriginalManual, safeFds, new double[0][0], skippedSteps, "SKIPPED", mc, smp, duplicatesRemoved, computationId);
+					persistResults(session, null, finalTable, datasetHash, safeFds, RicMatrix.EMPTY, skippedSteps, "SKIPPED", mc, smp, duplicatesRemoved, computationId);
 					sendEvent(emitter, "complete", Map.of("finalStrategy", "SKIPPED", "redirectUrl", "/calc-results?id=" + computationId, "computationId", computationId));
 					emitter.complete();
 					System.out.println("[ComputeController] NO-PLAQUE stream completed.");
@@ -301,6 +345,197 @@ public class ComputeController {
 		return emitter;
 	}
 
+	// POST /compute/discover-fds (minimal FDs that hold on the table data, in the index format of the FD input)
+	// Columns with a single value (∅ -> A) have no FD form in the input and are returned as constantColumns instead.
+	// Tables above fd.discovery.sampling-threshold rows (or any table with sampleSize > 0) are searched on a row
+	// sample drawn with fd.discovery.sample-seed, and the candidates are verified on all rows.
+	@PostMapping(value = "/discover-fds", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> discoverFds(
+			@RequestParam(required = false) String manualData,
+			@RequestParam(required = false) String computationId,
+			@RequestParam(required = false, defaultValue = "0") int maxLhs,
+			@RequestParam(required = false, defaultValue = "0") int sampleSize,
+			@RequestParam(required = false, defaultValue = "stratified") String sampleMode,
+			@RequestParam(required = false, defaultValue = "0") double maxError,
+			HttpSession session) {
+		ColumnarTable table = readTable(manualData, session, computationId);
+		if (table.getRowCount() == 0) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(Map.of("error", "Table data is required for FD discovery."));
+		}
+		if (maxError < 0 || maxError >= 1) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(Map.of("error", "maxError must be in [0, 1)."));
+		}
+		List<String> attrOrder = extractAttrOrder(table.getColumnCount());
+		boolean sampled = sampleSize > 0 || maxError > 0 || table.getRowCount() > samplingThreshold;
+		try {
+			Map<String, Object> body = new LinkedHashMap<>();
+			if (sampled) {
+				FdDiscoveryService.SampleMode mode = "random".equalsIgnoreCase(sampleMode)
+						? FdDiscoveryService.SampleMode.RANDOM
+						: FdDiscoveryService.SampleMode.STRATIFIED;
+				int size = sampleSize > 0 ? sampleSize : FdDiscoveryService.DEFAULT_SAMPLE_SIZE;
+				FdDiscoveryService.SampledResult result = fdDiscoveryService.discoverSampled(
+						table, attrOrder, mode, size, maxError, maxLhs, 10_000, sampleSeed);
+				List<String> fds = new ArrayList<>();
+				List<Map<String, Object>> errors = new ArrayList<>();
+				List<String> constantColumns = new ArrayList<>();
+				for (FdDiscoveryService.ApproximateFd fd : result.fds()) {
+					if (fd.fd().getLhs().isEmpty()) {
+						constantColumns.addAll(fd.fd().getRhs());
+						continue;
+					}
+					Map<String, Object> entry = new LinkedHashMap<>();
+					entry.put("fd", toIndexFdString(fd.fd()));
+					entry.put("sampleError", fd.sampleError());
+					entry.put("error", fd.error());
+					errors.add(entry);
+					fds.add(toIndexFdString(fd.fd()));
+				}
+				body.put("fds", fds);
+				body.put("errors", errors);
+				body.put("constantColumns", sortedIndexes(constantColumns));
+				body.put("keys", result.keys().stream().map(this::toIndexListString).collect(Collectors.toList()));
+				body.put("complete", result.complete());
+				body.put("sampled", true);
+				body.put("sampleRows", result.sampleRows());
+				body.put("rows", result.rows());
+				body.put("columns", result.columns());
+				body.put("elapsedMs", result.elapsedMs());
+			} else {
+				FdDiscoveryService.Result result = fdDiscoveryService.discover(table, attrOrder, maxLhs, 10_000);
+				body.put("fds", result.fds().stream()
+						.filter(fd -> !fd.getLhs().isEmpty())
+						.map(this::toIndexFdString)
+						.collect(Collectors.toList()));
+				body.put("constantColumns", sortedIndexes(result.fds().stream()
+						.filter(fd -> fd.getLhs().isEmpty())
+						.flatMap(fd -> fd.getRhs().stream())
+						.collect(Collectors.toList())));
+				body.put("complete", result.complete());
+				body.put("sampled", false);
+				body.put("rows", result.rows());
+				body.put("columns", result.columns());
+				body.put("elapsedMs", result.elapsedMs());
+			}
+			return ResponseEntity.ok(body);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	// POST /compute/discover-keys (minimal unique column combinations of the table data)
+	// With fds, the candidate keys implied by the FDs are returned too, searched starting from the data keys.
+	@PostMapping(value = "/discover-keys", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> discoverKeys(
+			@RequestParam(required = false) String manualData,
+			@RequestParam(required = false) String computationId,
+			@RequestParam(required = false) String fds,
+			@RequestParam(required = false, defaultValue = "0") int maxSize,
+			HttpSession session) {
+		ColumnarTable table = readTable(manualData, session, computationId);
+		if (table.getRowCount() == 0) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(Map.of("error", "Table data is required for key discovery."));
+		}
+		List<String> attrOrder = extractAttrOrder(table.getColumnCount());
+		try {
+			UccDiscoveryService.Result result = uccDiscoveryService.discover(table, attrOrder, maxSize, 10_000);
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("keys", result.keys().stream().map(this::toIndexListString).collect(Collectors.toList()));
+			body.put("complete", result.complete());
+			body.put("rows", result.rows());
+			body.put("columns", result.columns());
+			body.put("elapsedMs", result.elapsedMs());
+			String safeFds = sanitizeFds(fds);
+			if (!safeFds.isEmpty()) {
+				List<FD> enteredFDs = fdService.parseFDStringWithIndexes(safeFds, attrOrder);
+				CandidateKeyFinder.KeyEnumeration fdKeys = new CandidateKeyFinder(new LinkedHashSet<>(attrOrder), enteredFDs)
+						.withHints(result.keys())
+						.findKeys(20);
+				body.put("fdKeys", fdKeys.keys().stream().map(this::toIndexListString).collect(Collectors.toList()));
+				body.put("fdKeysComplete", fdKeys.complete());
+			}
+			return ResponseEntity.ok(body);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	// Streams one "fd-validation" event per entered FD and a summary step; never fails the computation
+	private void validateFdsOnData(SseEmitter emitter, ParsedTable parsedTable, String safeFds, Consumer<String> progressCallback) {
+		if (safeFds == null || safeFds.isBlank()) {
+			return;
+		}
+		try {
+			// Cells trimmed as in the relation that is analyzed; rows are kept so their numbers match the input table
+			ColumnarTable table = parsedTable.toColumnar().mapValues(String::trim);
+			List<String> attrOrder = extractAttrOrder(table.getColumnCount());
+			List<FD> enteredFDs = fdService.parseFDStringWithIndexes(safeFds, attrOrder);
+			if (enteredFDs.isEmpty()) {
+				return;
+			}
+			long startNs = System.nanoTime();
+			List<FdValidationService.FdValidation> results = fdValidationService.validate(table, attrOrder, enteredFDs,
+					validation -> sendEvent(emitter, "fd-validation", toValidationPayload(validation)));
+			long violated = results.stream().filter(r -> !r.holds()).count();
+			long elapsedMs = (System.nanoTime() - startNs) / 1_000_000;
+			progressCallback.accept(violated == 0
+					? "FD validation: all " + results.size() + " FDs hold on the data (" + elapsedMs + " ms)"
+					: "FD validation: " + violated + " of " + results.size() + " FDs are violated by the data (" + elapsedMs + " ms)");
+		} catch (Exception ex) {
+			System.err.println("[ComputeController] FD validation skipped: " + ex.getMessage());
+		}
+	}
+
+	// Row numbers are 1-based, as shown in the input table
+	private Map<String, Object> toValidationPayload(FdValidationService.FdValidation validation) {
+		List<Map<String, Object>> examples = new ArrayList<>();
+		for (FdValidationService.ViolationGroup group : validation.examples()) {
+			Map<String, Object> example = new LinkedHashMap<>();
+			example.put("lhsValues", group.lhsValues());
+			example.put("rows", group.rows().stream().map(r -> r + 1).collect(Collectors.toList()));
+			examples.add(example);
+		}
+		Map<String, Object> payload = new LinkedHashMap<>();
+		payload.put("fd", toIndexFdString(validation.fd()));
+		payload.put("holds", validation.holds());
+		payload.put("violatingGroups", validation.violatingGroups());
+		payload.put("examples", examples);
+		return payload;
+	}
+
+	// Distinct rows with trimmed cells of the given manual data, or the stored original table of the computation (the same view)
+	private ColumnarTable readTable(String manualData, HttpSession session, String computationId) {
+		if (manualData != null && !manualData.isBlank()) {
+			return CsvParsingUtil.parseColumnar(manualData, computePool).mapValues(String::trim).distinct();
+		}
+		ColumnarTable stored = sessionTableStore.getOriginalTable(session, computationId);
+		return stored != null ? stored : ColumnarTable.fromRows(List.of());
+	}
+
+	// "1,3->2" with LHS indices in numeric order, as typed into the FD table
+	private String toIndexFdString(FD fd) {
+		return toIndexListString(fd.getLhs()) + "->" + String.join(",", fd.getRhs());
+	}
+
+	// "1,3" in numeric order
+	private String toIndexListString(Set<String> attributes) {
+		return attributes.stream()
+				.sorted(Comparator.comparingInt(Integer::parseInt))
+				.collect(Collectors.joining(","));
+	}
+
+	// Column indices in numeric order
+	private List<String> sortedIndexes(Collection<String> attributes) {
+		return attributes.stream()
+				.sorted(Comparator.comparingInt(Integer::parseInt))
+				.collect(Collectors.toList());
+	}
+
 	private String sanitizeFds(String fds) {
 		return Optional.ofNullable(fds).orElse("").trim();
 	}
@@ -318,7 +553,6 @@ public class ComputeController {
 		session.removeAttribute(prefix + "currentGlobalRic");
 		session.removeAttribute(prefix + "currentGlobalManualRows");
 		session.removeAttribute(prefix + "currentUnionCols");
-		session.removeAttribute(prefix + "alreadyBcnf");
 		session.removeAttribute(prefix + "normalizationSessionStart");
 		session.removeAttribute(prefix + "bcnfSummary");
 		session.removeAttribute(prefix + "bcnfAttempts");
@@ -331,86 +565,67 @@ public class ComputeController {
 
 	private void persistResults(HttpSession session,
 						 Model model,
-						 String safeManual,
+						 ParsedTable table,
+						 String datasetHash,
 						 String safeFds,
-						 double[][] ricArr,
+						 RicMatrix ricMatrix,
 						 List<String> steps,
 						 String finalStrategy,
 						 boolean monteCarlo,
 						 int samples,
 						 int duplicatesRemoved,
 						 String computationId) {
-		List<String[]> matrixForModel = convertMatrixToStrings(ricArr);
-		String originalTableJson = gson.toJson(matrixForModel);
-		int ricColCount = matrixForModel.isEmpty() ? 0 : matrixForModel.get(0).length;
-		List<String> originalAttrOrder = extractAttrOrder(safeManual);
-		// Parse FDs with index support - converts column indexes (1-based) to attribute names
-		List<FD> originalFDs = fdService.parseFDStringWithIndexes(safeFds, originalAttrOrder);
-		Set<String> attributeSet = new LinkedHashSet<>(originalAttrOrder);
-		boolean alreadyBcnf = attributeSet.isEmpty()
-			? originalFDs.isEmpty()
-			: decomposeService.checkBCNF(attributeSet, originalFDs, fdService);
+		// The table is kept once per distinct content in the registry; the record only references it
+		DatasetRegistry.Reference reference = datasetRegistry.register(table.toColumnar(), datasetHash);
+		DatasetRegistry.Entry dataset = reference.getEntry();
+		// The FD analysis only depends on the FDs and the columns of the table
+		ComputationRecord.FdAnalysis analysis = dataset.artifact("fdAnalysis:" + safeFds, () -> analyzeFds(safeFds, table.getColumnCount()));
 
 		List<String> safeSteps = steps == null ? List.of() : List.copyOf(steps);
+		if (!monteCarlo && RicService.EXACT_STRATEGY.equals(finalStrategy)) {
+			// Exact values are the same for every computation on this table and FDs
+			dataset.putArtifact(ricArtifactKey(safeFds), new RicRun(ricMatrix, finalStrategy, safeSteps));
+		}
 
-		String prefix = "computation_" + computationId + "_";
-
-		// Store plaqueMode in session for persistence across pages
 		String plaqueMode = (String) session.getAttribute("plaqueMode");
-		session.setAttribute(prefix + "plaqueMode", plaqueMode != null ? plaqueMode : "enabled");
-
-		session.setAttribute(prefix + "originalTableJson", originalTableJson);
-		session.setAttribute(prefix + "calcResultsRicMatrix", matrixForModel);
-		session.setAttribute(prefix + "calcResultsRicColCount", ricColCount);
-		session.setAttribute(prefix + "calcResultsRicJson", originalTableJson);
-		session.setAttribute(prefix + "ricComputationSteps", safeSteps);
-		session.setAttribute(prefix + "ricFinalStrategy", finalStrategy);
-		session.setAttribute(prefix + "fdList", safeFds);
-		session.setAttribute(prefix + "calcResultsInputData", safeManual);
-		// Also store as JSON for proper restoration in calc.html
-		List<List<String>> parsedData = CsvParsingUtil.parseRows(safeManual);
-		session.setAttribute(prefix + "calcResultsInputDataJson", gson.toJson(parsedData));
-		session.setAttribute(prefix + "calcResultsFdList", safeFds);
-		session.setAttribute(prefix + "calcResultsRicSteps", safeSteps);
-		session.setAttribute(prefix + "calcResultsRicFinalStrategy", finalStrategy);
-		session.setAttribute(prefix + "calcResultsMonteCarloSelected", monteCarlo);
-		session.setAttribute(prefix + "calcResultsMonteCarloSamples", samples);
-		session.setAttribute(prefix + "alreadyBcnf", alreadyBcnf);
-		session.setAttribute(prefix + "duplicatesRemoved", duplicatesRemoved);
+		// Everything the result pages read about this computation; the session only keeps its id
+		computationStore.put(session, new ComputationRecord(computationId, reference,
+				plaqueMode != null ? plaqueMode : "enabled", safeFds, analysis, ricMatrix, safeSteps, finalStrategy,
+				monteCarlo, samples, duplicatesRemoved));
 
 		if (model != null) {
-			model.addAttribute("ricMatrix", matrixForModel);
-			model.addAttribute("ricColCount", ricColCount);
-			model.addAttribute("ricJson", originalTableJson);
+			model.addAttribute("ricMatrix", ricMatrix.asStringRows());
+			model.addAttribute("ricColCount", ricMatrix.getColumnCount());
+			model.addAttribute("ricJson", ricMatrix.toJson());
 			model.addAttribute("ricSteps", safeSteps);
 			model.addAttribute("ricFinalStrategy", finalStrategy);
-			model.addAttribute("inputData", safeManual);
 			model.addAttribute("fdList", safeFds);
 			model.addAttribute("monteCarloSelected", monteCarlo);
 			model.addAttribute("monteCarloSamples", samples);
-			model.addAttribute("alreadyBcnf", alreadyBcnf);
+			model.addAttribute("alreadyBcnf", analysis.alreadyBcnf());
 			model.addAttribute("duplicatesRemoved", duplicatesRemoved);
+			model.addAttribute("allFdStringsToShow", analysis.allFdStrings());
+			model.addAttribute("transitiveFdStrings", analysis.transitiveFdStrings());
 		}
+	}
 
-		List<List<String>> initialCalcTable = buildInitialCalcTable(safeManual);
-		String initJson = gson.toJson(initialCalcTable);
-		session.setAttribute(prefix + "initialCalcTableJson", initJson);
-
-		List<List<String>> dedupedOriginalTuples = dedupeRows(initialCalcTable);
-		session.setAttribute(prefix + "originalTuples", dedupedOriginalTuples);
-
-		session.setAttribute(prefix + "originalAttrOrder", originalAttrOrder);
-		session.setAttribute(prefix + "originalAttrIndices", createAttrIndices(originalAttrOrder.size()));
-
-		session.setAttribute(prefix + "originalFDs", originalFDs);
+	private ComputationRecord.FdAnalysis analyzeFds(String safeFds, int columnCount) {
+		List<String> originalAttrOrder = extractAttrOrder(columnCount);
+		// Parse FDs with index support - converts column indexes (1-based) to attribute names
+		List<FD> enteredFDs = fdService.parseFDStringWithIndexes(safeFds, originalAttrOrder);
+		// Later checks work on the minimal cover, the FDs as entered are only used for display
+		List<FD> originalFDs = minimalCoverService.minimalCover(enteredFDs);
+		Set<String> attributeSet = new LinkedHashSet<>(originalAttrOrder);
+		boolean alreadyBcnf = attributeSet.isEmpty()
+			? originalFDs.isEmpty()
+			: decomposeService.checkBCNF(attributeSet, originalFDs, fdService);
 
 		// Parse original FD strings for display (keep original index format like "1,2,3->5")
 		List<String> originalFdStringsForDisplay = parseOriginalFdStringsForDisplay(safeFds);
-		session.setAttribute(prefix + "originalFdStringsForDisplay", originalFdStringsForDisplay);
 
-		List<FD> transitiveFDs = fdService.findTransitiveFDs(originalFDs);
+		List<FD> transitiveFDs = fdService.findTransitiveFDs(enteredFDs);
 		// For internal use (with attribute names)
-		List<String> originalFdStrings = originalFDs.stream().map(FD::toString).sorted().collect(Collectors.toList());
+		List<String> originalFdStrings = enteredFDs.stream().map(FD::toString).sorted().collect(Collectors.toList());
 		List<String> transitiveFdStrings = transitiveFDs.stream().map(FD::toString).sorted().collect(Collectors.toList());
 		List<String> distinctSortedList = new ArrayList<>(new LinkedHashSet<>(combineLists(originalFdStrings, transitiveFdStrings)));
 
@@ -422,63 +637,35 @@ public class ComputeController {
 				.map(FD::toString)
 				.sorted()
 				.collect(Collectors.toList());
-		session.setAttribute(prefix + "transitiveFdStringsForDisplay", transitiveFdStringsForDisplay);
-
-		session.setAttribute(prefix + "fdListWithClosure", String.join(";", distinctSortedList));
-		session.setAttribute(prefix + "calcResultsAllFdStrings", distinctSortedList);
-		session.setAttribute(prefix + "calcResultsTransitiveFds", transitiveFdStrings);
 
-		if (model != null) {
-			model.addAttribute("allFdStringsToShow", distinctSortedList);
-			model.addAttribute("transitiveFdStrings", transitiveFdStrings);
-		}
+		return new ComputationRecord.FdAnalysis(List.copyOf(originalAttrOrder), List.copyOf(originalFDs), alreadyBcnf,
+				List.copyOf(originalFdStringsForDisplay), List.copyOf(transitiveFdStringsForDisplay),
+				List.copyOf(distinctSortedList), List.copyOf(transitiveFdStrings));
 	}
 
-	private List<String[]> convertMatrixToStrings(double[][] ricArr) {
-		List<String[]> rows = new ArrayList<>();
-		if (ricArr == null) {
-			return rows;
+	// Exact RIC values of a table are computed once; Monte Carlo runs always sample again
+	private RicRun computeRic(String datasetHash, String ricManual, String safeFds,
+														boolean monteCarlo, int samples, Consumer<String> progressCallback) {
+		DatasetRegistry.Entry shared = monteCarlo ? null : datasetRegistry.find(datasetHash);
+		RicRun cached = shared == null ? null : shared.getArtifact(ricArtifactKey(safeFds));
+		if (cached == null) {
+			RicService.RicComputationResult result = ricService.computeRicAdaptive(ricManual, safeFds, monteCarlo, samples, progressCallback);
+			return new RicRun(RicMatrix.of(result.matrix()), result.finalStrategy(), result.steps());
 		}
-		for (double[] row : ricArr) {
-			if (row == null) {
-				continue;
-			}
-			String[] rowStr = new String[row.length];
-			for (int i = 0; i < row.length; i++) {
-				rowStr[i] = String.valueOf(row[i]);
-			}
-			rows.add(rowStr);
+		String step = "Reused exact values computed earlier for the same table and FDs.";
+		if (progressCallback != null) {
+			progressCallback.accept(step);
 		}
-		return rows;
+		List<String> steps = new ArrayList<>(cached.steps());
+		steps.add(step);
+		return new RicRun(cached.matrix(), cached.finalStrategy(), List.copyOf(steps));
 	}
 
-	private List<List<String>> buildInitialCalcTable(String safeManual) {
-		return CsvParsingUtil.parseRows(safeManual);
-	}
-	private List<List<String>> dedupeRows(List<List<String>> rows) {
-		LinkedHashSet<String> seen = new LinkedHashSet<>();
-		List<List<String>> deduped = new ArrayList<>();
-		for (List<String> row : rows) {
-			List<String> cleaned = row.stream().map(cell -> cell == null ? "" : cell.trim()).collect(Collectors.toList());
-			String key = String.join("|", cleaned);
-			if (seen.add(key)) {
-				deduped.add(cleaned);
-			}
-		}
-		return deduped;
+	private String ricArtifactKey(String safeFds) {
+		return "ricExact:" + safeFds;
 	}
 
-
-	private List<String> extractAttrOrder(String safeManual) {
-		List<List<String>> rows = CsvParsingUtil.parseRows(safeManual);
-		if (rows.isEmpty()) {
-			return List.of();
-		}
-		int maxCols = 0;
-		for (List<String> row : rows) {
-			if (row == null) continue;
-			maxCols = Math.max(maxCols, row.size());
-		}
+	private List<String> extractAttrOrder(int maxCols) {
 		List<String> out = new ArrayList<>(maxCols);
 		for (int i = 1; i <= maxCols; i++) {
 			out.add(String.valueOf(i));
@@ -486,12 +673,6 @@ public class ComputeController {
 		return out;
 	}
 
-	private List<Integer> createAttrIndices(int size) {
-		return java.util.stream.IntStream.range(0, size)
-				.boxed()
-				.collect(Collectors.toList());
-	}
-
 	private <T> List<T> combineLists(List<T> first, List<T> second) {
 		List<T> combined = new ArrayList<>(first);
 		combined.addAll(second);
@@ -527,60 +708,29 @@ public class ComputeController {
 		}
 	}
 
-	// Replace current sanitizeManualData with lightweight version
-	private String sanitizeManualData(String manualData) {
-		if (manualData == null || manualData.trim().isEmpty()) return "";
-		try {
-			// Parse and re-serialize using RIC-compatible format
-			// This handles values containing commas by replacing them with a safe character
-			List<List<String>> rows = CsvParsingUtil.parseRows(manualData);
-			System.out.println("[ComputeController] sanitizeManualData: parsed " + rows.size() + " rows");
-			if (!rows.isEmpty()) {
-				System.out.println("[ComputeController] First row columns: " + rows.get(0).size());
-				// Check for inconsistent column counts during parse
-				int expectedCols = rows.get(0).size();
-				for (int i = 0; i < rows.size(); i++) {
-					if (rows.get(i).size() != expectedCols) {
-						System.out.println("[ComputeController] WARNING: Row " + i + " has " + rows.get(i).size() + " columns (expected " + expectedCols + ")");
-						System.out.println("[ComputeController] Row " + i + " content: " + rows.get(i));
-					}
-				}
-			}
-			if (rows.isEmpty()) {
-				return "";
-			}
-			return CsvParsingUtil.toRicCompatibleString(rows);
-		} catch (Exception ex) {
-			// Rethrow to make the error visible
-			throw new RuntimeException("Failed to sanitize manual data: " + ex.getMessage(), ex);
+	// The uploaded dataset if a datasetId is given (see DatasetController), the manual data otherwise
+	private ParsedTable resolveTable(String manualData, String datasetId, HttpSession session) {
+		if (datasetId == null || datasetId.isBlank()) {
+			return parseManualData(manualData);
 		}
-	}
-
-	// Simplify validation: just consistent column counts
-	// Note: Input is expected to be in RIC-compatible format (commas replaced with |, semicolon row separator)
-	private String validateAndReturnOrError(String safeManual) {
-		if (safeManual == null || safeManual.isEmpty()) return "";
-
-		// Use CsvParsingUtil to properly parse the data respecting quotes
-		// This ensures semicolons inside quoted values are not treated as row separators
-		List<List<String>> parsedRows = CsvParsingUtil.parseRows(safeManual);
-
-		if (parsedRows.isEmpty()) {
-			return "";
+		ColumnarTable dataset = sessionTableStore.getDataset(session, datasetId);
+		if (dataset == null) {
+			throw new IllegalArgumentException("Unknown dataset: " + datasetId);
 		}
+		return ParsedTable.of(dataset);
+	}
 
-		// Check column count consistency
-		int expectedCols = parsedRows.get(0).size();
-
-		for (int i = 0; i < parsedRows.size(); i++) {
-			List<String> row = parsedRows.get(i);
-			if (row.size() != expectedCols) {
-				return "__INCONSISTENT__";
-			}
+	// Parse the submitted table once; every later step (validation, RIC input, stored views) reads the ParsedTable
+	private ParsedTable parseManualData(String manualData) {
+		ParsedTable table = ParsedTable.parse(manualData, computePool);
+		System.out.println("[ComputeController] parseManualData: parsed " + table.getRowCount() + " rows, " + table.getColumnCount() + " columns");
+		if (!table.isConsistent()) {
+			int row = table.getFirstInconsistentRow();
+			System.out.println("[ComputeController] WARNING: Row " + row + " has " + table.getRows().get(row).size()
+					+ " columns (expected " + table.getRows().get(0).size() + ")");
+			System.out.println("[ComputeController] Row " + row + " content: " + table.getRows().get(row));
 		}
-
-		// Return the RIC-compatible string
-		return CsvParsingUtil.toRicCompatibleString(parsedRows);
+		return table;
 	}
 
 	/**
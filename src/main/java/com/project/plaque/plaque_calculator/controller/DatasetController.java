@@ -0,0 +1,171 @@
+package com.project.plaque.plaque_calculator.controller;
+
+import com.project.plaque.plaque_calculator.service.DatasetUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Upload of large tables without putting them into a request parameter.
+ * The returned datasetId can be passed to /compute/stream-init, /compute/stream and the /normalize decompose requests
+ * instead of manualData.
+ */
+@RestController
+@RequestMapping("/datasets")
+public class DatasetController {
+
+	private static final long PROGRESS_INTERVAL_MS = 250;
+	// How long the progress stream waits for an upload that has not started yet
+	private static final long PROGRESS_WAIT_MS = 30_000;
+	// Longest time a progress stream stays open
+	private static final long PROGRESS_STREAM_TIMEOUT_MS = 10 * 60_000;
+
+	private final DatasetUploadService datasetUploadService;
+
+	public DatasetController(DatasetUploadService datasetUploadService) {
+		this.datasetUploadService = datasetUploadService;
+	}
+
+	// POST /datasets (multipart/form-data with a "file" part)
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Map<String, Object>> uploadFile(
+			@RequestParam("file") MultipartFile file,
+			@RequestParam(value = "format", defaultValue = "csv") String format,
+			@RequestParam(value = "uploadId", required = false) String uploadId,
+			HttpSession session) {
+		if (file == null || file.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "No file was uploaded."));
+		}
+		try (InputStream in = file.getInputStream()) {
+			return upload(session, in, file.getSize(), StandardCharsets.UTF_8, format, uploadId);
+		} catch (IOException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Failed to read upload: " + ex.getMessage()));
+		}
+	}
+
+	// POST /datasets (raw CSV body)
+	@PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE},
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Map<String, Object>> uploadBody(
+			@RequestParam(value = "format", defaultValue = "csv") String format,
+			@RequestParam(value = "uploadId", required = false) String uploadId,
+			HttpServletRequest request,
+			HttpSession session) {
+		Charset charset = StandardCharsets.UTF_8;
+		if (request.getCharacterEncoding() != null) {
+			try {
+				charset = Charset.forName(request.getCharacterEncoding());
+			} catch (IllegalArgumentException ignored) {
+			}
+		}
+		try (InputStream in = request.getInputStream()) {
+			return upload(session, in, request.getContentLengthLong(), charset, format, uploadId);
+		} catch (IOException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Failed to read upload: " + ex.getMessage()));
+		}
+	}
+
+	// GET /datasets/progress (SSE: "progress" events while the upload with this id is read, then "complete" or "error")
+	@GetMapping(value = "/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter uploadProgress(@RequestParam("uploadId") String uploadId, HttpSession session) {
+		SseEmitter emitter = new SseEmitter(PROGRESS_STREAM_TIMEOUT_MS);
+		CompletableFuture.runAsync(() -> {
+			try {
+				long streamUntil = System.currentTimeMillis() + PROGRESS_STREAM_TIMEOUT_MS;
+				long waitUntil = System.currentTimeMillis() + PROGRESS_WAIT_MS;
+				DatasetUploadService.UploadProgress progress;
+				while ((progress = datasetUploadService.getProgress(session, uploadId)) == null) {
+					if (System.currentTimeMillis() > waitUntil) {
+						sendEvent(emitter, "error", Map.of("message", "No upload with this id was started."));
+						return;
+					}
+					Thread.sleep(PROGRESS_INTERVAL_MS);
+				}
+				while (!progress.isDone()) {
+					if (System.currentTimeMillis() > streamUntil) {
+						sendEvent(emitter, "error", Map.of("message", "The upload did not finish in time."));
+						return;
+					}
+					if (!sendEvent(emitter, "progress", toProgressPayload(progress))) {
+						// The client is gone
+						return;
+					}
+					Thread.sleep(PROGRESS_INTERVAL_MS);
+				}
+				if (progress.getResult() != null) {
+					sendEvent(emitter, "complete", toResultPayload(progress.getResult()));
+				} else {
+					sendEvent(emitter, "error", Map.of("message", progress.getError()));
+				}
+				datasetUploadService.clearProgress(session, uploadId);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch (Exception ex) {
+				System.err.println("[DatasetController] Progress stream failed: " + ex.getMessage());
+			} finally {
+				emitter.complete();
+			}
+		});
+		return emitter;
+	}
+
+	private ResponseEntity<Map<String, Object>> upload(HttpSession session, InputStream in, long size, Charset charset,
+													   String format, String uploadId) throws IOException {
+		DatasetUploadService.Format parsedFormat;
+		try {
+			parsedFormat = DatasetUploadService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "format must be csv or manual."));
+		}
+		try {
+			DatasetUploadService.UploadResult result = datasetUploadService.upload(
+					session, in, size > 0 ? size : -1, charset, parsedFormat, uploadId);
+			return ResponseEntity.ok(toResultPayload(result));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	private Map<String, Object> toProgressPayload(DatasetUploadService.UploadProgress progress) {
+		Map<String, Object> payload = new LinkedHashMap<>();
+		payload.put("bytesRead", progress.getBytesRead());
+		payload.put("totalBytes", progress.getTotalBytes());
+		payload.put("rows", progress.getRows());
+		return payload;
+	}
+
+	private Map<String, Object> toResultPayload(DatasetUploadService.UploadResult result) {
+		Map<String, Object> payload = new LinkedHashMap<>();
+		payload.put("datasetId", result.datasetId());
+		payload.put("rows", result.rows());
+		payload.put("columns", result.columns());
+		payload.put("bytes", result.bytes());
+		payload.put("elapsedMs", result.elapsedMs());
+		return payload;
+	}
+
+	// false if the event could not be sent (the stream is closed then)
+	private boolean sendEvent(SseEmitter emitter, String eventName, Object data) {
+		try {
+			emitter.send(SseEmitter.event().name(eventName).data(data));
+			return true;
+		} catch (IOException | IllegalStateException ex) {
+			emitter.completeWithError(ex);
+			return false;
+		}
+	}
+}
@@ -7,6 +7,7 @@ import com.project.plaque.plaque_calculator.dto.DecomposeResponse;
 import com.project.plaque.plaque_calculator.dto.DecomposeStreamInitResponse;
 import com.project.plaque.plaque_calculator.service.DecomposeService;
 import com.project.plaque.plaque_calculator.service.LogService;
+import com.project.plaque.plaque_calculator.service.RicGuidedSearchService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
@@ -93,6 +95,75 @@ public class DecomposeController {
 		}
 	}
 
+	// GET /normalize/bcnf-suggestions (server-side BCNF decompositions of the original relation)
+	@GetMapping("/bcnf-suggestions")
+	public ResponseEntity<?> bcnfSuggestions(
+			@RequestParam(value = "computationId", required = false) String computationId,
+			@RequestParam(value = "limit", defaultValue = "3") int limit,
+			HttpSession session
+	) {
+		try {
+			return ResponseEntity.ok(decomposeService.suggestBcnfDecompositions(computationId, limit, session));
+		} catch (IllegalStateException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Server error"));
+		}
+	}
+
+	// GET /normalize/3nf-synthesis (Bernstein synthesis of the original relation)
+	@GetMapping("/3nf-synthesis")
+	public ResponseEntity<?> threeNfSynthesis(
+			@RequestParam(value = "computationId", required = false) String computationId,
+			HttpSession session
+	) {
+		try {
+			return ResponseEntity.ok(decomposeService.synthesizeThreeNf(computationId, session));
+		} catch (IllegalStateException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Server error"));
+		}
+	}
+
+	// GET /normalize/ric-guided-search (SSE: ranked candidates, then one event per RIC evaluation)
+	@GetMapping(value = "/ric-guided-search", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter ricGuidedSearch(
+			@RequestParam(value = "computationId", required = false) String computationId,
+			@RequestParam(value = "topK", defaultValue = "3") int topK,
+			@RequestParam(value = "budgetSeconds", defaultValue = "60") int budgetSeconds,
+			@RequestParam(value = "monteCarlo", defaultValue = "false") boolean monteCarlo,
+			@RequestParam(value = "samples", defaultValue = "100000") int samples,
+			HttpSession session
+	) {
+		SseEmitter emitter = new SseEmitter(0L);
+		CompletableFuture.runAsync(() -> {
+			try {
+				List<RicGuidedSearchService.Evaluation> ranked = decomposeService.ricGuidedSearch(
+					computationId, topK, Math.max(1, budgetSeconds) * 1000L, monteCarlo, samples, session,
+					new RicGuidedSearchService.SearchListener() {
+						@Override
+						public void candidatesRanked(List<RicGuidedSearchService.Candidate> candidates) {
+							emitEvent(emitter, "candidates", Map.of("candidates", candidates));
+						}
+
+						@Override
+						public void candidateEvaluated(RicGuidedSearchService.Evaluation evaluation) {
+							emitEvent(emitter, "evaluation", evaluation);
+						}
+					});
+				emitEvent(emitter, "complete", Map.of("status", "done", "payload", ranked));
+			} catch (Exception ex) {
+				emitError(emitter, ex.getMessage() == null ? "RIC-guided search failed." : ex.getMessage());
+			} finally {
+				emitter.complete();
+			}
+		});
+		return emitter;
+	}
+
 	// POST /normalize/decompose-all (processing multiple decomposed-tables)
 	@PostMapping("/decompose-all")
 	public ResponseEntity<?> decomposeAll(@RequestBody DecomposeAllRequest req, HttpSession session) {
@@ -122,6 +193,9 @@ public class DecomposeController {
 				if (computationId != null && (table.getComputationId() == null || table.getComputationId().isBlank())) {
 					table.setComputationId(computationId);
 				}
+				if (req.getDatasetId() != null && (table.getDatasetId() == null || table.getDatasetId().isBlank())) {
+					table.setDatasetId(req.getDatasetId());
+				}
 
 				int current = index.getAndIncrement();
 				String label = "Decomposed Table " + current;
@@ -162,6 +236,13 @@ public class DecomposeController {
 		}
 	}
 
+	private void emitEvent(SseEmitter emitter, String name, Object data) {
+		try {
+			emitter.send(SseEmitter.event().name(name).data(data));
+		} catch (IOException ignored) {
+		}
+	}
+
 	private void emitComplete(SseEmitter emitter, DecomposeAllResponse payload) {
 		try {
 			emitter.send(SseEmitter.event().name("complete").data(Map.of(
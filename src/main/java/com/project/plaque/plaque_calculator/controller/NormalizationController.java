@@ -1,6 +1,7 @@
 package com.project.plaque.plaque_calculator.controller;
 
 import com.google.gson.Gson;
+import com.project.plaque.plaque_calculator.model.NormalizationHistory;
 import com.project.plaque.plaque_calculator.service.LogService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,16 +38,16 @@ public class NormalizationController {
 		String computationId = body != null && body.get("computationId") != null ? String.valueOf(body.get("computationId")) : null;
 		String prefix = (computationId == null || computationId.isBlank()) ? "" : ("computation_" + computationId + "_");
 
-		@SuppressWarnings("unchecked")
-		List<Map<String, Object>> history = (List<Map<String, Object>>) session.getAttribute(prefix + HISTORY_SESSION_KEY);
+		NormalizationHistory history = (NormalizationHistory) session.getAttribute(prefix + HISTORY_SESSION_KEY);
 		if (history == null) {
-			history = new ArrayList<>();
+			history = new NormalizationHistory();
 		}
 
 
-		// Append current state (body) to the end of history
-		history.add(body);
-		logService.info("[NormalizationController] history size after append=" + history.size());
+		// Append current state (body) to the end of history; only the tables that changed are stored again
+		history.append(body);
+		logService.info("[NormalizationController] history size after append=" + history.size()
+			+ ", distinct values=" + history.getSharedValueCount());
 		session.setAttribute(prefix + HISTORY_SESSION_KEY, history);
 		session.removeAttribute(prefix + RESTORE_SESSION_KEY);
 
@@ -202,8 +203,7 @@ public class NormalizationController {
 	@GetMapping("/previous")
 	public String returnToPrevious(@RequestParam(value = "id", required = false) String computationId, HttpSession session) {
 		String prefix = (computationId == null || computationId.isBlank()) ? "" : ("computation_" + computationId + "_");
-		@SuppressWarnings("unchecked")
-		List<Map<String, Object>> history = (List<Map<String, Object>>) session.getAttribute(prefix + HISTORY_SESSION_KEY);
+		NormalizationHistory history = (NormalizationHistory) session.getAttribute(prefix + HISTORY_SESSION_KEY);
 		logService.info("[NormalizationController] /previous invoked. history size=" + (history == null ? 0 : history.size()));
 		if (history == null || history.isEmpty()) {
 			session.setAttribute(prefix + RESET_SESSION_KEY, Boolean.TRUE);
@@ -213,12 +213,10 @@ public class NormalizationController {
 				: ("redirect:/normalization?id=" + computationId);
 		}
 
-		List<Map<String, Object>> updatedHistory = new ArrayList<>(history);
-		Map<String, Object> poppedState = updatedHistory.remove(updatedHistory.size() - 1);
-		logService.info("[NormalizationController] popped state. new history size=" + updatedHistory.size());
-		session.setAttribute(prefix + HISTORY_SESSION_KEY, updatedHistory);
-
-		Map<String, Object> restoreState = poppedState != null ? new HashMap<>(poppedState) : null;
+		// The popped state is rebuilt from the shared values; it is already a map of its own
+		Map<String, Object> restoreState = history.pop();
+		logService.info("[NormalizationController] popped state. new history size=" + history.size());
+		session.setAttribute(prefix + HISTORY_SESSION_KEY, history);
 
 		if (restoreState != null) {
 			session.setAttribute(prefix + RESTORE_SESSION_KEY, restoreState);
@@ -2,8 +2,13 @@ package com.project.plaque.plaque_calculator.controller;
 
 import com.google.gson.Gson;
 import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.model.NormalizationHistory;
+import com.project.plaque.plaque_calculator.model.RicMatrix;
 import com.project.plaque.plaque_calculator.service.FDService;
 import com.project.plaque.plaque_calculator.service.NormalFormChecker;
+import com.project.plaque.plaque_calculator.service.ComputationRecord;
+import com.project.plaque.plaque_calculator.service.ComputationStore;
+import com.project.plaque.plaque_calculator.service.SessionTableStore;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,14 +23,19 @@ public class PageController {
 	private final NormalizationController normalizationController;
 	private final FDService fdService;
 	private final NormalFormChecker normalFormChecker;
+	private final SessionTableStore sessionTableStore;
+	private final ComputationStore computationStore;
 	private final Gson gson = new Gson();
 	private static final String RESTORE_SESSION_KEY = "normalizationRestoreState";
 	private static final String RESET_SESSION_KEY = "normalizationReset";
 
-	public PageController(NormalizationController normalizationController, FDService fdService, NormalFormChecker normalFormChecker) {
+	public PageController(NormalizationController normalizationController, FDService fdService, NormalFormChecker normalFormChecker,
+						  SessionTableStore sessionTableStore, ComputationStore computationStore) {
 		this.normalizationController = normalizationController;
 		this.fdService = fdService;
 		this.normalFormChecker = normalFormChecker;
+		this.sessionTableStore = sessionTableStore;
+		this.computationStore = computationStore;
 	}
 
 	// Home page redirect
@@ -135,57 +145,38 @@ public class PageController {
 			return "redirect:/calc";
 		}
 
-		String prefix = "computation_" + computationId + "_";
-
-		@SuppressWarnings("unchecked")
-		List<String[]> ricMatrix = (List<String[]>) session.getAttribute(prefix + "calcResultsRicMatrix");
-		Integer ricColCount = (Integer) session.getAttribute(prefix + "calcResultsRicColCount");
-		String ricJson = (String) session.getAttribute(prefix + "calcResultsRicJson");
-		String inputData = (String) session.getAttribute(prefix + "calcResultsInputData");
-		String fdList = (String) session.getAttribute(prefix + "calcResultsFdList");
-		@SuppressWarnings("unchecked")
-		List<String> ricSteps = (List<String>) session.getAttribute(prefix + "calcResultsRicSteps");
-		String ricFinalStrategy = (String) session.getAttribute(prefix + "calcResultsRicFinalStrategy");
-		Boolean monteCarloSelected = (Boolean) session.getAttribute(prefix + "calcResultsMonteCarloSelected");
-		Integer monteCarloSamples = (Integer) session.getAttribute(prefix + "calcResultsMonteCarloSamples");
-		@SuppressWarnings("unchecked")
-		List<String> allFdStrings = (List<String>) session.getAttribute(prefix + "calcResultsAllFdStrings");
-		@SuppressWarnings("unchecked")
-		List<String> transitiveFds = (List<String>) session.getAttribute(prefix + "calcResultsTransitiveFds");
-		Integer duplicatesRemoved = (Integer) session.getAttribute(prefix + "duplicatesRemoved");
-
-		// Get properly parsed table data from session (parsed by CsvParsingUtil)
-		String initialCalcTableJson = (String) session.getAttribute(prefix + "initialCalcTableJson");
-		@SuppressWarnings("unchecked")
-		List<List<String>> parsedInputData = (List<List<String>>) session.getAttribute(prefix + "originalTuples");
-
-		if (ricMatrix == null || inputData == null) {
+		ComputationRecord computation = computationStore.get(session, computationId);
+		if (computation == null) {
 			return "redirect:/calc";
 		}
+		ComputationRecord.FdAnalysis fdAnalysis = computation.fdAnalysis();
+		RicMatrix ric = computation.ric();
 
-		model.addAttribute("ricMatrix", ricMatrix);
-		model.addAttribute("ricColCount", ricColCount != null ? ricColCount : 0);
-		model.addAttribute("ricJson", ricJson != null ? ricJson : "[]");
-		model.addAttribute("inputData", inputData);
+		// Table data is stored dictionary-encoded (parsed by CsvParsingUtil); the views are derived here
+		String initialCalcTableJson = sessionTableStore.getInputJson(computation);
+		List<List<String>> parsedInputData = sessionTableStore.getOriginalTuples(computation);
+
+		// The matrix is stored as doubles; cell strings and JSON are produced while the page renders
+		model.addAttribute("ricMatrix", ric.asStringRows());
+		model.addAttribute("ricColCount", ric.getColumnCount());
+		model.addAttribute("ricJson", ric.toJson());
 		// Add JSON format for proper restoration in calc.html (avoids semicolon splitting issues)
-		String inputDataJson = (String) session.getAttribute(prefix + "calcResultsInputDataJson");
-		model.addAttribute("inputDataJson", inputDataJson != null ? inputDataJson : "[]");
-		model.addAttribute("fdList", fdList != null ? fdList : "");
-		model.addAttribute("ricSteps", ricSteps != null ? ricSteps : List.of());
-		model.addAttribute("ricFinalStrategy", ricFinalStrategy);
-		model.addAttribute("monteCarloSelected", monteCarloSelected != null && monteCarloSelected);
-		model.addAttribute("monteCarloSamples", monteCarloSamples != null ? monteCarloSamples : 100000);
-		model.addAttribute("allFdStringsToShow", allFdStrings != null ? allFdStrings : List.of());
-		model.addAttribute("transitiveFdStrings", transitiveFds != null ? transitiveFds : List.of());
-		model.addAttribute("duplicatesRemoved", duplicatesRemoved != null ? duplicatesRemoved : 0);
+		model.addAttribute("inputDataJson", initialCalcTableJson);
+		model.addAttribute("fdList", computation.fdList());
+		model.addAttribute("ricSteps", computation.ricSteps());
+		model.addAttribute("ricFinalStrategy", computation.ricFinalStrategy());
+		model.addAttribute("monteCarloSelected", computation.monteCarlo());
+		model.addAttribute("monteCarloSamples", computation.samples());
+		model.addAttribute("allFdStringsToShow", fdAnalysis.allFdStrings());
+		model.addAttribute("transitiveFdStrings", fdAnalysis.transitiveFdStrings());
+		model.addAttribute("duplicatesRemoved", computation.duplicatesRemoved());
 		// Add properly parsed input data for display
-		model.addAttribute("parsedInputData", parsedInputData != null ? parsedInputData : List.of());
-		model.addAttribute("initialCalcTableJson", initialCalcTableJson != null ? initialCalcTableJson : "[]");
+		model.addAttribute("parsedInputData", parsedInputData);
+		model.addAttribute("initialCalcTableJson", initialCalcTableJson);
 		model.addAttribute("computationId", computationId);
 
 		// Add plaqueMode to model
-		String plaqueMode = (String) session.getAttribute(prefix + "plaqueMode");
-		model.addAttribute("plaqueMode", plaqueMode != null ? plaqueMode : "enabled");
+		model.addAttribute("plaqueMode", computation.plaqueMode());
 
 		return "calc-results";
 	}
@@ -214,12 +205,14 @@ public class PageController {
 		Long startTime = normalizationController.setAndGetNormalizationStartTime(session, computationId);
 		model.addAttribute("normalizationStartTimeMs", startTime);
 
-		Boolean alreadyBcnfFlag = (Boolean) session.getAttribute(prefix + "alreadyBcnf");
-		model.addAttribute("alreadyBcnf", alreadyBcnfFlag != null && alreadyBcnfFlag);
+		ComputationRecord computation = computationStore.get(session, computationId);
+		if (computation == null) {
+			return "redirect:/calc";
+		}
+		model.addAttribute("alreadyBcnf", computation.fdAnalysis().alreadyBcnf());
 
-		@SuppressWarnings("unchecked")
-		// Get history list from session
-		List<Map<String, Object>> history = (List<Map<String, Object>>) session.getAttribute(prefix + "normalizationHistory");
+		// Get history from session
+		NormalizationHistory history = (NormalizationHistory) session.getAttribute(prefix + "normalizationHistory");
 
 		boolean canReturn = history != null && !history.isEmpty();
 		model.addAttribute("canReturn", canReturn);
@@ -229,7 +222,7 @@ public class PageController {
 		Object restoreFlag = session.getAttribute(prefix + "usingDecomposedAsOriginal");
 		boolean restoreRequested = restoreFlag instanceof Boolean && (Boolean) restoreFlag && restoreState != null;
 		if (Boolean.TRUE.equals(resetRequested)) {
-			populateInitialNormalization(session, model, computationId);
+			populateInitialNormalization(session, model, computation);
 			session.removeAttribute(RESET_SESSION_KEY);
 			initialStatePopulated = true;
 		}
@@ -246,7 +239,7 @@ public class PageController {
 			model.addAttribute("currentGlobalManualRowsJson", gson.toJson(restoreState.getOrDefault("manualPerTable", Collections.emptyList())));
 
 			// Calculate normal forms for each relation
-			List<String> normalForms = calculateNormalFormsForRelations(restoreState, session, computationId);
+			List<String> normalForms = calculateNormalFormsForRelations(restoreState, computation);
 			model.addAttribute("currentRelationsNormalFormsJson", gson.toJson(normalForms));
 
 			model.addAttribute("initialCalcTableJson", "[]");
@@ -256,7 +249,7 @@ public class PageController {
 			session.removeAttribute(prefix + RESTORE_SESSION_KEY);
 			session.removeAttribute(prefix + "usingDecomposedAsOriginal");
 		} else if (history != null && !history.isEmpty()) {
-			Map<String, Object> currentState = history.get(history.size() - 1);
+			Map<String, Object> currentState = history.latest();
 			System.out.println("[PageController] Using history tail state: " + gson.toJson(currentState));
 
 			// Transfer the saved data to the model during "Continue"
@@ -270,28 +263,20 @@ public class PageController {
 			model.addAttribute("currentGlobalManualRowsJson", gson.toJson(currentState.get("manualPerTable")));
 
 			// Calculate normal forms for each relation
-			List<String> normalForms = calculateNormalFormsForRelations(currentState, session, computationId);
+			List<String> normalForms = calculateNormalFormsForRelations(currentState, computation);
 			model.addAttribute("currentRelationsNormalFormsJson", gson.toJson(normalForms));
 
 			model.addAttribute("initialCalcTableJson", "[]");
 			model.addAttribute("ricJson", "[]");
 		} else if (!initialStatePopulated) {
-			populateInitialNormalization(session, model, computationId);
+			populateInitialNormalization(session, model, computation);
 		}
 
 		// Get the original FD strings for display (in index format like "1,2,3→5")
-		@SuppressWarnings("unchecked")
-		List<String> originalFdStringsForDisplay = (List<String>) session.getAttribute(prefix + "originalFdStringsForDisplay");
-		if (originalFdStringsForDisplay == null) {
-			originalFdStringsForDisplay = new ArrayList<>();
-		}
+		List<String> originalFdStringsForDisplay = computation.fdAnalysis().fdStringsForDisplay();
 
 		// Get transitive FD strings for display (in index format)
-		@SuppressWarnings("unchecked")
-		List<String> transitiveFdStringsForDisplay = (List<String>) session.getAttribute(prefix + "transitiveFdStringsForDisplay");
-		if (transitiveFdStringsForDisplay == null) {
-			transitiveFdStringsForDisplay = new ArrayList<>();
-		}
+		List<String> transitiveFdStringsForDisplay = computation.fdAnalysis().transitiveFdStringsForDisplay();
 
 		model.addAttribute("fdItems", originalFdStringsForDisplay);
 
@@ -301,27 +286,22 @@ public class PageController {
 		model.addAttribute("computationId", computationId);
 
 		// Add plaqueMode to model
-		String plaqueMode = (String) session.getAttribute(prefix + "plaqueMode");
-		model.addAttribute("plaqueMode", plaqueMode != null ? plaqueMode : "enabled");
+		model.addAttribute("plaqueMode", computation.plaqueMode());
 
 		return "normalization";
 	}
 
-	private void populateInitialNormalization(HttpSession session, Model model, String computationId) {
-		String prefix = "computation_" + computationId + "_";
-
-		String initJson = (String) session.getAttribute(prefix + "initialCalcTableJson");
-		String ricJsonInit = (String) session.getAttribute(prefix + "originalTableJson");
+	private void populateInitialNormalization(HttpSession session, Model model, ComputationRecord computation) {
+		String initJson = sessionTableStore.getInputJson(computation);
+		String ricJsonInit = computation.ric().toJson();
 
 		// Calculate original table's normal form
 		String originalNormalForm = "1NF"; // Default
 		try {
-			@SuppressWarnings("unchecked")
-			List<FD> originalFDs = (List<FD>) session.getAttribute(prefix + "originalFDs");
-			@SuppressWarnings("unchecked")
-			List<String> originalAttrOrder = (List<String>) session.getAttribute(prefix + "originalAttrOrder");
+			List<FD> originalFDs = computation.fdAnalysis().originalFDs();
+			List<String> originalAttrOrder = computation.fdAnalysis().attrOrder();
 
-			if (originalFDs != null && originalAttrOrder != null && !originalAttrOrder.isEmpty()) {
+			if (!originalAttrOrder.isEmpty()) {
 				Set<String> attributes = new LinkedHashSet<>(originalAttrOrder);
 				originalNormalForm = normalFormChecker.checkNormalForm(attributes, originalFDs);
 			}
@@ -330,8 +310,8 @@ public class PageController {
 		}
 
 		model.addAttribute("originalNormalForm", originalNormalForm);
-		model.addAttribute("initialCalcTableJson", initJson != null ? initJson : "[]");
-		model.addAttribute("ricJson", ricJsonInit != null ? ricJsonInit : "[]");
+		model.addAttribute("initialCalcTableJson", initJson);
+		model.addAttribute("ricJson", ricJsonInit);
 		model.addAttribute("currentRelationsManualJson", "[]");
 		model.addAttribute("currentRelationsColumnsJson", "[]");
 		model.addAttribute("currentRelationsFdsJson", "[]");
@@ -343,8 +323,7 @@ public class PageController {
 	}
 
 	// Calculate normal forms for each relation in the state
-	private List<String> calculateNormalFormsForRelations(Map<String, Object> state, HttpSession session, String computationId) {
-		String prefix = "computation_" + computationId + "_";
+	private List<String> calculateNormalFormsForRelations(Map<String, Object> state, ComputationRecord computation) {
 		List<String> normalForms = new ArrayList<>();
 
 		try {
@@ -352,8 +331,7 @@ public class PageController {
 			List<String> fdsPerTableOriginal = (List<String>) state.get("fdsPerTableOriginal");
 			@SuppressWarnings("unchecked")
 			List<List<Integer>> columnsPerTable = (List<List<Integer>>) state.get("columnsPerTable");
-			@SuppressWarnings("unchecked")
-			List<String> originalAttrOrder = (List<String>) session.getAttribute(prefix + "originalAttrOrder");
+			List<String> originalAttrOrder = computation.fdAnalysis().attrOrder();
 
 			if (fdsPerTableOriginal == null || columnsPerTable == null) {
 				return normalForms;
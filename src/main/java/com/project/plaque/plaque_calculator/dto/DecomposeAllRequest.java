@@ -15,6 +15,8 @@ public class DecomposeAllRequest {
 	private boolean monteCarlo;
 	private int samples;
 	private String manualData;
+	// Uploaded dataset (see DatasetController), used when manualData is empty
+	private String datasetId;
 	private String fds;
 	// Limits checks to a subset of the original relation (used for nested normalization)
 	private List<Integer> baseColumns;
@@ -45,6 +47,9 @@ public class DecomposeAllRequest {
 	public String getManualData() { return manualData; }
 	public void setManualData(String manualData) { this.manualData = manualData; }
 
+	public String getDatasetId() { return datasetId; }
+	public void setDatasetId(String datasetId) { this.datasetId = datasetId; }
+
 	public String getFds() { return fds; }
 	public void setFds(String fds) { this.fds = fds; }
 
@@ -6,6 +6,8 @@ public class DecomposeRequest {
 
 	private String computationId;
 	private String manualData;
+	// Uploaded dataset (see DatasetController), used when manualData is empty
+	private String datasetId;
 	private List<Integer> columns;
 	private String fds;
 	private int timeLimit;
@@ -23,6 +25,9 @@ public class DecomposeRequest {
 	public String getManualData() { return manualData; }
 	public void setManualData(String manualData) { this.manualData = manualData; }
 
+	public String getDatasetId() { return datasetId; }
+	public void setDatasetId(String datasetId) { this.datasetId = datasetId; }
+
 	public List<Integer> getColumns() { return columns; }
 	public void setColumns(List<Integer> columns) { this.columns = columns; }
 
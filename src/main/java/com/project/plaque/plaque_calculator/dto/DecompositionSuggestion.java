@@ -0,0 +1,31 @@
+package com.project.plaque.plaque_calculator.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One suggested decomposition: tables as 0-based column indices of the original relation
+public class DecompositionSuggestion {
+	private List<List<Integer>> tables = new ArrayList<>();
+	private List<List<String>> tableAttributes = new ArrayList<>();
+	private int tableCount;
+	private boolean dpPreserved;
+	// FDs that are not preserved by this decomposition
+	private List<String> missingFDs = new ArrayList<>();
+
+	public DecompositionSuggestion() {}
+
+	public List<List<Integer>> getTables() { return tables; }
+	public void setTables(List<List<Integer>> tables) { this.tables = tables == null ? new ArrayList<>() : tables; }
+
+	public List<List<String>> getTableAttributes() { return tableAttributes; }
+	public void setTableAttributes(List<List<String>> tableAttributes) { this.tableAttributes = tableAttributes == null ? new ArrayList<>() : tableAttributes; }
+
+	public int getTableCount() { return tableCount; }
+	public void setTableCount(int tableCount) { this.tableCount = tableCount; }
+
+	public boolean isDpPreserved() { return dpPreserved; }
+	public void setDpPreserved(boolean dpPreserved) { this.dpPreserved = dpPreserved; }
+
+	public List<String> getMissingFDs() { return missingFDs; }
+	public void setMissingFDs(List<String> missingFDs) { this.missingFDs = missingFDs == null ? new ArrayList<>() : missingFDs; }
+}
@@ -0,0 +1,23 @@
+package com.project.plaque.plaque_calculator.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response for the decomposition suggestion endpoints, best suggestion first
+public class DecompositionSuggestionResponse {
+	private String target;  // normal form the suggestions reach, e.g. "BCNF"
+	private List<DecompositionSuggestion> suggestions = new ArrayList<>();
+	// false if the search stopped at its budget, better suggestions may exist
+	private boolean complete;
+
+	public DecompositionSuggestionResponse() {}
+
+	public String getTarget() { return target; }
+	public void setTarget(String target) { this.target = target; }
+
+	public List<DecompositionSuggestion> getSuggestions() { return suggestions; }
+	public void setSuggestions(List<DecompositionSuggestion> suggestions) { this.suggestions = suggestions == null ? new ArrayList<>() : suggestions; }
+
+	public boolean isComplete() { return complete; }
+	public void setComplete(boolean complete) { this.complete = complete; }
+}
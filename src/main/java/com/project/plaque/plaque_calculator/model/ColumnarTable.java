@@ -0,0 +1,447 @@
+package com.project.plaque.plaque_calculator.model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Table data stored column by column with dictionary-encoded values.
+ * Every column maps its distinct values to codes 0..cardinality-1 in order of first appearance,
+ * so equality checks on the data (FD validation, partitions) work on ints only.
+ * Rows shorter than the widest row are padded with empty values.
+ * Projection with duplicate elimination (project, distinctRows) hashes the code tuples of the rows in an
+ * open-addressing table, so no row strings or row lists are built.
+ * Serialized compactly (see toBytes): each dictionary once, then every code in as few bytes as its column needs.
+ */
+public final class ColumnarTable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int rowCount;
+	private final int[][] columns;
+	private final List<List<String>> dictionaries;
+
+	private ColumnarTable(int rowCount, int[][] columns, List<List<String>> dictionaries) {
+		this.rowCount = rowCount;
+		this.columns = columns;
+		this.dictionaries = dictionaries;
+	}
+
+	public static ColumnarTable fromRows(List<List<String>> rows) {
+		Builder builder = new Builder();
+		if (rows != null) {
+			for (List<String> row : rows) {
+				builder.addRow(row);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Rows of all tables in order, with the dictionaries merged (codes stay in order of first appearance).
+	 * Tables with fewer columns are padded with empty values, as in Builder.
+	 */
+	public static ColumnarTable concat(List<ColumnarTable> tables) {
+		if (tables.size() == 1) {
+			return tables.get(0);
+		}
+		int rowCount = 0;
+		int columnCount = 0;
+		for (ColumnarTable table : tables) {
+			rowCount += table.rowCount;
+			columnCount = Math.max(columnCount, table.columns.length);
+		}
+		int[][] merged = new int[columnCount][];
+		List<List<String>> mergedDictionaries = new ArrayList<>(columnCount);
+		for (int c = 0; c < columnCount; c++) {
+			Map<String, Integer> index = new HashMap<>();
+			List<String> values = new ArrayList<>();
+			int[] column = new int[rowCount];
+			int offset = 0;
+			for (ColumnarTable table : tables) {
+				if (table.rowCount == 0) {
+					continue;
+				}
+				if (c < table.columns.length) {
+					List<String> dictionary = table.dictionaries.get(c);
+					int[] remap = new int[dictionary.size()];
+					for (int code = 0; code < remap.length; code++) {
+						remap[code] = mergedCode(index, values, dictionary.get(code));
+					}
+					int[] source = table.columns[c];
+					for (int r = 0; r < table.rowCount; r++) {
+						column[offset + r] = remap[source[r]];
+					}
+				} else {
+					Arrays.fill(column, offset, offset + table.rowCount, mergedCode(index, values, ""));
+				}
+				offset += table.rowCount;
+			}
+			merged[c] = column;
+			mergedDictionaries.add(List.copyOf(values));
+		}
+		return new ColumnarTable(rowCount, merged, List.copyOf(mergedDictionaries));
+	}
+
+	private static int mergedCode(Map<String, Integer> index, List<String> values, String value) {
+		Integer code = index.get(value);
+		if (code == null) {
+			code = values.size();
+			index.put(value, code);
+			values.add(value);
+		}
+		return code;
+	}
+
+	public int getRowCount() { return rowCount; }
+	public int getColumnCount() { return columns.length; }
+
+	// Codes of one column by row; the array is shared and must not be modified
+	public int[] getColumn(int column) { return columns[column]; }
+
+	public int getCardinality(int column) { return dictionaries.get(column).size(); }
+	public List<String> getDictionary(int column) { return dictionaries.get(column); }
+	public String getValue(int row, int column) { return dictionaries.get(column).get(columns[column][row]); }
+
+	public List<List<String>> toRows() {
+		List<List<String>> out = new ArrayList<>(rowCount);
+		for (int r = 0; r < rowCount; r++) {
+			out.add(getRow(r));
+		}
+		return out;
+	}
+
+	public List<String> getRow(int row) {
+		List<String> out = new ArrayList<>(columns.length);
+		for (int c = 0; c < columns.length; c++) {
+			out.add(getValue(row, c));
+		}
+		return out;
+	}
+
+	/**
+	 * Distinct rows of the projection on the given columns (a column may appear more than once).
+	 * Rows come in order of first appearance; dictionaries are shared with this table.
+	 */
+	public ColumnarTable project(int[] projection) {
+		int[][] selected = new int[projection.length][];
+		List<List<String>> selectedDictionaries = new ArrayList<>(projection.length);
+		for (int i = 0; i < projection.length; i++) {
+			selected[i] = columns[projection[i]];
+			selectedDictionaries.add(dictionaries.get(projection[i]));
+		}
+		return new ColumnarTable(rowCount, selected, List.copyOf(selectedDictionaries)).selectRows(distinctRows(projection));
+	}
+
+	// Distinct rows of the whole table
+	public ColumnarTable distinct() {
+		int[] all = new int[columns.length];
+		for (int c = 0; c < all.length; c++) {
+			all[c] = c;
+		}
+		return project(all);
+	}
+
+	// First row of every distinct combination of values on the given columns, in row order
+	public int[] distinctRows(int[] projection) {
+		if (rowCount == 0) {
+			return new int[0];
+		}
+		if (projection.length == 0) {
+			return new int[]{0};
+		}
+		int[][] codes = new int[projection.length][];
+		for (int i = 0; i < projection.length; i++) {
+			codes[i] = columns[projection[i]];
+		}
+		int[] out = new int[rowCount];
+		int count = 0;
+		if (codes.length == 1) {
+			// One column: the codes themselves are the hash
+			boolean[] seen = new boolean[dictionaries.get(projection[0]).size()];
+			for (int r = 0; r < rowCount; r++) {
+				if (!seen[codes[0][r]]) {
+					seen[codes[0][r]] = true;
+					out[count++] = r;
+				}
+			}
+			return Arrays.copyOf(out, count);
+		}
+		int capacity = Integer.highestOneBit(Math.max(1, rowCount * 2 - 1)) << 1;
+		int mask = capacity - 1;
+		int[] slotRow = new int[capacity];
+		Arrays.fill(slotRow, -1);
+		for (int r = 0; r < rowCount; r++) {
+			int slot = (int) (mix(hash(codes, r)) & mask);
+			int representative;
+			boolean duplicate = false;
+			while ((representative = slotRow[slot]) >= 0) {
+				if (sameValues(codes, representative, r)) {
+					duplicate = true;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (!duplicate) {
+				slotRow[slot] = r;
+				out[count++] = r;
+			}
+		}
+		return Arrays.copyOf(out, count);
+	}
+
+	/**
+	 * Table with every value replaced by mapper(value), e.g. trimmed or sanitized.
+	 * Values that become equal share one code; columns without such merges keep their code arrays.
+	 */
+	public ColumnarTable mapValues(UnaryOperator<String> mapper) {
+		int[][] mappedColumns = new int[columns.length][];
+		List<List<String>> mappedDictionaries = new ArrayList<>(columns.length);
+		for (int c = 0; c < columns.length; c++) {
+			List<String> dictionary = dictionaries.get(c);
+			Map<String, Integer> index = new HashMap<>();
+			List<String> mapped = new ArrayList<>(dictionary.size());
+			int[] remap = new int[dictionary.size()];
+			boolean merged = false;
+			for (int code = 0; code < dictionary.size(); code++) {
+				String value = mapper.apply(dictionary.get(code));
+				Integer existing = index.putIfAbsent(value, mapped.size());
+				if (existing == null) {
+					remap[code] = mapped.size();
+					mapped.add(value);
+				} else {
+					remap[code] = existing;
+					merged = true;
+				}
+			}
+			int[] column = columns[c];
+			if (merged) {
+				int[] remapped = new int[rowCount];
+				for (int r = 0; r < rowCount; r++) {
+					remapped[r] = remap[column[r]];
+				}
+				column = remapped;
+			}
+			mappedColumns[c] = column;
+			mappedDictionaries.add(List.copyOf(mapped));
+		}
+		return new ColumnarTable(rowCount, mappedColumns, List.copyOf(mappedDictionaries));
+	}
+
+	// Table of the given rows (in the given order); dictionaries are shared, so codes stay comparable
+	public ColumnarTable selectRows(int[] rows) {
+		if (rows.length == rowCount && isIdentity(rows)) {
+			return this;
+		}
+		int[][] selected = new int[columns.length][];
+		for (int c = 0; c < columns.length; c++) {
+			int[] source = columns[c];
+			int[] target = new int[rows.length];
+			for (int i = 0; i < rows.length; i++) {
+				target[i] = source[rows[i]];
+			}
+			selected[c] = target;
+		}
+		return new ColumnarTable(rows.length, selected, dictionaries);
+	}
+
+	/**
+	 * Layout: row count, column count, then per column the dictionary (length-prefixed UTF-8 values)
+	 * followed by the codes in 0 to 4 bytes each, depending on the cardinality of the column.
+	 */
+	public byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(rowCount);
+			out.writeInt(columns.length);
+			for (int c = 0; c < columns.length; c++) {
+				List<String> dictionary = dictionaries.get(c);
+				out.writeInt(dictionary.size());
+				for (String value : dictionary) {
+					byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(utf8.length);
+					out.write(utf8);
+				}
+				int width = codeWidth(dictionary.size());
+				for (int code : columns[c]) {
+					for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+						out.write(code >>> shift);
+					}
+				}
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static ColumnarTable fromBytes(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			int rowCount = in.readInt();
+			int columnCount = in.readInt();
+			int[][] columns = new int[columnCount][];
+			List<List<String>> dictionaries = new ArrayList<>(columnCount);
+			for (int c = 0; c < columnCount; c++) {
+				String[] dictionary = new String[in.readInt()];
+				for (int i = 0; i < dictionary.length; i++) {
+					byte[] utf8 = new byte[in.readInt()];
+					in.readFully(utf8);
+					dictionary[i] = new String(utf8, StandardCharsets.UTF_8);
+				}
+				dictionaries.add(List.of(dictionary));
+				int width = codeWidth(dictionary.length);
+				int[] codes = new int[rowCount];
+				for (int r = 0; r < rowCount; r++) {
+					int code = 0;
+					for (int b = 0; b < width; b++) {
+						code = (code << 8) | in.readUnsignedByte();
+					}
+					codes[r] = code;
+				}
+				columns[c] = codes;
+			}
+			return new ColumnarTable(rowCount, columns, List.copyOf(dictionaries));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static boolean isIdentity(int[] rows) {
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != i) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean sameValues(int[][] codes, int a, int b) {
+		for (int[] col : codes) {
+			if (col[a] != col[b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long hash(int[][] codes, int row) {
+		long hash = 1;
+		for (int[] col : codes) {
+			hash = hash * 31 + col[row];
+		}
+		return hash;
+	}
+
+	// Murmur3 finalizer step, spreads the low bits used for the slot
+	private static long mix(long h) {
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return h;
+	}
+
+	// Bytes per code for a column with the given number of distinct values
+	private static int codeWidth(int cardinality) {
+		int max = cardinality - 1;
+		int width = 0;
+		while (max > 0) {
+			width++;
+			max >>>= 8;
+		}
+		return width;
+	}
+
+	private Object writeReplace() {
+		return new SerializedForm(toBytes());
+	}
+
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("ColumnarTable is serialized through SerializedForm");
+	}
+
+	private static final class SerializedForm implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final byte[] data;
+
+		SerializedForm(byte[] data) {
+			this.data = data;
+		}
+
+		private Object readResolve() {
+			return fromBytes(data);
+		}
+	}
+
+	// Collects rows one at a time and encodes them on the fly (usable as a row sink of the CSV parser)
+	public static final class Builder implements Consumer<List<String>> {
+		private final List<Map<String, Integer>> codes = new ArrayList<>();
+		private final List<List<String>> values = new ArrayList<>();
+		private final List<int[]> data = new ArrayList<>();
+		private int rowCount;
+
+		public Builder addRow(List<String> row) {
+			int width = row == null ? 0 : row.size();
+			while (codes.size() < width) {
+				addColumn();
+			}
+			ensureCapacity(rowCount + 1);
+			for (int c = 0; c < codes.size(); c++) {
+				String value = c < width && row.get(c) != null ? row.get(c) : "";
+				data.get(c)[rowCount] = encode(c, value);
+			}
+			rowCount++;
+			return this;
+		}
+
+		@Override
+		public void accept(List<String> row) {
+			addRow(row);
+		}
+
+		public int getRowCount() { return rowCount; }
+
+		public ColumnarTable build() {
+			int[][] columns = new int[codes.size()][];
+			List<List<String>> dictionaries = new ArrayList<>(codes.size());
+			for (int c = 0; c < codes.size(); c++) {
+				columns[c] = Arrays.copyOf(data.get(c), rowCount);
+				dictionaries.add(List.copyOf(values.get(c)));
+			}
+			return new ColumnarTable(rowCount, columns, List.copyOf(dictionaries));
+		}
+
+		// A column that appears late gets empty values for the rows before it
+		private void addColumn() {
+			codes.add(new HashMap<>());
+			values.add(new ArrayList<>());
+			int c = codes.size() - 1;
+			int[] column = new int[Math.max(16, data.isEmpty() ? 16 : data.get(0).length)];
+			if (rowCount > 0) {
+				Arrays.fill(column, 0, rowCount, encode(c, ""));
+			}
+			data.add(column);
+		}
+
+		private void ensureCapacity(int size) {
+			for (int c = 0; c < data.size(); c++) {
+				int[] column = data.get(c);
+				if (column.length < size) {
+					data.set(c, Arrays.copyOf(column, Math.max(size, column.length * 2)));
+				}
+			}
+		}
+
+		private int encode(int column, String value) {
+			Map<String, Integer> dictionary = codes.get(column);
+			Integer code = dictionary.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.put(value, code);
+				values.get(column).add(value);
+			}
+			return code;
+		}
+	}
+}
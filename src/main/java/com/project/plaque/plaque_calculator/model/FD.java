@@ -1,11 +1,17 @@
 package com.project.plaque.plaque_calculator.model;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 
-public class FD {
+public class FD implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	private final Set<String> lhs;
 	private final Set<String> rhs;
 
@@ -0,0 +1,220 @@
+package com.project.plaque.plaque_calculator.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Undo history of a normalization session: the states sent by /normalize/continue, newest last.
+ * Steps are not kept as full snapshots:
+ * - every value is stored once per distinct content (keyed by its deep hashCode/equals), so a table, RIC matrix
+ *   or FD list that did not change between steps is shared by all of them
+ * - list values (manualPerTable, ricPerTable, ...) are split per table, so one changed table only adds that table
+ * - a step only records the keys whose value differs from the previous step
+ * A state is rebuilt from the steps when it is read. Stored values are deep read-only copies.
+ */
+public final class NormalizationHistory implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	// Distinct values of all steps, with the number of step references to each
+	private final Map<Object, Shared> pool = new HashMap<>();
+	private final List<Step> steps = new ArrayList<>();
+	// References of the newest state, the base for the next delta
+	private Map<String, Object> head = new LinkedHashMap<>();
+
+	private static final class Shared implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final Object value;
+		private int refs;
+
+		private Shared(Object value) {
+			this.value = value;
+		}
+	}
+
+	// Changes against the previous step; values are a Shared, or a List<Shared> for list values split per table
+	private static final class Step implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final Map<String, Object> changed = new LinkedHashMap<>();
+		private final List<String> removed = new ArrayList<>();
+		// Key order of the state, shared with the previous step when it is the same
+		private List<String> keys;
+	}
+
+	public synchronized void append(Map<String, Object> state) {
+		Step step = new Step();
+		Map<String, Object> next = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> e : state.entrySet()) {
+			Object ref = intern(e.getValue());
+			Object previous = head.get(e.getKey());
+			if (previous == null || !sameRef(previous, ref)) {
+				step.changed.put(e.getKey(), ref);
+			} else {
+				// Unchanged: the previous step keeps the reference
+				release(ref);
+				ref = previous;
+			}
+			next.put(e.getKey(), ref);
+		}
+		for (String key : head.keySet()) {
+			if (!next.containsKey(key)) {
+				step.removed.add(key);
+			}
+		}
+		List<String> keys = new ArrayList<>(next.keySet());
+		step.keys = !steps.isEmpty() && steps.get(steps.size() - 1).keys.equals(keys)
+				? steps.get(steps.size() - 1).keys
+				: Collections.unmodifiableList(keys);
+		steps.add(step);
+		head = next;
+	}
+
+	// Removes the newest state and returns it, or null if the history is empty
+	public synchronized Map<String, Object> pop() {
+		if (steps.isEmpty()) {
+			return null;
+		}
+		Map<String, Object> state = resolve(head);
+		Step step = steps.remove(steps.size() - 1);
+		step.changed.values().forEach(this::release);
+		head = replay(steps.size());
+		return state;
+	}
+
+	// Newest state, or null if the history is empty
+	public synchronized Map<String, Object> latest() {
+		return steps.isEmpty() ? null : resolve(head);
+	}
+
+	// State of step index (0 is the oldest)
+	public synchronized Map<String, Object> get(int index) {
+		Objects.checkIndex(index, steps.size());
+		return resolve(replay(index + 1));
+	}
+
+	public synchronized int size() {
+		return steps.size();
+	}
+
+	public synchronized boolean isEmpty() {
+		return steps.isEmpty();
+	}
+
+	// Number of distinct values stored for all steps
+	public synchronized int getSharedValueCount() {
+		return pool.size();
+	}
+
+	// References of the state after the first count steps
+	private Map<String, Object> replay(int count) {
+		Map<String, Object> refs = new HashMap<>();
+		for (int i = 0; i < count; i++) {
+			Step step = steps.get(i);
+			refs.putAll(step.changed);
+			step.removed.forEach(refs::remove);
+		}
+		if (count == 0) {
+			return new LinkedHashMap<>();
+		}
+		Map<String, Object> ordered = new LinkedHashMap<>();
+		for (String key : steps.get(count - 1).keys) {
+			ordered.put(key, refs.get(key));
+		}
+		return ordered;
+	}
+
+	// Fresh map over the shared (read-only) values
+	private static Map<String, Object> resolve(Map<String, Object> refs) {
+		Map<String, Object> state = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> e : refs.entrySet()) {
+			Object ref = e.getValue();
+			if (ref instanceof Shared shared) {
+				state.put(e.getKey(), shared.value);
+			} else {
+				List<?> parts = (List<?>) ref;
+				List<Object> values = new ArrayList<>(parts.size());
+				for (Object part : parts) {
+					values.add(((Shared) part).value);
+				}
+				state.put(e.getKey(), Collections.unmodifiableList(values));
+			}
+		}
+		return state;
+	}
+
+	private Object intern(Object value) {
+		if (value instanceof List<?> list) {
+			List<Shared> parts = new ArrayList<>(list.size());
+			for (Object item : list) {
+				parts.add(share(item));
+			}
+			return parts;
+		}
+		return share(value);
+	}
+
+	private Shared share(Object value) {
+		Shared shared = pool.get(value);
+		if (shared == null) {
+			Object copy = readOnlyCopy(value);
+			shared = new Shared(copy);
+			pool.put(copy, shared);
+		}
+		shared.refs++;
+		return shared;
+	}
+
+	private void release(Object ref) {
+		if (ref instanceof Shared shared) {
+			if (--shared.refs <= 0) {
+				pool.remove(shared.value);
+			}
+		} else {
+			((List<?>) ref).forEach(this::release);
+		}
+	}
+
+	private static boolean sameRef(Object a, Object b) {
+		if (a instanceof Shared || b instanceof Shared) {
+			return a == b;
+		}
+		List<?> left = (List<?>) a;
+		List<?> right = (List<?>) b;
+		if (left.size() != right.size()) {
+			return false;
+		}
+		for (int i = 0; i < left.size(); i++) {
+			if (left.get(i) != right.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Values come from a parsed JSON body: maps, lists, strings, numbers, booleans and nulls
+	private static Object readOnlyCopy(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			map.forEach((k, v) -> copy.put(k, readOnlyCopy(v)));
+			return Collections.unmodifiableMap(copy);
+		}
+		if (value instanceof List<?> list) {
+			List<Object> copy = new ArrayList<>(list.size());
+			list.forEach(v -> copy.add(readOnlyCopy(v)));
+			return Collections.unmodifiableList(copy);
+		}
+		return value;
+	}
+}
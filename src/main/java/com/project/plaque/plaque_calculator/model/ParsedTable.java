@@ -0,0 +1,235 @@
+package com.project.plaque.plaque_calculator.model;
+
+import com.project.plaque.plaque_calculator.util.CsvParsingUtil;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Table input parsed once per submission.
+ * Every view the compute pipeline needs is derived from the parsed rows instead of parsing the text again:
+ * - row/column counts and whether all rows have the same number of cells
+ * - the dictionary-encoded table and its distinct rows (cells trimmed), the original tuples of a computation
+ * - the RIC-encoded form handed to the RIC jar (see CsvParsingUtil.toRicCompatibleString)
+ * Instances are immutable; derived views are built on first use and shared afterwards.
+ * A table built from a ColumnarTable (see of) reads its rows from the codes and only writes its text when asked.
+ */
+public final class ParsedTable {
+
+	private static final ParsedTable EMPTY = new ParsedTable("", List.of());
+
+	private final List<List<String>> rows;
+	private final int columnCount;
+	private final int firstInconsistentRow;
+	// Tables built from a ColumnarTable write their source on first use, in the RIC format for ricEncoded views
+	private final boolean ricFormat;
+
+	// Derived on first use; building them twice under a race is harmless
+	private volatile String source;
+	private volatile ColumnarTable columnar;
+	private volatile ColumnarTable distinctTable;
+	private volatile ParsedTable ricEncoded;
+
+	private ParsedTable(String source, List<List<String>> rows) {
+		this.source = source;
+		this.rows = rows;
+		int maxCols = 0;
+		int inconsistent = -1;
+		for (int i = 0; i < rows.size(); i++) {
+			int size = rows.get(i).size();
+			maxCols = Math.max(maxCols, size);
+			if (inconsistent < 0 && size != rows.get(0).size()) {
+				inconsistent = i;
+			}
+		}
+		this.columnCount = maxCols;
+		this.firstInconsistentRow = inconsistent;
+		this.ricFormat = false;
+	}
+
+	// View over the codes of a table; a ColumnarTable always has the same number of cells in every row
+	private ParsedTable(ColumnarTable table, boolean ricFormat) {
+		this.rows = new RowView(table);
+		this.columnCount = table.getColumnCount();
+		this.firstInconsistentRow = -1;
+		this.ricFormat = ricFormat;
+		this.columnar = table;
+	}
+
+	// Large inputs are parsed in chunks on the given pool
+	public static ParsedTable parse(String manualData, ForkJoinPool pool) {
+		if (manualData == null || manualData.isBlank()) {
+			return EMPTY;
+		}
+		if (manualData.length() < CsvParsingUtil.PARALLEL_THRESHOLD) {
+			List<List<String>> rows = new ArrayList<>();
+			CsvParsingUtil.parseRows(manualData, row -> rows.add(List.copyOf(row)));
+			return new ParsedTable(manualData, Collections.unmodifiableList(rows));
+		}
+		// Large input: chunks are parsed in parallel, each into its rows and its own column builder
+		List<Chunk> chunks = CsvParsingUtil.parseRowsInChunks(manualData, Chunk::new, pool);
+		List<List<String>> rows = new ArrayList<>();
+		List<ColumnarTable> columnarChunks = new ArrayList<>(chunks.size());
+		for (Chunk chunk : chunks) {
+			rows.addAll(chunk.rows);
+			columnarChunks.add(chunk.builder.build());
+		}
+		ParsedTable table = new ParsedTable(manualData, Collections.unmodifiableList(rows));
+		table.columnar = ColumnarTable.concat(columnarChunks);
+		return table;
+	}
+
+	// Table that was parsed elsewhere (e.g. an uploaded dataset); rows are read from it, its source is written on first use
+	public static ParsedTable of(ColumnarTable table) {
+		return table.getRowCount() == 0 ? EMPTY : new ParsedTable(table, false);
+	}
+
+	// Rows of a ColumnarTable, built when they are read
+	private static final class RowView extends AbstractList<List<String>> implements RandomAccess {
+		private final ColumnarTable table;
+
+		private RowView(ColumnarTable table) {
+			this.table = table;
+		}
+
+		@Override
+		public List<String> get(int index) {
+			return Collections.unmodifiableList(table.getRow(index));
+		}
+
+		@Override
+		public int size() {
+			return table.getRowCount();
+		}
+	}
+
+	private static final class Chunk implements Consumer<List<String>> {
+		private final List<List<String>> rows = new ArrayList<>();
+		private final ColumnarTable.Builder builder = new ColumnarTable.Builder();
+
+		@Override
+		public void accept(List<String> row) {
+			rows.add(List.copyOf(row));
+			builder.addRow(row);
+		}
+	}
+
+	// Text the table was parsed from; written from the rows for a table built from a ColumnarTable
+	public String getSource() {
+		String out = source;
+		if (out == null) {
+			out = ricFormat ? writeRicString(columnar) : CsvParsingUtil.toManualDataString(rows);
+			source = out;
+		}
+		return out;
+	}
+
+	public List<List<String>> getRows() { return rows; }
+	public int getRowCount() { return rows.size(); }
+	// Cells of the widest row
+	public int getColumnCount() { return columnCount; }
+	public boolean isEmpty() { return rows.isEmpty(); }
+	public boolean isConsistent() { return firstInconsistentRow < 0; }
+	// Index of the first row whose cell count differs from the first row, or -1
+	public int getFirstInconsistentRow() { return firstInconsistentRow; }
+
+	public ColumnarTable toColumnar() {
+		ColumnarTable out = columnar;
+		if (out == null) {
+			out = ColumnarTable.fromRows(rows);
+			columnar = out;
+		}
+		return out;
+	}
+
+	// Rows with trimmed cells, duplicates removed, in order of first appearance
+	public ColumnarTable getDistinctTable() {
+		ColumnarTable out = distinctTable;
+		if (out == null) {
+			out = toColumnar().mapValues(String::trim).distinct();
+			distinctTable = out;
+		}
+		return out;
+	}
+
+	public List<List<String>> getDistinctRows() {
+		return getDistinctTable().toRows();
+	}
+
+	/**
+	 * Table in the format of the RIC jar: cells without commas, semicolons and quotes, rows without any text dropped.
+	 * Its source is the RIC input string, so parsing that string again gives the same rows.
+	 */
+	public ParsedTable ricEncoded() {
+		ParsedTable out = ricEncoded;
+		if (out == null && source == null) {
+			out = ricEncoded(columnar);
+			ricEncoded = out;
+		}
+		if (out == null) {
+			List<List<String>> encoded = new ArrayList<>(rows.size());
+			List<String> serialized = new ArrayList<>(rows.size());
+			for (List<String> row : rows) {
+				List<String> cells = new ArrayList<>(row.size());
+				boolean blank = true;
+				for (String cell : row) {
+					String sanitized = CsvParsingUtil.toRicCell(cell);
+					blank &= sanitized.isEmpty();
+					cells.add(sanitized);
+				}
+				if (!blank) {
+					encoded.add(Collections.unmodifiableList(cells));
+					serialized.add(String.join(",", cells));
+				}
+			}
+			out = encoded.isEmpty() ? EMPTY : new ParsedTable(String.join(";", serialized), Collections.unmodifiableList(encoded));
+			out.ricEncoded = out;
+			ricEncoded = out;
+		}
+		return out;
+	}
+
+	// RIC input string (see ricEncoded)
+	public String getRicString() {
+		return ricEncoded().getSource();
+	}
+
+	// RIC form of a table view: the cells are mapped once per distinct value, rows without any text are left out
+	private static ParsedTable ricEncoded(ColumnarTable table) {
+		ColumnarTable encoded = table.mapValues(CsvParsingUtil::toRicCell);
+		int[] kept = new int[encoded.getRowCount()];
+		int keptCount = 0;
+		for (int r = 0; r < encoded.getRowCount(); r++) {
+			for (int c = 0; c < encoded.getColumnCount(); c++) {
+				if (!encoded.getValue(r, c).isEmpty()) {
+					kept[keptCount++] = r;
+					break;
+				}
+			}
+		}
+		if (keptCount == 0) {
+			return EMPTY;
+		}
+		ParsedTable out = new ParsedTable(encoded.selectRows(Arrays.copyOf(kept, keptCount)), true);
+		out.ricEncoded = out;
+		return out;
+	}
+
+	// Cells joined by commas, rows by semicolons; RIC cells never need quotes
+	private static String writeRicString(ColumnarTable table) {
+		StringBuilder out = new StringBuilder();
+		for (int r = 0; r < table.getRowCount(); r++) {
+			if (r > 0) {
+				out.append(';');
+			}
+			for (int c = 0; c < table.getColumnCount(); c++) {
+				if (c > 0) {
+					out.append(',');
+				}
+				out.append(table.getValue(r, c));
+			}
+		}
+		return out.toString();
+	}
+}
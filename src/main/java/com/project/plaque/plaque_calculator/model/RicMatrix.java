@@ -0,0 +1,153 @@
+package com.project.plaque.plaque_calculator.model;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * RIC matrix of a table, stored once as a flat row-major double array.
+ * The forms the pages need are derived when they are read instead of being kept next to the values:
+ * - asStringRows : rows of cell strings for the templates, each row formatted when it is accessed
+ * - toJson       : the same strings as a JSON array of arrays, written on request
+ * Cells are formatted with String.valueOf(double), as the pages compare them against "1.0".
+ * Instances are immutable.
+ */
+public final class RicMatrix implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	public static final RicMatrix EMPTY = new RicMatrix(new double[0], new int[] {0});
+
+	private final double[] values;
+	// Start of every row in values plus the end of the last one (rows of the RIC jar output may differ in length)
+	private final int[] rowOffsets;
+
+	private RicMatrix(double[] values, int[] rowOffsets) {
+		this.values = values;
+		this.rowOffsets = rowOffsets;
+	}
+
+	// Copies the matrix; missing (null) rows are skipped
+	public static RicMatrix of(double[][] matrix) {
+		if (matrix == null || matrix.length == 0) {
+			return EMPTY;
+		}
+		int rows = 0;
+		int size = 0;
+		for (double[] row : matrix) {
+			if (row != null) {
+				rows++;
+				size += row.length;
+			}
+		}
+		double[] values = new double[size];
+		int[] rowOffsets = new int[rows + 1];
+		int r = 0;
+		int offset = 0;
+		for (double[] row : matrix) {
+			if (row == null) {
+				continue;
+			}
+			System.arraycopy(row, 0, values, offset, row.length);
+			offset += row.length;
+			rowOffsets[++r] = offset;
+		}
+		return new RicMatrix(values, rowOffsets);
+	}
+
+	public int getRowCount() { return rowOffsets.length - 1; }
+
+	// Cells of the first row (the number of columns shown in the table header)
+	public int getColumnCount() {
+		return getRowCount() == 0 ? 0 : getRowLength(0);
+	}
+
+	public int getRowLength(int row) {
+		return rowOffsets[row + 1] - rowOffsets[row];
+	}
+
+	public double get(int row, int col) {
+		if (col < 0 || col >= getRowLength(row)) {
+			throw new IndexOutOfBoundsException("Column " + col + " of row " + row);
+		}
+		return values[rowOffsets[row] + col];
+	}
+
+	// One cell as the pages show it, without formatting the rest of its row
+	public String format(int row, int col) {
+		return String.valueOf(get(row, col));
+	}
+
+	public boolean isEmpty() { return getRowCount() == 0; }
+
+	// Nested copy, for code that works on double[][]
+	public double[][] toArray() {
+		double[][] out = new double[getRowCount()][];
+		for (int r = 0; r < out.length; r++) {
+			out[r] = new double[getRowLength(r)];
+			System.arraycopy(values, rowOffsets[r], out[r], 0, out[r].length);
+		}
+		return out;
+	}
+
+	// Read-only rows of cell strings; nothing is cached and every get formats its row again, so read each row once
+	public List<String[]> asStringRows() {
+		return new StringRows();
+	}
+
+	public String toJson() {
+		StringWriter out = new StringWriter();
+		writeJson(out);
+		return out.toString();
+	}
+
+	// Same output as Gson.toJson on asStringRows()
+	public void writeJson(Writer out) {
+		try {
+			JsonWriter writer = new JsonWriter(out);
+			writer.setHtmlSafe(true);
+			writer.beginArray();
+			for (int r = 0; r < getRowCount(); r++) {
+				writer.beginArray();
+				for (int i = rowOffsets[r]; i < rowOffsets[r + 1]; i++) {
+					writer.value(String.valueOf(values[i]));
+				}
+				writer.endArray();
+			}
+			writer.endArray();
+			writer.flush();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	// Rough heap size in bytes
+	public long estimatedBytes() {
+		return 48 + 8L * values.length + 4L * rowOffsets.length;
+	}
+
+	private final class StringRows extends AbstractList<String[]> implements RandomAccess {
+		@Override
+		public String[] get(int row) {
+			String[] cells = new String[getRowLength(row)];
+			for (int c = 0; c < cells.length; c++) {
+				cells[c] = format(row, c);
+			}
+			return cells;
+		}
+
+		@Override
+		public int size() {
+			return getRowCount();
+		}
+	}
+}
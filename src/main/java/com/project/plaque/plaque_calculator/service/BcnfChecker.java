@@ -0,0 +1,163 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Tiered BCNF test for one relation.
+ * - FD_LHS: all FDs are defined on the relation's attributes (e.g. the root relation or projected FDs).
+ *   The relation is in BCNF iff the LHS of every non-trivial FD is a superkey, so one closure per FD is enough.
+ * - SUBSET_SEARCH: some FD uses attributes outside the relation, so the FDs that hold on the relation
+ *   are not known. Subsets X of the relation are searched by size for X+ ∩ R ≠ X while X is no superkey.
+ *   Supersets of known superkeys are skipped, and subsets of size |R|-1 are never checked since
+ *   they are either superkeys or imply nothing.
+ */
+public class BcnfChecker {
+
+	public enum Strategy { FD_LHS, SUBSET_SEARCH }
+
+	private final ClosureEngine engine;
+	private final BitSet relation;
+	private final Strategy strategy;
+
+	public BcnfChecker(Set<String> attributes, List<FD> fds) {
+		this(new ClosureEngine(attributes, fds), attributes);
+	}
+
+	public BcnfChecker(ClosureEngine engine, Set<String> attributes) {
+		this.engine = engine;
+		this.relation = engine.toBits(attributes);
+		this.strategy = definedOnRelation() ? Strategy.FD_LHS : Strategy.SUBSET_SEARCH;
+	}
+
+	public Strategy strategy() {
+		return strategy;
+	}
+
+	public boolean isBcnf() {
+		return findViolation() == null;
+	}
+
+	/**
+	 * Find a determinant that violates BCNF.
+	 *
+	 * @return Attribute bits of a non-superkey X with X+ ∩ R ≠ X, or null if the relation is in BCNF
+	 */
+	public BitSet findViolation() {
+		List<BitSet> violations = findViolations(1);
+		return violations.isEmpty() ? null : violations.get(0);
+	}
+
+	/**
+	 * Find up to limit distinct determinants that violate BCNF, smallest first for SUBSET_SEARCH.
+	 *
+	 * @return Attribute bits of non-superkeys X with X+ ∩ R ≠ X; empty if the relation is in BCNF
+	 */
+	public List<BitSet> findViolations(int limit) {
+		List<BitSet> out = new ArrayList<>();
+		if (relation.isEmpty() || engine.fdCount() == 0 || limit <= 0) {
+			return out;
+		}
+		if (strategy == Strategy.FD_LHS) {
+			collectViolationsByFdLhs(out, limit);
+		} else {
+			collectViolationsBySubsets(out, limit);
+		}
+		return out;
+	}
+
+	private boolean definedOnRelation() {
+		for (int fd = 0; fd < engine.fdCount(); fd++) {
+			BitSet used = engine.lhsOf(fd);
+			used.or(engine.rhsOf(fd));
+			used.andNot(relation);
+			if (!used.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void collectViolationsByFdLhs(List<BitSet> out, int limit) {
+		for (int fd = 0; fd < engine.fdCount() && out.size() < limit; fd++) {
+			BitSet lhs = engine.lhsOf(fd);
+			BitSet rhs = engine.rhsOf(fd);
+			rhs.andNot(lhs);
+			if (rhs.isEmpty()) {
+				continue; // trivial
+			}
+			if (!out.contains(lhs) && !isSuperkey(engine.closure(lhs))) {
+				out.add(lhs);
+			}
+		}
+	}
+
+	private void collectViolationsBySubsets(List<BitSet> out, int limit) {
+		List<Integer> attrs = new ArrayList<>();
+		for (int a = relation.nextSetBit(0); a >= 0; a = relation.nextSetBit(a + 1)) {
+			attrs.add(a);
+		}
+		int n = attrs.size();
+		List<BitSet> superkeys = new ArrayList<>();
+		for (int size = 1; size <= n - 2; size++) {
+			int[] combination = new int[size];
+			for (int i = 0; i < size; i++) {
+				combination[i] = i;
+			}
+			do {
+				BitSet x = new BitSet();
+				for (int i : combination) {
+					x.set(attrs.get(i));
+				}
+				if (containsAny(x, superkeys)) {
+					continue;
+				}
+				BitSet implied = engine.closure(x);
+				implied.and(relation);
+				if (isSuperkey(implied)) {
+					superkeys.add(x);
+				} else if (!x.equals(implied)) {
+					out.add(x);
+					if (out.size() >= limit) {
+						return;
+					}
+				}
+			} while (advance(combination, n));
+		}
+	}
+
+	// Next combination in lexicographic order, false after the last one
+	private static boolean advance(int[] combination, int n) {
+		int k = combination.length;
+		int i = k - 1;
+		while (i >= 0 && combination[i] == n - k + i) {
+			i--;
+		}
+		if (i < 0) {
+			return false;
+		}
+		combination[i]++;
+		for (int j = i + 1; j < k; j++) {
+			combination[j] = combination[j - 1] + 1;
+		}
+		return true;
+	}
+
+	private static boolean containsAny(BitSet x, List<BitSet> subsets) {
+		for (BitSet s : subsets) {
+			BitSet rest = (BitSet) s.clone();
+			rest.andNot(x);
+			if (rest.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isSuperkey(BitSet closure) {
+		BitSet missing = (BitSet) relation.clone();
+		missing.andNot(closure);
+		return missing.isEmpty();
+	}
+}
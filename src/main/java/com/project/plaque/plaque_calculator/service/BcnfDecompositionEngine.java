@@ -0,0 +1,188 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes BCNF decompositions of a relation on the server.
+ * Algorithm:
+ * 1. For a relation R, find up to MAX_BRANCHING violating determinants X (BcnfChecker)
+ * 2. Each X gives the lossless split R1 = X+ ∩ R, R2 = X ∪ (R - X+); both halves are solved
+ *    as fork-join subtasks, so the choices of different violations are explored in parallel
+ * 3. Alternatives of a sub-relation are memoized by its attribute bits; combined results are
+ *    canonicalized (schemas contained in others removed, sorted) so equivalent schema sets collapse
+ * 4. Only MAX_ALTERNATIVES per relation are kept, and after MAX_EXPANSIONS relations only the first
+ *    violation is followed, which still ends in BCNF
+ * Final candidates are ranked by table count, then dependency preservation.
+ */
+@Service
+public class BcnfDecompositionEngine {
+
+	private static final int MAX_BRANCHING = 4;
+	private static final int MAX_ALTERNATIVES = 16;
+	private static final int MAX_EXPANSIONS = 5000;
+
+	private final ForkJoinPool pool;
+
+	public BcnfDecompositionEngine(ForkJoinPool computePool) {
+		this.pool = computePool;
+	}
+
+	public record Candidate(List<Set<String>> schemas, boolean dependencyPreserving, List<FD> missingFds) {}
+
+	// complete is false if a budget cut off part of the search
+	public record Result(List<Candidate> candidates, boolean complete) {}
+
+	/**
+	 * Decompose a relation into BCNF.
+	 *
+	 * @param attributes Attributes of the relation (schemas keep this order)
+	 * @param fds FDs holding on the relation
+	 * @param limit Maximum number of candidates returned
+	 */
+	public Result decompose(List<String> attributes, List<FD> fds, int limit) {
+		List<FD> fdList = fds == null ? List.of() : fds;
+		ClosureEngine engine = new ClosureEngine(attributes, fdList);
+		BitSet relation = engine.toBits(attributes);
+
+		Search search = new Search(engine);
+		List<List<BitSet>> alternatives = pool.invoke(search.new SplitTask(relation));
+
+		List<Candidate> candidates = new ArrayList<>();
+		for (List<BitSet> alternative : alternatives) {
+			List<Set<String>> schemas = new ArrayList<>();
+			for (BitSet schema : alternative) {
+				schemas.add(FDService.inAttributeOrder(engine.toNames(schema), attributes));
+			}
+			List<FD> missing = new DependencyPreservationChecker(fdList, schemas).unpreservedFds();
+			candidates.add(new Candidate(schemas, missing.isEmpty(), missing));
+		}
+		candidates.sort(Comparator.comparingInt((Candidate c) -> c.schemas().size())
+				.thenComparing(c -> !c.dependencyPreserving())
+				.thenComparingInt(c -> c.missingFds().size()));
+		int keep = Math.max(1, limit);
+		boolean complete = !search.truncated.get();
+		return new Result(List.copyOf(candidates.subList(0, Math.min(keep, candidates.size()))), complete);
+	}
+
+	// State shared by all tasks of one decomposition run
+	private static final class Search {
+		private final ClosureEngine engine;
+		private final Map<BitSet, List<List<BitSet>>> memo = new ConcurrentHashMap<>();
+		private final AtomicInteger expansions = new AtomicInteger();
+		private final AtomicBoolean truncated = new AtomicBoolean();
+
+		Search(ClosureEngine engine) {
+			this.engine = engine;
+		}
+
+		private final class SplitTask extends RecursiveTask<List<List<BitSet>>> {
+			@Serial
+			private static final long serialVersionUID = 1L;
+
+			private final BitSet relation;
+
+			SplitTask(BitSet relation) {
+				this.relation = relation;
+			}
+
+			@Override
+			protected List<List<BitSet>> compute() {
+				List<List<BitSet>> cached = memo.get(relation);
+				if (cached != null) {
+					return cached;
+				}
+
+				boolean withinBudget = expansions.incrementAndGet() <= MAX_EXPANSIONS;
+				int branching = withinBudget ? MAX_BRANCHING : 1;
+				List<BitSet> violations = new BcnfChecker(engine, engine.toNames(relation)).findViolations(branching + 1);
+				if (violations.isEmpty()) {
+					List<List<BitSet>> single = List.of(List.of(relation));
+					memo.put(relation, single);
+					return single;
+				}
+				if (violations.size() > branching) {
+					truncated.set(true);
+					violations = violations.subList(0, branching);
+				}
+
+				List<SplitTask> subtasks = new ArrayList<>();
+				for (BitSet x : violations) {
+					BitSet closure = engine.closure(x);
+					closure.and(relation);
+					BitSet rest = (BitSet) relation.clone();
+					rest.andNot(closure);
+					rest.or(x);
+					subtasks.add(new SplitTask(closure));
+					subtasks.add(new SplitTask(rest));
+				}
+				invokeAll(subtasks);
+
+				Set<List<BitSet>> combined = new LinkedHashSet<>();
+				for (int i = 0; i < subtasks.size(); i += 2) {
+					for (List<BitSet> left : subtasks.get(i).join()) {
+						for (List<BitSet> right : subtasks.get(i + 1).join()) {
+							List<BitSet> union = new ArrayList<>(left);
+							union.addAll(right);
+							combined.add(canonical(union));
+						}
+					}
+				}
+				List<List<BitSet>> ranked = new ArrayList<>(combined);
+				ranked.sort(Comparator.comparingInt(List::size));
+				if (ranked.size() > MAX_ALTERNATIVES) {
+					truncated.set(true);
+					ranked = new ArrayList<>(ranked.subList(0, MAX_ALTERNATIVES));
+				}
+				List<List<BitSet>> result = List.copyOf(ranked);
+				memo.put(relation, result);
+				return result;
+			}
+		}
+	}
+
+	// Drop schemas contained in another one and sort, so equal schema sets compare equal
+	private static List<BitSet> canonical(List<BitSet> schemas) {
+		List<BitSet> kept = new ArrayList<>();
+		for (int i = 0; i < schemas.size(); i++) {
+			BitSet candidate = schemas.get(i);
+			boolean contained = false;
+			for (int j = 0; j < schemas.size() && !contained; j++) {
+				if (i == j) {
+					continue;
+				}
+				BitSet other = schemas.get(j);
+				BitSet rest = (BitSet) candidate.clone();
+				rest.andNot(other);
+				// of two equal schemas only the first one is kept
+				contained = rest.isEmpty() && (!candidate.equals(other) || j < i);
+			}
+			if (!contained) {
+				kept.add(candidate);
+			}
+		}
+		kept.sort(BcnfDecompositionEngine::compareBits);
+		return List.copyOf(kept);
+	}
+
+	private static int compareBits(BitSet a, BitSet b) {
+		int i = a.nextSetBit(0);
+		int j = b.nextSetBit(0);
+		while (i >= 0 && j >= 0) {
+			if (i != j) {
+				return Integer.compare(i, j);
+			}
+			i = a.nextSetBit(i + 1);
+			j = b.nextSetBit(j + 1);
+		}
+		return Boolean.compare(i >= 0, j >= 0);
+	}
+}
@@ -0,0 +1,276 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Enumerates the candidate keys of a relation one at a time.
+ * Algorithm (Lucchesi & Osborn):
+ * 1. The first key is found by minimizing the whole relation
+ * 2. For every found key K and every FD X->Y, S = X ∪ (K - Y) is a superkey;
+ *    if S contains no known key, minimizing S gives a new key
+ * Every key is produced after polynomial work, so a caller can stop after the first few keys.
+ * Attributes that never appear on a RHS are part of every key, attributes that only appear
+ * on a RHS are part of no key (when the FDs are defined on the relation); both are settled
+ * without a closure computation.
+ * If some FD uses attributes outside the relation, the FD set is not defined on the relation and
+ * a level-wise search over the remaining attributes (skipping supersets of known keys) is used instead.
+ * Superkey hints (e.g. keys found in the table data) are minimized before step 2, so small keys are
+ * reached without shrinking the whole relation first.
+ */
+public class CandidateKeyFinder {
+
+	private final ClosureEngine engine;
+	private final BitSet relation;
+	// Attributes in every key
+	private final BitSet core = new BitSet();
+	// Attributes in no key
+	private final BitSet excluded = new BitSet();
+	// Attributes that still need a closure test
+	private final List<Integer> middle = new ArrayList<>();
+	private final boolean embedded;
+	private final List<BitSet> keys = new ArrayList<>();
+	private final List<BitSet> hints = new ArrayList<>();
+
+	// Lucchesi-Osborn state
+	private int keyCursor = 0;
+	private int fdCursor = 0;
+	// Level-wise state
+	private int[] combination;
+	// Key found while checking whether a capped enumeration is complete
+	private BitSet pending;
+	private boolean exhausted = false;
+
+	public CandidateKeyFinder(Set<String> attributes, List<FD> fds) {
+		this(new ClosureEngine(attributes, fds), attributes);
+	}
+
+	public CandidateKeyFinder(ClosureEngine engine, Set<String> attributes) {
+		this.engine = engine;
+		this.relation = engine.toBits(attributes);
+
+		BitSet onLhs = new BitSet();
+		BitSet onRhs = new BitSet();
+		boolean allInside = true;
+		for (int fd = 0; fd < engine.fdCount(); fd++) {
+			BitSet l = engine.lhsOf(fd);
+			BitSet r = engine.rhsOf(fd);
+			r.andNot(l);
+			onLhs.or(l);
+			onRhs.or(r);
+			BitSet outside = (BitSet) l.clone();
+			outside.or(r);
+			outside.andNot(relation);
+			if (!outside.isEmpty()) {
+				allInside = false;
+			}
+		}
+		this.embedded = allInside;
+		for (int a = relation.nextSetBit(0); a >= 0; a = relation.nextSetBit(a + 1)) {
+			if (!onRhs.get(a)) {
+				core.set(a);
+			} else if (embedded && !onLhs.get(a)) {
+				// only safe when every LHS can be derived inside the relation
+				excluded.set(a);
+			} else {
+				middle.add(a);
+			}
+		}
+	}
+
+	/**
+	 * Sets to try as superkeys before the regular enumeration; sets that are no superkey are ignored.
+	 * Must be called before the first key is requested.
+	 */
+	public CandidateKeyFinder withHints(Collection<Set<String>> superkeyHints) {
+		Set<String> relationNames = engine.toNames(relation);
+		for (Set<String> hint : superkeyHints) {
+			if (relationNames.containsAll(hint)) {
+				hints.add(engine.toBits(hint));
+			}
+		}
+		hints.sort(Comparator.comparingInt(BitSet::cardinality));
+		return this;
+	}
+
+	/**
+	 * Find up to maxKeys candidate keys.
+	 *
+	 * @param maxKeys Maximum number of keys to produce (values < 1 mean no limit)
+	 * @return Found keys and whether the enumeration finished
+	 */
+	public KeyEnumeration findKeys(int maxKeys) {
+		List<Set<String>> found = new ArrayList<>();
+		BitSet key;
+		while ((maxKeys < 1 || found.size() < maxKeys) && (key = nextKey()) != null) {
+			found.add(engine.toNames(key));
+		}
+		boolean complete = maxKeys < 1 || found.size() < maxKeys || nextKeyWouldBeNull();
+		return new KeyEnumeration(found, complete);
+	}
+
+	private boolean nextKeyWouldBeNull() {
+		BitSet next = nextKey();
+		if (next == null) {
+			return true;
+		}
+		// keep the key for a later call
+		pending = next;
+		return false;
+	}
+
+	/**
+	 * Next candidate key as attribute bits of the underlying engine, or null when all keys were produced.
+	 */
+	public BitSet nextKey() {
+		if (pending != null) {
+			BitSet next = pending;
+			pending = null;
+			return next;
+		}
+		if (exhausted) {
+			return null;
+		}
+		BitSet next = embedded ? nextLucchesiOsborn() : nextLevelWise();
+		if (next == null) {
+			exhausted = true;
+		}
+		return next;
+	}
+
+	public ClosureEngine engine() {
+		return engine;
+	}
+
+	private BitSet nextLucchesiOsborn() {
+		while (!hints.isEmpty()) {
+			BitSet hint = hints.remove(0);
+			hint.or(core);
+			if (!containsKnownKey(hint) && isSuperkey(hint)) {
+				BitSet key = minimize(hint);
+				keys.add(key);
+				return key;
+			}
+		}
+		if (keys.isEmpty()) {
+			BitSet first = minimize((BitSet) relation.clone());
+			keys.add(first);
+			return first;
+		}
+		while (keyCursor < keys.size()) {
+			BitSet key = keys.get(keyCursor);
+			while (fdCursor < engine.fdCount()) {
+				int fd = fdCursor++;
+				BitSet rhs = engine.rhsOf(fd);
+				if (!rhs.intersects(key)) {
+					continue;
+				}
+				BitSet candidate = (BitSet) key.clone();
+				candidate.andNot(rhs);
+				candidate.or(engine.lhsOf(fd));
+				if (containsKnownKey(candidate)) {
+					continue;
+				}
+				BitSet newKey = minimize(candidate);
+				keys.add(newKey);
+				return newKey;
+			}
+			keyCursor++;
+			fdCursor = 0;
+		}
+		return null;
+	}
+
+	private BitSet nextLevelWise() {
+		if (combination == null) {
+			combination = new int[0];
+			if (isSuperkey(core)) {
+				BitSet only = (BitSet) core.clone();
+				keys.add(only);
+				exhausted = true;
+				return only;
+			}
+		}
+		while (true) {
+			combination = nextCombination(combination, middle.size());
+			if (combination == null) {
+				return null;
+			}
+			BitSet candidate = (BitSet) core.clone();
+			for (int i : combination) {
+				candidate.set(middle.get(i));
+			}
+			if (!containsKnownKey(candidate) && isSuperkey(candidate)) {
+				keys.add(candidate);
+				return candidate;
+			}
+		}
+	}
+
+	// Next k-combination of 0..n-1 in lexicographic order, moving to size k+1 after the last one
+	private static int[] nextCombination(int[] current, int n) {
+		int k = current.length;
+		int i = k - 1;
+		while (i >= 0 && current[i] == n - k + i) {
+			i--;
+		}
+		if (i < 0) {
+			if (k + 1 > n) {
+				return null;
+			}
+			int[] next = new int[k + 1];
+			for (int j = 0; j <= k; j++) {
+				next[j] = j;
+			}
+			return next;
+		}
+		int[] next = current.clone();
+		next[i]++;
+		for (int j = i + 1; j < k; j++) {
+			next[j] = next[j - 1] + 1;
+		}
+		return next;
+	}
+
+	private boolean containsKnownKey(BitSet candidate) {
+		for (BitSet key : keys) {
+			BitSet rest = (BitSet) key.clone();
+			rest.andNot(candidate);
+			if (rest.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Shrink a superkey to a key; RHS-only attributes go without a test, core attributes always stay
+	private BitSet minimize(BitSet superkey) {
+		BitSet key = (BitSet) superkey.clone();
+		key.and(relation);
+		key.andNot(excluded);
+		for (int a : middle) {
+			if (key.get(a)) {
+				key.clear(a);
+				if (!isSuperkey(key)) {
+					key.set(a);
+				}
+			}
+		}
+		return key;
+	}
+
+	private boolean isSuperkey(BitSet candidate) {
+		BitSet missing = (BitSet) relation.clone();
+		missing.andNot(engine.closure(candidate));
+		return missing.isEmpty();
+	}
+
+	/**
+	 * Result of a capped key enumeration.
+	 *
+	 * @param keys Candidate keys in the order they were found
+	 * @param complete false if the cap was hit before all keys were produced
+	 */
+	public record KeyEnumeration(List<Set<String>> keys, boolean complete) { }
+}
@@ -0,0 +1,222 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Chase test for lossless-join decompositions on an int tableau.
+ * - Row i stands for schema i, column j for attribute j of R
+ * - Symbol j is the distinguished symbol "a(j+1)" of column j; every other cell starts with its own symbol
+ * - Equal symbols are kept in a union-find structure, so equating two cells merges their whole classes at once
+ * - FDs are indexed by LHS column; when classes in a column merge, only FDs with that column on
+ *   their LHS are applied again
+ * The decomposition is lossless iff some row ends up with distinguished symbols only.
+ */
+public class ChaseEngine {
+
+	private final int rows;
+	private final int cols;
+	private final int[][] tableau;
+	private final int[] parent;
+	private final int[][] fdLhs;
+	private final int[][] fdRhs;
+	private final int[][] fdsByLhsColumn;
+
+	public ChaseEngine(List<String> attributes, List<Set<String>> schemas, List<FD> fds) {
+		this.rows = schemas.size();
+		this.cols = attributes.size();
+		Map<String, Integer> column = new HashMap<>();
+		for (int j = 0; j < cols; j++) {
+			column.put(attributes.get(j), j);
+		}
+
+		this.tableau = new int[rows][cols];
+		this.parent = new int[cols + rows * cols];
+		for (int s = 0; s < parent.length; s++) {
+			parent[s] = s;
+		}
+		for (int i = 0; i < rows; i++) {
+			Set<String> schema = schemas.get(i);
+			for (int j = 0; j < cols; j++) {
+				tableau[i][j] = schema.contains(attributes.get(j)) ? j : cols + i * cols + j;
+			}
+		}
+
+		// FDs with an LHS attribute outside R can never fire; RHS attributes outside R are ignored
+		List<int[]> lhsList = new ArrayList<>();
+		List<int[]> rhsList = new ArrayList<>();
+		for (FD fd : fds) {
+			int[] lhs = toColumns(fd.getLhs(), column, true);
+			int[] rhs = toColumns(fd.getRhs(), column, false);
+			if (lhs != null && rhs.length > 0) {
+				lhsList.add(lhs);
+				rhsList.add(rhs);
+			}
+		}
+		this.fdLhs = lhsList.toArray(new int[0][]);
+		this.fdRhs = rhsList.toArray(new int[0][]);
+
+		int[] perColumn = new int[cols];
+		for (int[] lhs : fdLhs) {
+			for (int c : lhs) {
+				perColumn[c]++;
+			}
+		}
+		this.fdsByLhsColumn = new int[cols][];
+		for (int c = 0; c < cols; c++) {
+			fdsByLhsColumn[c] = new int[perColumn[c]];
+		}
+		int[] fill = new int[cols];
+		for (int f = 0; f < fdLhs.length; f++) {
+			for (int c : fdLhs[f]) {
+				fdsByLhsColumn[c][fill[c]++] = f;
+			}
+		}
+	}
+
+	private static int[] toColumns(Set<String> attrs, Map<String, Integer> column, boolean requireAll) {
+		int[] out = new int[attrs.size()];
+		int size = 0;
+		for (String attr : attrs) {
+			Integer c = column.get(attr);
+			if (c == null) {
+				if (requireAll) {
+					return null;
+				}
+				continue;
+			}
+			out[size++] = c;
+		}
+		return Arrays.copyOf(out, size);
+	}
+
+	// Run the chase and report whether a row became all distinguished
+	public boolean isLossless() {
+		if (rows == 0 || cols == 0) {
+			return rows > 0;
+		}
+		int[] queue = new int[fdLhs.length];
+		boolean[] queued = new boolean[fdLhs.length];
+		int head = 0;
+		int size = 0;
+		for (int f = 0; f < fdLhs.length; f++) {
+			queue[size++] = f;
+			queued[f] = true;
+		}
+
+		int tableSize = Integer.highestOneBit(Math.max(1, rows * 2 - 1)) << 1;
+		int[] leaders = new int[tableSize];
+		long[] leaderHash = new long[tableSize];
+		boolean[] changedColumn = new boolean[cols];
+
+		while (size > 0) {
+			int f = queue[head];
+			head = (head + 1) % queue.length;
+			size--;
+			queued[f] = false;
+
+			if (applyFd(f, leaders, leaderHash, changedColumn)) {
+				for (int c = 0; c < cols; c++) {
+					if (!changedColumn[c]) {
+						continue;
+					}
+					changedColumn[c] = false;
+					for (int g : fdsByLhsColumn[c]) {
+						if (!queued[g]) {
+							queued[g] = true;
+							queue[(head + size) % queue.length] = g;
+							size++;
+						}
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < rows; i++) {
+			boolean allDistinguished = true;
+			for (int j = 0; j < cols && allDistinguished; j++) {
+				allDistinguished = find(tableau[i][j]) < cols;
+			}
+			if (allDistinguished) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Group rows by their LHS classes and merge the RHS classes inside each group
+	private boolean applyFd(int f, int[] leaders, long[] leaderHash, boolean[] changedColumn) {
+		int[] lhs = fdLhs[f];
+		int[] rhs = fdRhs[f];
+		Arrays.fill(leaders, -1);
+		int mask = leaders.length - 1;
+		boolean changed = false;
+		for (int i = 0; i < rows; i++) {
+			long hash = 1;
+			for (int c : lhs) {
+				hash = hash * 31 + find(tableau[i][c]);
+			}
+			int slot = (int) (mix(hash) & mask);
+			int leader = -1;
+			while (leaders[slot] >= 0) {
+				if (leaderHash[slot] == hash && sameLhs(leaders[slot], i, lhs)) {
+					leader = leaders[slot];
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (leader < 0) {
+				leaders[slot] = i;
+				leaderHash[slot] = hash;
+				continue;
+			}
+			for (int c : rhs) {
+				if (union(tableau[leader][c], tableau[i][c])) {
+					changedColumn[c] = true;
+					changed = true;
+				}
+			}
+		}
+		return changed;
+	}
+
+	private boolean sameLhs(int a, int b, int[] lhs) {
+		for (int c : lhs) {
+			if (find(tableau[a][c]) != find(tableau[b][c])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long mix(long h) {
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return h;
+	}
+
+	private int find(int s) {
+		while (parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+		return s;
+	}
+
+	// Merge two classes; a distinguished symbol always stays the root
+	private boolean union(int a, int b) {
+		int ra = find(a);
+		int rb = find(b);
+		if (ra == rb) {
+			return false;
+		}
+		if (rb < cols) {
+			parent[ra] = rb;
+		} else {
+			parent[rb] = ra;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,186 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Attribute closure engine for a fixed list of FDs.
+ * Attributes are mapped to bit positions once and every FD keeps a counter of the LHS attributes
+ * that are still missing, so one closure costs time linear in the size of the FD set
+ * instead of rescanning all FDs until nothing changes (see FDService.computeClosure).
+ */
+public class ClosureEngine {
+
+	private final List<String> attributes = new ArrayList<>();
+	private final Map<String, Integer> indexByName = new HashMap<>();
+	private final BitSet[] lhs;
+	private final BitSet[] rhs;
+	private final int[] lhsSize;
+	// attribute index -> FDs that contain the attribute on their LHS
+	private final int[][] fdsByLhsAttribute;
+	private final int[] emptyLhsFds;
+
+	public ClosureEngine(List<FD> fds) {
+		this(Collections.emptyList(), fds);
+	}
+
+	public ClosureEngine(Collection<String> attributes, List<FD> fds) {
+		if (attributes != null) {
+			attributes.forEach(this::register);
+		}
+		List<FD> source = fds == null ? Collections.emptyList() : fds;
+		for (FD fd : source) {
+			fd.getLhs().forEach(this::register);
+			fd.getRhs().forEach(this::register);
+		}
+
+		int m = source.size();
+		this.lhs = new BitSet[m];
+		this.rhs = new BitSet[m];
+		this.lhsSize = new int[m];
+		int[] perAttribute = new int[this.attributes.size()];
+		List<Integer> emptyLhs = new ArrayList<>();
+		for (int i = 0; i < m; i++) {
+			FD fd = source.get(i);
+			lhs[i] = toBits(fd.getLhs());
+			rhs[i] = toBits(fd.getRhs());
+			lhsSize[i] = lhs[i].cardinality();
+			if (lhsSize[i] == 0) {
+				emptyLhs.add(i);
+			}
+			for (int a = lhs[i].nextSetBit(0); a >= 0; a = lhs[i].nextSetBit(a + 1)) {
+				perAttribute[a]++;
+			}
+		}
+		this.fdsByLhsAttribute = new int[this.attributes.size()][];
+		for (int a = 0; a < perAttribute.length; a++) {
+			fdsByLhsAttribute[a] = new int[perAttribute[a]];
+		}
+		int[] fill = new int[this.attributes.size()];
+		for (int i = 0; i < m; i++) {
+			for (int a = lhs[i].nextSetBit(0); a >= 0; a = lhs[i].nextSetBit(a + 1)) {
+				fdsByLhsAttribute[a][fill[a]++] = i;
+			}
+		}
+		this.emptyLhsFds = emptyLhs.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private void register(String attribute) {
+		if (attribute != null && !indexByName.containsKey(attribute)) {
+			indexByName.put(attribute, attributes.size());
+			attributes.add(attribute);
+		}
+	}
+
+	// Number of attributes known to the engine (bit positions 0..size-1)
+	public int size() {
+		return attributes.size();
+	}
+
+	public int fdCount() {
+		return lhs.length;
+	}
+
+	public List<String> attributes() {
+		return Collections.unmodifiableList(attributes);
+	}
+
+	// Bit position of an attribute, or -1 if the engine does not know it
+	public int indexOf(String attribute) {
+		Integer idx = indexByName.get(attribute);
+		return idx == null ? -1 : idx;
+	}
+
+	public String nameOf(int index) {
+		return attributes.get(index);
+	}
+
+	public BitSet lhsOf(int fd) {
+		return (BitSet) lhs[fd].clone();
+	}
+
+	public BitSet rhsOf(int fd) {
+		return (BitSet) rhs[fd].clone();
+	}
+
+	// Unknown attribute names are ignored
+	public BitSet toBits(Collection<String> names) {
+		BitSet bits = new BitSet(attributes.size());
+		if (names == null) {
+			return bits;
+		}
+		for (String name : names) {
+			Integer idx = indexByName.get(name);
+			if (idx != null) {
+				bits.set(idx);
+			}
+		}
+		return bits;
+	}
+
+	public Set<String> toNames(BitSet bits) {
+		Set<String> names = new LinkedHashSet<>();
+		for (int a = bits.nextSetBit(0); a >= 0; a = bits.nextSetBit(a + 1)) {
+			names.add(attributes.get(a));
+		}
+		return names;
+	}
+
+	public BitSet closure(BitSet start) {
+		return closure(start, null);
+	}
+
+	/**
+	 * Closure of start, ignoring the FDs whose index is set in disabledFds.
+	 * Each attribute enters the work queue once and each FD fires at most once.
+	 */
+	public BitSet closure(BitSet start, BitSet disabledFds) {
+		BitSet result = (BitSet) start.clone();
+		int[] missing = lhsSize.clone();
+		int[] queue = new int[attributes.size()];
+		int head = 0;
+		int tail = 0;
+		for (int a = result.nextSetBit(0); a >= 0; a = result.nextSetBit(a + 1)) {
+			queue[tail++] = a;
+		}
+		for (int fd : emptyLhsFds) {
+			if (disabledFds == null || !disabledFds.get(fd)) {
+				tail = fire(fd, result, queue, tail);
+			}
+		}
+		while (head < tail) {
+			int a = queue[head++];
+			for (int fd : fdsByLhsAttribute[a]) {
+				if (--missing[fd] == 0 && (disabledFds == null || !disabledFds.get(fd))) {
+					tail = fire(fd, result, queue, tail);
+				}
+			}
+		}
+		return result;
+	}
+
+	private int fire(int fd, BitSet result, int[] queue, int tail) {
+		BitSet produced = rhs[fd];
+		for (int b = produced.nextSetBit(0); b >= 0; b = produced.nextSetBit(b + 1)) {
+			if (!result.get(b)) {
+				result.set(b);
+				queue[tail++] = b;
+			}
+		}
+		return tail;
+	}
+
+	// Name based closure; attributes unknown to the engine are kept as they are
+	public Set<String> closure(Collection<String> start) {
+		Set<String> result = new LinkedHashSet<>(start);
+		result.addAll(toNames(closure(toBits(start))));
+		return result;
+	}
+
+	public boolean implies(BitSet lhsBits, BitSet rhsBits) {
+		BitSet missing = (BitSet) rhsBits.clone();
+		missing.andNot(closure(lhsBits));
+		return missing.isEmpty();
+	}
+}
@@ -0,0 +1,83 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.model.RicMatrix;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Results of one compute run, as kept by the ComputationStore.
+ * Replaces the computation_<id>_* session attributes that the calc-results and normalization pages used to read.
+ * The table itself is not part of the record; it is referenced through the DatasetRegistry.
+ */
+public record ComputationRecord(
+		String computationId,
+		DatasetRegistry.Reference dataset,
+		String plaqueMode,
+		String fdList,
+		FdAnalysis fdAnalysis,
+		RicMatrix ric,
+		List<String> ricSteps,
+		String ricFinalStrategy,
+		boolean monteCarlo,
+		int samples,
+		int duplicatesRemoved) implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	// FD analysis of the table, shared through the DatasetRegistry by all computations with the same table and FDs
+	public record FdAnalysis(List<String> attrOrder, List<FD> originalFDs, boolean alreadyBcnf,
+							 List<String> fdStringsForDisplay, List<String> transitiveFdStringsForDisplay,
+							 List<String> allFdStrings, List<String> transitiveFdStrings) implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 1L;
+	}
+
+	public DatasetRegistry.Entry datasetEntry() {
+		return dataset == null ? null : dataset.getEntry();
+	}
+
+	// Same record with another dataset reference: null when the record is spilled to disk, the slot's reference when it is read back
+	ComputationRecord withDataset(DatasetRegistry.Reference reference) {
+		return new ComputationRecord(computationId, reference, plaqueMode, fdList, fdAnalysis, ric, ricSteps,
+				ricFinalStrategy, monteCarlo, samples, duplicatesRemoved);
+	}
+
+	/**
+	 * Rough heap size of the record in bytes, used for the memory budget of the store.
+	 * The referenced dataset is accounted for by the DatasetRegistry, not here.
+	 */
+	long estimatedBytes() {
+		long bytes = 256;
+		bytes += stringBytes(fdList) + stringBytes(plaqueMode) + stringBytes(ricFinalStrategy);
+		bytes += stringBytes(ricSteps);
+		if (fdAnalysis != null) {
+			bytes += stringBytes(fdAnalysis.attrOrder()) + stringBytes(fdAnalysis.fdStringsForDisplay())
+					+ stringBytes(fdAnalysis.transitiveFdStringsForDisplay()) + stringBytes(fdAnalysis.allFdStrings())
+					+ stringBytes(fdAnalysis.transitiveFdStrings());
+			bytes += 160L * fdAnalysis.originalFDs().size();
+		}
+		if (ric != null) {
+			bytes += ric.estimatedBytes();
+		}
+		return bytes;
+	}
+
+	private static long stringBytes(List<String> values) {
+		long bytes = 16;
+		if (values != null) {
+			for (String value : values) {
+				bytes += 4 + stringBytes(value);
+			}
+		}
+		return bytes;
+	}
+
+	// Object header, hash and array header plus one byte per (Latin-1) character
+	private static long stringBytes(String value) {
+		return value == null ? 0 : 40 + value.length();
+	}
+}
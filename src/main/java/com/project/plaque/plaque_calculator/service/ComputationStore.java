@@ -0,0 +1,385 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionBindingListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.WebUtils;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side store for the results of compute runs (see ComputationRecord), keyed by computationId.
+ * Sessions only keep the ids of their computations; reading a record checks that the id belongs to the session.
+ * - Records not read for computation.store.ttl-minutes are removed (also by a sweep every computation.store.sweep-interval-ms)
+ * - When the estimated size of all records in memory exceeds computation.store.max-memory-mb, the least
+ *   recently used ones are written to computation.store.spill-dir and read back on their next use
+ *   (or removed, if the spill directory is set to blank)
+ * - All records of a session are removed when the session ends
+ * Spill files are written, read and deleted outside the store's lock, so requests for other records never wait on disk I/O.
+ */
+@Service
+public class ComputationStore {
+
+	private static final String SESSION_KEY = "computations";
+	private static final String SPILL_SUFFIX = ".computation";
+
+	@Value("${computation.store.ttl-minutes:240}")
+	private long ttlMinutes;
+
+	@Value("${computation.store.max-memory-mb:256}")
+	private long maxMemoryMb;
+
+	@Value("${computation.store.spill-dir:${java.io.tmpdir}/plaque-computations}")
+	private String spillDir;
+
+	private long ttlMillis;
+	private long maxMemoryBytes;
+	// null if spilling is disabled
+	private Path spillPath;
+
+	// Access-ordered, the least recently used record first; guarded by this
+	private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+	private long memoryBytes;
+
+	private static final class Slot {
+		private final String computationId;
+		private final DatasetRegistry.Reference dataset;
+		private final long bytes;
+		// null while the record is only on disk
+		private ComputationRecord record;
+		private Path spillFile;
+		private long lastAccess;
+		// The record is being written to disk; it stays readable until the file is complete
+		private boolean spilling;
+		// Set while one request reads the spill file; other requests for the record wait for it
+		private CompletableFuture<ComputationRecord> loading;
+		private boolean removed;
+
+		private Slot(ComputationRecord record, long now) {
+			this.computationId = record.computationId();
+			this.dataset = record.dataset();
+			this.bytes = record.estimatedBytes();
+			this.record = record;
+			this.lastAccess = now;
+		}
+	}
+
+	private record Spill(Slot slot, ComputationRecord record) { }
+
+	// File work decided while holding the lock; it is done after the lock is released
+	private static final class Pending {
+		private final List<Spill> spills = new ArrayList<>();
+		private final List<Path> deletions = new ArrayList<>();
+	}
+
+	@PostConstruct
+	private void init() {
+		this.ttlMillis = ttlMinutes * 60_000;
+		this.maxMemoryBytes = maxMemoryMb * 1024 * 1024;
+		if (spillDir != null && !spillDir.isBlank()) {
+			try {
+				spillPath = Files.createDirectories(Paths.get(spillDir));
+				// Files left by an earlier run belong to sessions that no longer exist
+				deleteSpillFiles();
+			} catch (IOException ex) {
+				System.err.println("[ComputationStore] Spilling disabled, cannot use " + spillDir + ": " + ex.getMessage());
+				spillPath = null;
+			}
+		}
+		System.out.println("[ComputationStore] ttl=" + ttlMinutes + " min, maxMemory=" + maxMemoryMb + " MB, spillDir="
+				+ (spillPath != null ? spillPath.toAbsolutePath() : "none"));
+	}
+
+	@PreDestroy
+	private void shutdown() {
+		deleteSpillFiles();
+	}
+
+	public void put(HttpSession session, ComputationRecord record) {
+		computations(session).ids.add(record.computationId());
+		record.dataset().retain();
+		long now = System.currentTimeMillis();
+		Pending pending = new Pending();
+		synchronized (this) {
+			Slot slot = new Slot(record, now);
+			Slot previous = slots.put(record.computationId(), slot);
+			if (previous != null) {
+				drop(previous, pending);
+			}
+			memoryBytes += slot.bytes;
+			removeExpired(now, pending);
+			enforceMemoryBudget(slot, pending);
+		}
+		complete(pending);
+	}
+
+	// Record of a computation of this session, or null if it does not exist (any more)
+	public ComputationRecord get(HttpSession session, String computationId) {
+		if (session == null || computationId == null || computationId.isBlank()) {
+			return null;
+		}
+		Object owned = session.getAttribute(SESSION_KEY);
+		if (!(owned instanceof SessionComputations computations) || !computations.ids.contains(computationId)) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		Pending pending = new Pending();
+		Slot slot;
+		ComputationRecord record = null;
+		CompletableFuture<ComputationRecord> loading = null;
+		boolean loader = false;
+		Path spillFile = null;
+		synchronized (this) {
+			removeExpired(now, pending);
+			slot = slots.get(computationId);
+			if (slot == null) {
+				computations.ids.remove(computationId);
+			} else {
+				slot.lastAccess = now;
+				record = slot.record;
+				if (record == null) {
+					loader = slot.loading == null;
+					if (loader) {
+						slot.loading = new CompletableFuture<>();
+						spillFile = slot.spillFile;
+					}
+					loading = slot.loading;
+				}
+			}
+		}
+		complete(pending);
+		if (loader) {
+			return load(slot, spillFile);
+		}
+		return loading != null ? loading.join() : record;
+	}
+
+	// Deletes expired records; they are also removed whenever a record is stored or read
+	@Scheduled(fixedDelayString = "${computation.store.sweep-interval-ms:60000}")
+	public void removeExpired() {
+		Pending pending = new Pending();
+		synchronized (this) {
+			removeExpired(System.currentTimeMillis(), pending);
+		}
+		complete(pending);
+	}
+
+	public synchronized int size() {
+		return slots.size();
+	}
+
+	// Estimated bytes of the records held in memory
+	public synchronized long getMemoryBytes() {
+		return memoryBytes;
+	}
+
+	private void remove(String computationId) {
+		Pending pending = new Pending();
+		synchronized (this) {
+			Slot slot = slots.remove(computationId);
+			if (slot != null) {
+				drop(slot, pending);
+			}
+		}
+		complete(pending);
+	}
+
+	// Records are ordered by last access, so the expired ones are at the start
+	private void removeExpired(long now, Pending pending) {
+		Iterator<Slot> it = slots.values().iterator();
+		while (it.hasNext()) {
+			Slot slot = it.next();
+			if (now - slot.lastAccess < ttlMillis) {
+				break;
+			}
+			it.remove();
+			drop(slot, pending);
+			System.out.println("[ComputationStore] Expired computation " + slot.computationId);
+		}
+	}
+
+	// Spill (or remove) the least recently used records until the budget is met; keep is never touched
+	private void enforceMemoryBudget(Slot keep, Pending pending) {
+		Iterator<Slot> it = slots.values().iterator();
+		while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+			Slot slot = it.next();
+			if (slot == keep) {
+				break;
+			}
+			if (slot.record == null || slot.spilling) {
+				continue;
+			}
+			if (slot.spillFile != null) {
+				// Records never change, so a file written by an earlier spill is still valid
+				slot.record = null;
+				memoryBytes -= slot.bytes;
+				continue;
+			}
+			if (spillPath != null) {
+				// Counted as spilled already, so no further records are picked for the same bytes
+				slot.spilling = true;
+				memoryBytes -= slot.bytes;
+				pending.spills.add(new Spill(slot, slot.record));
+				continue;
+			}
+			it.remove();
+			drop(slot, pending);
+			System.out.println("[ComputationStore] Evicted computation " + slot.computationId + " (memory budget)");
+		}
+	}
+
+	// Writes the spill files and deletes the files of removed records; called without holding the lock
+	private void complete(Pending pending) {
+		pending.deletions.forEach(this::deleteQuietly);
+		pending.spills.forEach(this::spill);
+	}
+
+	private void spill(Spill spill) {
+		Slot slot = spill.slot();
+		Path file = spillPath.resolve(slot.computationId + SPILL_SUFFIX);
+		boolean written;
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			// The dataset stays in the registry, referenced by the slot
+			out.writeObject(spill.record().withDataset(null));
+			written = true;
+		} catch (IOException ex) {
+			System.err.println("[ComputationStore] Failed to spill computation " + slot.computationId + ": " + ex.getMessage());
+			written = false;
+		}
+		Pending pending = new Pending();
+		synchronized (this) {
+			slot.spilling = false;
+			if (slot.removed || !written) {
+				pending.deletions.add(file);
+			}
+			if (!slot.removed) {
+				if (written) {
+					slot.spillFile = file;
+					slot.record = null;
+				} else {
+					// Its bytes are not counted any more; the record is dropped as if spilling were disabled
+					slot.record = null;
+					slots.remove(slot.computationId, slot);
+					drop(slot, pending);
+					System.out.println("[ComputationStore] Evicted computation " + slot.computationId + " (memory budget)");
+				}
+			}
+		}
+		complete(pending);
+	}
+
+	// Reads a spilled record; the caller has set slot.loading, other readers of the record get the result from it
+	private ComputationRecord load(Slot slot, Path file) {
+		ComputationRecord loaded = null;
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			loaded = ((ComputationRecord) in.readObject()).withDataset(slot.dataset);
+		} catch (IOException | ClassNotFoundException | RuntimeException ex) {
+			System.err.println("[ComputationStore] Failed to read spilled computation " + slot.computationId + ": " + ex.getMessage());
+		}
+		Pending pending = new Pending();
+		CompletableFuture<ComputationRecord> loading;
+		synchronized (this) {
+			loading = slot.loading;
+			slot.loading = null;
+			if (slot.removed) {
+				loaded = null;
+			} else if (loaded == null) {
+				slots.remove(slot.computationId, slot);
+				drop(slot, pending);
+			} else {
+				slot.record = loaded;
+				memoryBytes += slot.bytes;
+				enforceMemoryBudget(slot, pending);
+			}
+		}
+		loading.complete(loaded);
+		complete(pending);
+		return loaded;
+	}
+
+	// Release everything a removed slot holds; its spill file is deleted once the lock is released
+	private void drop(Slot slot, Pending pending) {
+		slot.removed = true;
+		if (slot.record != null && !slot.spilling) {
+			memoryBytes -= slot.bytes;
+		}
+		slot.record = null;
+		if (slot.spillFile != null) {
+			pending.deletions.add(slot.spillFile);
+			slot.spillFile = null;
+		}
+		slot.dataset.release();
+	}
+
+	private void deleteSpillFiles() {
+		if (spillPath == null) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(spillPath, "*" + SPILL_SUFFIX)) {
+			for (Path file : files) {
+				deleteQuietly(file);
+			}
+		} catch (IOException ex) {
+			System.err.println("[ComputationStore] Failed to clean " + spillPath + ": " + ex.getMessage());
+		}
+	}
+
+	private void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ignored) {
+		}
+	}
+
+	// Created under the session mutex: replacing the attribute would unbind the other request's set and drop its computations
+	private SessionComputations computations(HttpSession session) {
+		if (session.getAttribute(SESSION_KEY) instanceof SessionComputations existing) {
+			return existing;
+		}
+		synchronized (WebUtils.getSessionMutex(session)) {
+			if (session.getAttribute(SESSION_KEY) instanceof SessionComputations existing) {
+				return existing;
+			}
+			SessionComputations fresh = new SessionComputations(this);
+			session.setAttribute(SESSION_KEY, fresh);
+			return fresh;
+		}
+	}
+
+	// The only thing a session stores about its computations; the records go when the session ends
+	private static final class SessionComputations implements HttpSessionBindingListener, Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final transient ComputationStore store;
+		private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		private SessionComputations(ComputationStore store) {
+			this.store = store;
+		}
+
+		@Override
+		public void valueUnbound(HttpSessionBindingEvent event) {
+			if (store != null) {
+				ids.forEach(store::remove);
+			}
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionBindingListener;
+import org.springframework.stereotype.Service;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Server-wide registry of the tables that computations work on, keyed by a hash of their content.
+ * When several sessions submit the same table (e.g. a whole class using the same example), they share one
+ * immutable entry: the encoded input table, its distinct rows and the artifacts derived from them
+ * (FD analysis, RIC results). Sessions and stored computations only hold a Reference to the entry.
+ * Only the encoded rows are kept, never the text a session submitted them as.
+ * Closures and keys depend on the FDs alone, not on the rows; they are shared through NormalFormChecker's cache.
+ * References are counted while they are bound to a session or held by the ComputationStore; an entry is
+ * dropped from the registry as soon as nothing refers to it any more.
+ */
+@Service
+public class DatasetRegistry {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final LogService logService;
+
+	public DatasetRegistry(LogService logService) {
+		this.logService = logService;
+	}
+
+	/**
+	 * Reference to the entry with the content of this table. The table is only added to the registry once
+	 * the reference is bound to a session; until then an existing entry is shared, or a new one is prepared.
+	 */
+	public Reference register(ColumnarTable table) {
+		return register(table, contentHash(table));
+	}
+
+	// Same as register(table) for a caller that already has the table's contentHash
+	public Reference register(ColumnarTable table, String hash) {
+		Entry entry = entries.get(hash);
+		if (entry == null) {
+			entry = new Entry(hash, table);
+		}
+		return new Reference(this, entry);
+	}
+
+	// Shared entry with this contentHash, or null if no session uses such a table
+	public Entry find(String hash) {
+		return entries.get(hash);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	// Registers the entry on its first reference; a reference prepared concurrently switches to the entry already registered
+	private Entry retain(Entry entry) {
+		Entry[] retained = new Entry[1];
+		entries.compute(entry.hash, (hash, existing) -> {
+			Entry target = existing != null ? existing : entry;
+			target.refCount++;
+			retained[0] = target;
+			return target;
+		});
+		if (retained[0].refCount == 1) {
+			logService.info("[DatasetRegistry] Registered dataset " + entry.hash.substring(0, 12)
+					+ " (" + entry.inputTable.getRowCount() + " rows), " + entries.size() + " datasets in memory");
+		}
+		return retained[0];
+	}
+
+	private void release(Entry entry) {
+		boolean[] evicted = new boolean[1];
+		entries.computeIfPresent(entry.hash, (hash, existing) -> {
+			if (existing != entry) {
+				return existing;
+			}
+			existing.refCount--;
+			evicted[0] = existing.refCount <= 0;
+			return evicted[0] ? null : existing;
+		});
+		if (evicted[0]) {
+			logService.info("[DatasetRegistry] Evicted dataset " + entry.hash.substring(0, 12)
+					+ ", " + entries.size() + " datasets in memory");
+		}
+	}
+
+	// SHA-256 of the encoded table; equal rows encode to equal bytes. Key of the table's entry
+	public static String contentHash(ColumnarTable table) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(table.toBytes()));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	/**
+	 * One distinct table with everything derived from it. All views are immutable and shared between sessions.
+	 */
+	public static final class Entry implements Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final String hash;
+		private final ColumnarTable inputTable;
+		// Guarded by the registry map; counts retained references
+		private transient int refCount;
+
+		// Derived on first use; building them twice under a race is harmless
+		private volatile ColumnarTable originalTable;
+		private transient volatile Map<String, Object> artifacts;
+
+		private Entry(String hash, ColumnarTable inputTable) {
+			this.hash = hash;
+			this.inputTable = inputTable;
+		}
+
+		public String getHash() { return hash; }
+
+		// Rows as entered
+		public ColumnarTable getInputTable() { return inputTable; }
+
+		// Distinct rows with trimmed cells, the relation that gets decomposed
+		public ColumnarTable getOriginalTable() {
+			ColumnarTable out = originalTable;
+			if (out == null) {
+				// Unchanged columns share their code arrays with the input table
+				out = inputTable.mapValues(String::trim).distinct();
+				originalTable = out;
+			}
+			return out;
+		}
+
+		/**
+		 * Artifact derived from this table, computed once for all sessions.
+		 * The key must describe every other input of the computation (e.g. the FD string); the value must not be modified.
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T artifact(String key, Supplier<T> supplier) {
+			return (T) artifacts().computeIfAbsent(key, k -> supplier.get());
+		}
+
+		// Artifact if it was computed before, otherwise null
+		@SuppressWarnings("unchecked")
+		public <T> T getArtifact(String key) {
+			return (T) artifacts().get(key);
+		}
+
+		public void putArtifact(String key, Object value) {
+			artifacts().putIfAbsent(key, value);
+		}
+
+		private Map<String, Object> artifacts() {
+			Map<String, Object> out = artifacts;
+			if (out == null) {
+				synchronized (this) {
+					out = artifacts;
+					if (out == null) {
+						out = new ConcurrentHashMap<>();
+						artifacts = out;
+					}
+				}
+			}
+			return out;
+		}
+	}
+
+	/**
+	 * What a session stores instead of the table itself. Binding it to a session counts as a reference,
+	 * unbinding (removeAttribute, replacing the value, session expiry) releases it.
+	 * A reference restored from a persisted session keeps its entry but is no longer counted by the registry.
+	 */
+	public static final class Reference implements HttpSessionBindingListener, Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final transient DatasetRegistry registry;
+		private volatile Entry entry;
+
+		private Reference(DatasetRegistry registry, Entry entry) {
+			this.registry = registry;
+			this.entry = entry;
+		}
+
+		public Entry getEntry() { return entry; }
+
+		@Override
+		public void valueBound(HttpSessionBindingEvent event) {
+			retain();
+		}
+
+		@Override
+		public void valueUnbound(HttpSessionBindingEvent event) {
+			release();
+		}
+
+		// For holders other than a session (e.g. the ComputationStore); every retain needs one release
+		void retain() {
+			if (registry != null) {
+				entry = registry.retain(entry);
+			}
+		}
+
+		void release() {
+			if (registry != null) {
+				registry.release(entry);
+			}
+		}
+	}
+}
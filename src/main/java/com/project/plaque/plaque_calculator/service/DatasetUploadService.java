@@ -0,0 +1,174 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.util.CsvParsingUtil;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.WebUtils;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Service for uploading table data as a stream
+ * The body is decoded and tokenized while it is read, and the rows go straight into a ColumnarTable.Builder,
+ * so the dataset never exists as one String. Progress (bytes read, rows parsed) can be followed under an
+ * upload id while the upload runs; the finished table is stored under a new dataset id.
+ * Progress of a finished upload is kept for PROGRESS_RETENTION_MS, so a progress stream that connects late still sees the outcome.
+ */
+@Service
+public class DatasetUploadService {
+
+	private static final String UPLOADS_SESSION_KEY = "datasetUploads";
+	private static final long PROGRESS_RETENTION_MS = 60_000;
+
+	private final SessionTableStore sessionTableStore;
+
+	public DatasetUploadService(SessionTableStore sessionTableStore) {
+		this.sessionTableStore = sessionTableStore;
+	}
+
+	public enum Format {
+		// One row per line, as in CSV files
+		CSV,
+		// Rows separated by semicolons, as in the manualData parameter
+		MANUAL
+	}
+
+	public record UploadResult(String datasetId, int rows, int columns, long bytes, long elapsedMs) {}
+
+	// Updated by the uploading request, read by the progress stream
+	public static final class UploadProgress {
+		private final long totalBytes;
+		private volatile long bytesRead;
+		private volatile int rows;
+		private volatile UploadResult result;
+		private volatile String error;
+		// Time the upload ended, 0 while it runs
+		private volatile long finishedAt;
+
+		UploadProgress(long totalBytes) {
+			this.totalBytes = totalBytes;
+		}
+
+		// -1 if the size is not known in advance
+		public long getTotalBytes() { return totalBytes; }
+		public long getBytesRead() { return bytesRead; }
+		public int getRows() { return rows; }
+		public UploadResult getResult() { return result; }
+		public String getError() { return error; }
+		public boolean isDone() { return result != null || error != null; }
+
+		// Every upload ends here, also on errors no catch block sees (e.g. OutOfMemoryError)
+		private void finish() {
+			if (result == null && error == null) {
+				error = "Upload failed.";
+			}
+			finishedAt = System.currentTimeMillis();
+		}
+
+		private boolean isExpired(long now) {
+			return finishedAt > 0 && now - finishedAt > PROGRESS_RETENTION_MS;
+		}
+	}
+
+	/**
+	 * Read, parse and store one dataset.
+	 *
+	 * @param uploadId Optional id under which progress is published while reading
+	 * @param totalBytes Length of the body if known, -1 otherwise
+	 */
+	public UploadResult upload(HttpSession session, InputStream body, long totalBytes, Charset charset,
+							   Format format, String uploadId) throws IOException {
+		UploadProgress progress = new UploadProgress(totalBytes);
+		if (uploadId != null && !uploadId.isBlank()) {
+			uploads(session).put(uploadId, progress);
+		}
+		long startNs = System.nanoTime();
+		try {
+			ColumnarTable.Builder builder = new ColumnarTable.Builder();
+			InputStream counting = new FilterInputStream(body) {
+				@Override
+				public int read() throws IOException {
+					int b = super.read();
+					if (b >= 0) progress.bytesRead++;
+					return b;
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) throws IOException {
+					int n = super.read(buffer, offset, length);
+					if (n > 0) progress.bytesRead += n;
+					return n;
+				}
+			};
+			try (Reader reader = new BufferedReader(new InputStreamReader(counting, charset))) {
+				Consumer<List<String>> sink = row -> {
+					builder.addRow(row);
+					progress.rows = builder.getRowCount();
+				};
+				if (format == Format.MANUAL) {
+					CsvParsingUtil.parseRows(reader, sink);
+				} else {
+					CsvParsingUtil.parseCsvLines(reader, sink);
+				}
+			}
+			ColumnarTable table = builder.build();
+			if (table.getRowCount() == 0) {
+				throw new IllegalArgumentException("The uploaded file contains no rows.");
+			}
+			String datasetId = sessionTableStore.storeDataset(session, table);
+			long elapsedMs = (System.nanoTime() - startNs) / 1_000_000;
+			UploadResult result = new UploadResult(datasetId, table.getRowCount(), table.getColumnCount(), progress.bytesRead, elapsedMs);
+			progress.result = result;
+			System.out.println("[DatasetUploadService] Stored dataset " + datasetId + ": rows=" + result.rows()
+					+ ", cols=" + result.columns() + ", bytes=" + result.bytes() + ", " + elapsedMs + " ms");
+			return result;
+		} catch (IOException | RuntimeException ex) {
+			progress.error = ex.getMessage() == null ? "Upload failed." : ex.getMessage();
+			throw ex;
+		} finally {
+			progress.finish();
+		}
+	}
+
+	// Progress of an upload, or null if no upload with this id was started in the session
+	public UploadProgress getProgress(HttpSession session, String uploadId) {
+		return uploadId == null ? null : uploads(session).get(uploadId);
+	}
+
+	public void clearProgress(HttpSession session, String uploadId) {
+		if (uploadId != null) {
+			uploads(session).remove(uploadId);
+		}
+	}
+
+	// Progress entries of the session; uploads that ended more than PROGRESS_RETENTION_MS ago are dropped on every access
+	private Map<String, UploadProgress> uploads(HttpSession session) {
+		Map<String, UploadProgress> uploads = existingUploads(session);
+		if (uploads == null) {
+			// Created under the session mutex, so concurrent requests of one session never replace each other's map
+			synchronized (WebUtils.getSessionMutex(session)) {
+				uploads = existingUploads(session);
+				if (uploads == null) {
+					uploads = new ConcurrentHashMap<>();
+					session.setAttribute(UPLOADS_SESSION_KEY, uploads);
+				}
+			}
+		}
+		long now = System.currentTimeMillis();
+		uploads.values().removeIf(progress -> progress.isExpired(now));
+		return uploads;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, UploadProgress> existingUploads(HttpSession session) {
+		return session.getAttribute(UPLOADS_SESSION_KEY) instanceof Map<?, ?> existing
+				? (Map<String, UploadProgress>) existing
+				: null;
+	}
+}
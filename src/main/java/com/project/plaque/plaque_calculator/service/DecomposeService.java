@@ -1,17 +1,19 @@
 package com.project.plaque.plaque_calculator.service;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
 import com.project.plaque.plaque_calculator.dto.DecomposeAllResponse;
 import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
 import com.project.plaque.plaque_calculator.dto.DecomposeResponse;
+import com.project.plaque.plaque_calculator.dto.DecompositionSuggestion;
+import com.project.plaque.plaque_calculator.dto.DecompositionSuggestionResponse;
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
 import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.model.ParsedTable;
 import com.project.plaque.plaque_calculator.util.CsvParsingUtil;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Service;
-import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -22,12 +24,29 @@ public class DecomposeService {
 	private final FDService fdService;
 	private final RicService ricService;
 	private final NormalFormChecker normalFormChecker;
-	private final Gson gson = new Gson();
-
-	public DecomposeService(FDService fdService, RicService ricService, NormalFormChecker normalFormChecker) {
+	private final MinimalCoverService minimalCoverService;
+	private final BcnfDecompositionEngine bcnfDecompositionEngine;
+	private final ThreeNfSynthesisService threeNfSynthesisService;
+	private final RicGuidedSearchService ricGuidedSearchService;
+	private final SessionTableStore sessionTableStore;
+	private final ComputationStore computationStore;
+	private final ForkJoinPool computePool;
+
+	public DecomposeService(FDService fdService, RicService ricService, NormalFormChecker normalFormChecker,
+							MinimalCoverService minimalCoverService, BcnfDecompositionEngine bcnfDecompositionEngine,
+							ThreeNfSynthesisService threeNfSynthesisService, RicGuidedSearchService ricGuidedSearchService,
+							SessionTableStore sessionTableStore, ComputationStore computationStore,
+							ForkJoinPool computePool) {
 		this.fdService = fdService;
 		this.ricService = ricService;
 		this.normalFormChecker = normalFormChecker;
+		this.minimalCoverService = minimalCoverService;
+		this.bcnfDecompositionEngine = bcnfDecompositionEngine;
+		this.threeNfSynthesisService = threeNfSynthesisService;
+		this.ricGuidedSearchService = ricGuidedSearchService;
+		this.sessionTableStore = sessionTableStore;
+		this.computationStore = computationStore;
+		this.computePool = computePool;
 	}
 
 	public DecomposeResponse decompose(DecomposeRequest req, HttpSession session) {
@@ -43,10 +62,9 @@ public class DecomposeService {
 		String computationId = req != null ? req.getComputationId() : null;
 		System.out.println("DecomposeService: computationId from req = '" + computationId + "'");
 
-		List<FD> originalFDs = getOriginalFDsOrThrow(session, computationId);
-		List<String> originalAttrOrder = getOriginalAttrOrder(session, computationId);
-		System.out.println("DecomposeService: originalFDs = " + originalFDs);
-		System.out.println("DecomposeService: originalAttrOrder = " + originalAttrOrder);
+		OriginalRelation original = readOriginalRelation(session, computationId);
+		System.out.println("DecomposeService: originalFDs = " + original.fds());
+		System.out.println("DecomposeService: originalAttrOrder = " + original.attrOrder());
 
 		List<Integer> baseColumns = req.getBaseColumns() == null
 				? Collections.emptyList()
@@ -61,7 +79,7 @@ public class DecomposeService {
 			List<Integer> normalized = baseColumns.stream()
 					.filter(Objects::nonNull)
 					.map(Number::intValue)
-					.filter(idx -> idx >= 0 && idx < originalAttrOrder.size())
+					.filter(idx -> idx >= 0 && idx < original.attrOrder().size())
 					.distinct()
 					.sorted()
 					.collect(Collectors.toList());
@@ -71,24 +89,24 @@ public class DecomposeService {
 			}
 
 			scopedAttrOrder = normalized.stream()
-					.map(originalAttrOrder::get)
+					.map(original.attrOrder()::get)
 					.collect(Collectors.toCollection(ArrayList::new));
 			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
 
-			List<FD> allFds = new ArrayList<>(originalFDs);
-			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(originalFDs));
+			List<FD> allFds = new ArrayList<>(original.fds());
+			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(original.fds()));
 			allFds.addAll(transitive);
 			scopedOriginalFds = allFds.stream()
 					.filter(fd -> scopedOriginalAttrs.containsAll(fd.getLhs()) && scopedOriginalAttrs.containsAll(fd.getRhs()))
 					.map(fd -> new FD(new LinkedHashSet<>(fd.getLhs()), new LinkedHashSet<>(fd.getRhs())))
 					.collect(Collectors.toCollection(ArrayList::new));
 		} else {
-			scopedAttrOrder = new ArrayList<>(originalAttrOrder);
-			scopedOriginalFds = new ArrayList<>(originalFDs);
+			scopedAttrOrder = new ArrayList<>(original.attrOrder());
+			scopedOriginalFds = new ArrayList<>(original.fds());
 			@SuppressWarnings("unchecked")
 			Set<String> originalAttrs = (Set<String>) session.getAttribute("originalAttrs");
 			if (originalAttrs == null) {
-				originalAttrs = new LinkedHashSet<>(originalAttrOrder);
+				originalAttrs = new LinkedHashSet<>(original.attrOrder());
 				session.setAttribute("originalAttrs", originalAttrs);
 			}
 			scopedOriginalAttrs = new LinkedHashSet<>(originalAttrs);
@@ -100,20 +118,21 @@ public class DecomposeService {
 		List<Integer> cols = req.getColumns() == null ? Collections.emptyList() : req.getColumns();
 		Set<String> attrs = cols.stream()
 				.map(i -> {
-					if (i < 0 || i >= originalAttrOrder.size()) {
+					if (i < 0 || i >= original.attrOrder().size()) {
 						throw new IllegalArgumentException("Column index out of range: " + i);
 					}
-					return originalAttrOrder.get(i);
+					return original.attrOrder().get(i);
 				})
 				.collect(Collectors.toCollection(LinkedHashSet::new));
 		System.out.println("DecomposeService: projected attrs = " + attrs);
 
 		List<FD> projected = projectFDsByClosure(attrs, scopedOriginalFds);
 		System.out.println("DecomposeService: projected (pre-minimize) = " + projected);
-		projected = minimizeLhsForFds(projected, scopedOriginalFds);
+		// Drop projected FDs implied by the others
+		projected = minimalCoverService.minimalCover(projected);
 		System.out.println("DecomposeService: projected (minimized) = " + projected);
 
-		boolean dpPreserved = checkDependencyPreserving(scopedOriginalFds, projected);
+		boolean dpPreserved = checkDependencyPreserving(scopedOriginalFds, List.of(attrs));
 		System.out.println("DecomposeService: dependency-preserved = " + dpPreserved);
 
 		Set<String> originalAttrs;
@@ -123,7 +142,7 @@ public class DecomposeService {
 			@SuppressWarnings("unchecked")
 			Set<String> sessionOriginalAttrs = (Set<String>) session.getAttribute("originalAttrs");
 			if (sessionOriginalAttrs == null) {
-				sessionOriginalAttrs = new LinkedHashSet<>(originalAttrOrder);
+				sessionOriginalAttrs = new LinkedHashSet<>(original.attrOrder());
 				session.setAttribute("originalAttrs", sessionOriginalAttrs);
 			}
 			originalAttrs = new LinkedHashSet<>(sessionOriginalAttrs);
@@ -138,9 +157,16 @@ public class DecomposeService {
 		System.out.println("DecomposeService: lossless-join = " + ljPreserved);
 
 		boolean manualProvided = req.getManualData() != null && !req.getManualData().isBlank();
-		String manualDataPayload = manualProvided
-				? sanitizeManualDataString(req.getManualData())
-				: buildManualDataForColumns(cols, session);
+		ColumnarTable dataset = manualProvided ? null : getDatasetOrNull(session, req.getDatasetId());
+		String manualDataPayload;
+		if (manualProvided) {
+			manualDataPayload = ParsedTable.parse(req.getManualData(), computePool).getRicString();
+		} else if (dataset != null) {
+			// Uploaded dataset: the full relation, projected on the columns of this table
+			manualDataPayload = String.join(";", toRicRows(dataset, cols, ""));
+		} else {
+			manualDataPayload = buildManualDataForColumns(cols, original.computation());
+		}
 		if (manualDataPayload == null) manualDataPayload = "";
 		manualDataPayload = manualDataPayload.trim();
 		if (manualDataPayload.isEmpty()) {
@@ -150,7 +176,7 @@ public class DecomposeService {
 
 		// RIC JAR expects numeric column indices (1-based) in FDs.
 		// Decomposition logic uses attribute names; convert projected FDs to numeric for the current subtable.
-		String ricFds = buildNumericRicFds(projected, attrs, originalAttrOrder);
+		String ricFds = buildNumericRicFds(projected, attrs, original.attrOrder());
 
 		List<String> collectedSteps = new ArrayList<>();
 		Consumer<String> internalCallback = message -> {
@@ -200,8 +226,7 @@ public class DecomposeService {
 		String computationId = req != null ? req.getComputationId() : null;
 
 		// Original FDs & attrs (computationId varsa prefixed session key'lerden okunur)
-		List<FD> originalFDs = getOriginalFDsOrThrow(session, computationId);
-		List<String> originalAttrOrder = getOriginalAttrOrder(session, computationId);
+		OriginalRelation original = readOriginalRelation(session, computationId);
 
 		// When present, baseColumns signals that validating a nested relation
 		List<Integer> baseColumns = req.getBaseColumns();
@@ -215,7 +240,7 @@ public class DecomposeService {
 			List<Integer> normalized = baseColumns.stream()
 				.filter(Objects::nonNull)
 				.map(Number::intValue)
-				.filter(idx -> idx >= 0 && idx < originalAttrOrder.size())
+				.filter(idx -> idx >= 0 && idx < original.attrOrder().size())
 				.distinct()
 				.sorted()
 				.collect(Collectors.toList());
@@ -225,14 +250,14 @@ public class DecomposeService {
 			}
 
 			scopedAttrOrder = normalized.stream()
-				.map(originalAttrOrder::get)
+				.map(original.attrOrder()::get)
 				.collect(Collectors.toCollection(ArrayList::new));
 
 			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
 
 			// Include transitive FDs so that projected subsets retain necessary implications
-			List<FD> allFds = new ArrayList<>(originalFDs);
-			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(originalFDs));
+			List<FD> allFds = new ArrayList<>(original.fds());
+			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(original.fds()));
 			allFds.addAll(transitive);
 
 			scopedOriginalFds = allFds.stream()
@@ -240,12 +265,12 @@ public class DecomposeService {
 				.map(fd -> new FD(new LinkedHashSet<>(fd.getLhs()), new LinkedHashSet<>(fd.getRhs())))
 				.collect(Collectors.toCollection(ArrayList::new));
 		} else {
-			scopedAttrOrder = new ArrayList<>(originalAttrOrder);
-			scopedOriginalFds = new ArrayList<>(originalFDs);
+			scopedAttrOrder = new ArrayList<>(original.attrOrder());
+			scopedOriginalFds = new ArrayList<>(original.fds());
 			@SuppressWarnings("unchecked")
 			Set<String> originalAttrs = (Set<String>) session.getAttribute("originalAttrs");
 			if (originalAttrs == null) {
-				originalAttrs = new LinkedHashSet<>(originalAttrOrder);
+				originalAttrs = new LinkedHashSet<>(original.attrOrder());
 				session.setAttribute("originalAttrs", originalAttrs);
 			}
 			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
@@ -276,7 +301,7 @@ public class DecomposeService {
 				.replaceAll("-+>", "->").trim();
 		// For global RIC, the jar requires numeric indices relative to the encoded table we pass.
 		// That encoded table is built using unionColsSorted, so convert any incoming FD specs accordingly.
-		String topFdsForRic = convertFdsToUnionNumeric(topFds, originalAttrOrder, unionColsSorted);
+		String topFdsForRic = convertFdsToUnionNumeric(topFds, original.attrOrder(), unionColsSorted);
 
 		// Build table attribute sets (mapped to attribute names) and canonicalize (ordering)
 		List<Set<String>> tableAttrSets = new ArrayList<>(tables.size());
@@ -287,10 +312,10 @@ public class DecomposeService {
 
 			LinkedHashSet<String> attrs = colsNum.stream()
 					.map(i -> {
-						if (i < 0 || i >= originalAttrOrder.size()) {
+						if (i < 0 || i >= original.attrOrder().size()) {
 							throw new IllegalArgumentException("Column index out of range: " + i);
 						}
-						return originalAttrOrder.get(i);
+						return original.attrOrder().get(i);
 					})
 					// Preserves insertion
 					.collect(Collectors.toCollection(LinkedHashSet::new));
@@ -310,60 +335,19 @@ public class DecomposeService {
 			System.out.println("DecomposeService.decomposeAll: unionAttrs=" + unionAttrs + ", scopedOriginalAttrs=" + scopedOriginalAttrs);
 		}
 
-		// Build global manual rows with consistent column count (union columns)
-		List<String> manualRowsList = new ArrayList<>();
+		// Build global manual rows with consistent column count (union columns), empty cells as "_"
+		ColumnarTable globalTable;
 		if (req.getManualData() != null && !req.getManualData().isBlank()) {
-			List<List<String>> parsedRows = CsvParsingUtil.parseRows(req.getManualData());
-			LinkedHashSet<String> set = new LinkedHashSet<>();
-			for (List<String> row : parsedRows) {
-				List<String> picked = new ArrayList<>();
-				for (Integer colIdx : unionColsSorted) {
-					int i = colIdx == null ? -1 : colIdx;
-					String v = (i >= 0 && i < row.size()) ? row.get(i) : "";
-					String sanitized = (v == null ? "" : v.replace(",", "|").replace(";", "|").replace("\"", "").trim());
-					if (sanitized.isEmpty()) sanitized = "_";
-					picked.add(sanitized);
-				}
-				String rowStr = String.join(",", picked);
-				if (!rowStr.replace(",", "").trim().isEmpty()) {
-					set.add(rowStr);
-				}
-			}
-			manualRowsList.addAll(set);
+			globalTable = CsvParsingUtil.parseColumnar(req.getManualData(), computePool);
+		} else if (req.getDatasetId() != null && !req.getDatasetId().isBlank()) {
+			globalTable = getDatasetOrNull(session, req.getDatasetId());
 		} else {
-			// Build from session originalTuples using unionColsSorted (with computationId prefix)
-			@SuppressWarnings("unchecked")
-			List<List<String>> originalTuples = (List<List<String>>) session.getAttribute(resolveSessionKey("originalTuples", computationId));
-			if (originalTuples == null || originalTuples.isEmpty()) {
-				String origJson = (String) session.getAttribute(resolveSessionKey("originalTableJson", computationId));
-				if (origJson != null && !origJson.isBlank()) {
-					try {
-						Type t = new TypeToken<List<List<String>>>(){}.getType();
-						originalTuples = gson.fromJson(origJson, t);
-						if (originalTuples == null) originalTuples = Collections.emptyList();
-					} catch (Exception ex) {
-						originalTuples = Collections.emptyList();
-					}
-				} else {
-					originalTuples = Collections.emptyList();
-				}
-			}
-			LinkedHashSet<String> seen = new LinkedHashSet<>();
-			for (List<String> row : originalTuples) {
-				List<String> picked = new ArrayList<>();
-				for (Integer colIdx : unionColsSorted) {
-					int i = colIdx == null ? -1 : colIdx;
-					String v = (i >= 0 && i < row.size()) ? row.get(i) : "";
-					// Sanitize cell value for RIC compatibility
-					String sanitized = (v == null ? "" : v.replace(",", "|").replace(";", "|").replace("\"", "").trim());
-					if (sanitized.isEmpty()) sanitized = "_";
-					picked.add(sanitized);
-				}
-				String tup = String.join(",", picked);
-				if (!tup.replace(",", "").trim().isEmpty()) seen.add(tup);
-			}
-			manualRowsList.addAll(seen);
+			// Build from the stored original table of the computation
+			globalTable = sessionTableStore.getOriginalTable(original.computation());
 		}
+		List<String> manualRowsList = globalTable == null
+				? new ArrayList<>()
+				: toRicRows(globalTable, unionColsSorted, "_");
 
 		String builtManual = String.join(";", manualRowsList).trim();
 		System.out.println("DecomposeService.decomposeAll: built manualData for global RIC = " + builtManual);
@@ -393,7 +377,6 @@ public class DecomposeService {
 
 		// Per-table: project & minimize FDs (still return projected FD lists per table)
 		List<DecomposeResponse> perTableResponses = new ArrayList<>();
-		List<FD> combinedProjectedFds = new ArrayList<>();
 		boolean allTablesBCNF = true; // BCNF bayrağı başlatıldı
 
 		for (int i = 0; i < tables.size(); i++) {
@@ -401,9 +384,7 @@ public class DecomposeService {
 
 			// Project & minimize projected FDs for this table
 			List<FD> projected = projectFDsByClosure(attrs, scopedOriginalFds);
-			List<FD> minimizedProjected = minimizeLhsForFds(projected, scopedOriginalFds);
-
-			combinedProjectedFds.addAll(minimizedProjected);
+			List<FD> minimizedProjected = minimalCoverService.minimalCover(projected);
 
 			// BCNF checking: Her tablo kendi projected FD'lerine göre kontrol edilmeli
 			// (Tüm orijinal FD'ler yerine, sadece bu tabloya ait projected FD'ler kullanılır)
@@ -430,27 +411,11 @@ public class DecomposeService {
 			perTableResponses.add(drResp);
 		}
 
-		// global dp-preserved (combined projected FDs imply original)
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : combinedProjectedFds) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
-		}
-		List<FD> combinedProjectedUnique = new ArrayList<>(uniq.values());
-		// Evaluate dependency preservation / lossless join against the scoped population of FDs and attributes
-		boolean dpPreservedGlobal = checkDependencyPreserving(scopedOriginalFds, combinedProjectedUnique);
-
-		// Calculate missing FDs (FDs that were not preserved in decomposition)
-		List<String> missingFDs = new ArrayList<>();
-		if (!dpPreservedGlobal) {
-			for (FD originalFd : scopedOriginalFds) {
-				Set<String> closure = fdService.computeClosure(originalFd.getLhs(), combinedProjectedUnique);
-				if (!closure.containsAll(originalFd.getRhs())) {
-					// This FD was not preserved
-					missingFDs.add(fdToString(originalFd));
-				}
-			}
-		}
+		// Evaluate dependency preservation against the scoped population of FDs (restricted closures, no projections needed)
+		List<String> missingFDs = new DependencyPreservationChecker(scopedOriginalFds, tableAttrSets).unpreservedFds().stream()
+				.map(this::fdToString)
+				.collect(Collectors.toList());
+		boolean dpPreservedGlobal = missingFDs.isEmpty();
 		System.out.println("DecomposeService.decomposeAll: missingFDs = " + missingFDs);
 
 		// Build schemaList deterministically
@@ -484,44 +449,20 @@ public class DecomposeService {
 		return allResp;
 	}
 
-	private String resolveSessionKey(String baseKey, String computationId) {
-		if (computationId == null || computationId.isBlank()) {
-			return baseKey;
-		}
-		return "computation_" + computationId + "_" + baseKey;
-	}
-
 	// Helper methods
 
-	@SuppressWarnings("unchecked")
-	private List<FD> getOriginalFDsOrThrow(HttpSession session, String computationId) {
-		String key = (computationId == null || computationId.isBlank())
-			? "originalFDs"
-			: ("computation_" + computationId + "_originalFDs");
-		List<FD> originalFDs = (List<FD>) session.getAttribute(key);
-		if (originalFDs == null) {
+	// The computation's record with its original FDs and attribute order, read from the store once per request
+	private record OriginalRelation(ComputationRecord computation, List<FD> fds, List<String> attrOrder) {}
+
+	private OriginalRelation readOriginalRelation(HttpSession session, String computationId) {
+		ComputationRecord computation = computationStore.get(session, computationId);
+		if (computation == null) {
 			throw new IllegalStateException("Original FDs not found in session. Run compute first.");
 		}
-		return originalFDs;
+		return new OriginalRelation(computation, computation.fdAnalysis().originalFDs(),
+				new ArrayList<>(computation.fdAnalysis().attrOrder()));
 	}
 
-	@SuppressWarnings("unchecked")
-	private List<String> getOriginalAttrOrder(HttpSession session, String computationId) {
-		String key = (computationId == null || computationId.isBlank())
-			? "originalAttrOrder"
-			: ("computation_" + computationId + "_originalAttrOrder");
-		Object obj = session.getAttribute(key);
-		if (obj == null) {
-			throw new IllegalStateException("originalAttrOrder not found in session. Run compute first.");
-		}
-		List<?> raw = (List<?>) obj;
-		return raw.stream().map(Object::toString).collect(Collectors.toList());
-	}
-
-	private String sanitizeManualDataString(String manualData) {
-		List<List<String>> rows = CsvParsingUtil.parseRows(manualData);
-		return CsvParsingUtil.toRicCompatibleString(rows);
-	}
 
 	private String normalizeFds(String fds) {
 		if (fds == null || fds.isBlank()) {
@@ -671,106 +612,92 @@ public class DecomposeService {
 	}
 
 
-	private String buildManualDataForColumns(List<Integer> cols, HttpSession session) {
-		@SuppressWarnings("unchecked")
-		List<List<String>> originalTuples = (List<List<String>>) session.getAttribute("originalTuples");
-		if (originalTuples == null) {
-			return "";
+	private ColumnarTable getDatasetOrNull(HttpSession session, String datasetId) {
+		if (datasetId == null || datasetId.isBlank()) {
+			return null;
 		}
-		List<List<String>> projected = new ArrayList<>();
-		for (List<String> row : originalTuples) {
-			List<String> picked = new ArrayList<>();
-			for (Integer colIdx : cols) {
-				int i = colIdx == null ? -1 : colIdx;
-				picked.add(i >= 0 && i < row.size() ? row.get(i) : "");
-			}
-			projected.add(picked);
+		ColumnarTable dataset = sessionTableStore.getDataset(session, datasetId);
+		if (dataset == null) {
+			throw new IllegalArgumentException("Unknown dataset: " + datasetId);
 		}
-		return CsvParsingUtil.toRicCompatibleString(projected);
+		return dataset;
 	}
 
-	// Numbering all non-empty subsets X of attrs and compute closure(X) under originalFDs
-	// For each A in (closure ∩ attrs) \ X produce FD X -> A (RHS atomic)
-	private List<FD> projectFDsByClosure(Set<String> attrs, List<FD> originalFDs) {
-		List<FD> out = new ArrayList<>();
-		List<String> attrList = new ArrayList<>(attrs);
-		int n = attrList.size();
-
-		int total = 1 << n;
-		for (int mask = 1; mask < total; mask++) {
-			Set<String> X = new LinkedHashSet<>();
-			for (int i = 0; i < n; i++) {
-				if ((mask & (1 << i)) != 0) X.add(attrList.get(i));
-			}
-			Set<String> closure = fdService.computeClosure(X, originalFDs);
-			Set<String> rhs = new LinkedHashSet<>(closure);
-			rhs.retainAll(attrs);
-			rhs.removeAll(X);
-			for (String a : rhs) {
-				out.add(new FD(new LinkedHashSet<>(X), new LinkedHashSet<>(Set.of(a))));
-			}
+	private String buildManualDataForColumns(List<Integer> cols, ComputationRecord computation) {
+		ColumnarTable table = sessionTableStore.getOriginalTable(computation);
+		if (table == null) {
+			return "";
 		}
+		return String.join(";", toRicRows(table, cols, ""));
+	}
 
-		// Deduplicate
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : out) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
+	/**
+	 * Distinct RIC input rows of the table projected on cols (see CsvParsingUtil.toRicCompatibleString).
+	 * Every dictionary value is sanitized once, then duplicates are removed on the sanitized codes
+	 * (ColumnarTable.project); rows without any text are dropped.
+	 *
+	 * @param emptyCell Replacement for cells that are empty after sanitizing
+	 */
+	private List<String> toRicRows(ColumnarTable table, List<Integer> cols, String emptyCell) {
+		// Columns outside the table are constant and do not change which rows are distinct
+		List<Integer> inRange = new ArrayList<>(cols.size());
+		for (Integer colIdx : cols) {
+			if (colIdx != null && colIdx >= 0 && colIdx < table.getColumnCount()) {
+				inRange.add(colIdx);
+			}
 		}
-		return new ArrayList<>(uniq.values());
+		ColumnarTable projected = table
+				.mapValues(value -> toRicCell(value, emptyCell))
+				.project(inRange.stream().mapToInt(Integer::intValue).toArray());
+		String missingCell = toRicCell("", emptyCell);
+		List<String> rows = new ArrayList<>(projected.getRowCount());
+		StringBuilder row = new StringBuilder();
+		for (int r = 0; r < projected.getRowCount(); r++) {
+			row.setLength(0);
+			boolean blank = true;
+			int column = 0;
+			for (int k = 0; k < cols.size(); k++) {
+				Integer colIdx = cols.get(k);
+				boolean present = colIdx != null && colIdx >= 0 && colIdx < table.getColumnCount();
+				String cell = present ? projected.getValue(r, column++) : missingCell;
+				if (k > 0) row.append(',');
+				row.append(cell);
+				blank &= cell.isEmpty();
+			}
+			if (!blank) {
+				rows.add(row.toString());
+			}
+		}
+		return rows;
 	}
 
-	// Minimizing LHS, for each FD remove extra attributes using closure under originalFDs
-	private List<FD> minimizeLhsForFds(List<FD> fds, List<FD> originalFDs) {
-		List<FD> result = new ArrayList<>();
-		for (FD fd : fds) {
-			Set<String> lhs = new LinkedHashSet<>(fd.getLhs());
-			Set<String> rhs = new LinkedHashSet<>(fd.getRhs());
-			boolean changed;
-			do {
-				changed = false;
-				for (String a : new ArrayList<>(lhs)) {
-					if (lhs.size() == 1) break;
-					Set<String> reduced = new LinkedHashSet<>(lhs);
-					reduced.remove(a);
-					Set<String> closure = fdService.computeClosure(reduced, originalFDs);
-					if (closure.containsAll(rhs)) {
-						lhs.remove(a);
-						changed = true;
-						break;
-					}
-				}
-			} while (changed);
-			result.add(new FD(new LinkedHashSet<>(lhs), new LinkedHashSet<>(rhs)));
-		}
+	private String toRicCell(String value, String emptyCell) {
+		String sanitized = CsvParsingUtil.toRicCell(value);
+		return sanitized.isEmpty() ? emptyCell : sanitized;
+	}
 
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : result) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
-		}
-		return new ArrayList<>(uniq.values());
+	// Project originalFDs onto attrs; every produced FD X -> A has a minimal LHS and an atomic RHS (see FdProjector)
+	private List<FD> projectFDsByClosure(Set<String> attrs, List<FD> originalFDs) {
+		return new FdProjector(originalFDs).project(attrs);
 	}
 
-	// Check dependency preservation: for every original FD X->Y check closure_{projected}(X)
-	private boolean checkDependencyPreserving(List<FD> original, List<FD> projected) {
-		for (FD fd : original) {
-			Set<String> closure = fdService.computeClosure(fd.getLhs(), projected);
-			if (!closure.containsAll(fd.getRhs())) {
-				return false;
-			}
-		}
-		return true;
+	// Check dependency preservation: every original FD must follow from the FDs that hold on the schemas
+	private boolean checkDependencyPreserving(List<FD> original, List<Set<String>> schemas) {
+		return new DependencyPreservationChecker(original, schemas).isPreserved();
 	}
 
-	// Lossless-join test - represents to detailed version
+	// Lossless-join test without explanation text
 	private boolean checkLosslessDecomposition(Set<String> R, List<Set<String>> schemas, List<FD> originalFDs) {
-		return checkLosslessDecompositionWithDetails(R, schemas, originalFDs).isLossless();
+		if (R == null || R.isEmpty() || schemas == null || schemas.isEmpty()) {
+			return false;
+		}
+		return new LosslessJoinChecker(R, schemas, originalFDs).isLossless();
 	}
 
 	/**
 	 * Lossless-join test with detailed information.
 	 * Returns a LosslessJoinDetail object containing user-friendly explanation.
+	 * The test itself is picked by LosslessJoinChecker; the text is only built here.
 	 */
 	private com.project.plaque.plaque_calculator.dto.LosslessJoinDetail checkLosslessDecompositionWithDetails(
 			Set<String> R, List<Set<String>> schemas, List<FD> originalFDs) {
@@ -784,109 +711,14 @@ public class DecomposeService {
 			return detail;
 		}
 
-		// Create the initial matrix
-		List<String> allAttributes = new ArrayList<>(R);
-		int numAttrs = allAttributes.size();
-		int numSchemas = schemas.size();
-		String[][] matrix = new String[numSchemas][numAttrs];
-
-		// Initialize matrix
-		for (int i = 0; i < numSchemas; i++) {
-			Set<String> schema_i = schemas.get(i);
-			for (int j = 0; j < numAttrs; j++) {
-				String attr_j = allAttributes.get(j);
-				if (schema_i.contains(attr_j)) {
-					// Distinguished variable
-					matrix[i][j] = "a" + (j + 1);
-				} else {
-					// Non-distinguished variable
-					matrix[i][j] = "b" + (i + 1) + (j + 1);
-				}
-			}
-		}
-
-		// Apply Chase algorithm
-		boolean changed;
-		do {
-			changed = false;
-			for (FD fd : originalFDs) {
-				Set<String> lhs = fd.getLhs();
-				Set<String> rhs = fd.getRhs();
-
-				// Find rows with the same LHS values
-				List<Integer> lhsIndices = lhs.stream()
-						.map(allAttributes::indexOf)
-						.collect(Collectors.toList());
-
-				if (lhsIndices.contains(-1)) {
-					continue;
-				}
-
-				Map<List<String>, List<Integer>> groups = new HashMap<>();
-				for (int i = 0; i < numSchemas; i++) {
-					List<String> key = new ArrayList<>();
-					for (int index : lhsIndices) {
-						key.add(matrix[i][index]);
-					}
-					groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
-				}
-
-				for (List<Integer> rowIndices : groups.values()) {
-					if (rowIndices.size() < 2) continue;
-
-					// Equalize values in RHS columns
-					for (String attr_y : rhs) {
-						int y_idx = allAttributes.indexOf(attr_y);
-						if (y_idx == -1) continue;
-
-						String distinguishedValue = null;
-						for (int rowIndex : rowIndices) {
-							if (matrix[rowIndex][y_idx].startsWith("a")) {
-								distinguishedValue = matrix[rowIndex][y_idx];
-								break;
-							}
-						}
-
-						if (distinguishedValue != null) {
-							for (int rowIndex : rowIndices) {
-								if (!matrix[rowIndex][y_idx].equals(distinguishedValue)) {
-									matrix[rowIndex][y_idx] = distinguishedValue;
-									changed = true;
-								}
-							}
-						} else {
-							String firstValue = matrix[rowIndices.get(0)][y_idx];
-							for (int rowIndex : rowIndices) {
-								if (!matrix[rowIndex][y_idx].equals(firstValue)) {
-									matrix[rowIndex][y_idx] = firstValue;
-									changed = true;
-								}
-							}
-						}
-					}
-				}
-			}
-		} while (changed);
-
-		// Check if lossless
-		boolean isLossless = false;
-		for (int i = 0; i < numSchemas; i++) {
-			boolean allDistinguished = true;
-			for (int j = 0; j < numAttrs; j++) {
-				if (!matrix[i][j].startsWith("a")) {
-					allDistinguished = false;
-					break;
-				}
-			}
-			if (allDistinguished) {
-				isLossless = true;
-				break;
-			}
-		}
-
+		boolean isLossless = new LosslessJoinChecker(R, schemas, originalFDs).isLossless();
 		detail.setLossless(isLossless);
+		detail.setExplanation(buildLosslessExplanation(schemas, isLossless));
+		return detail;
+	}
 
-		// Generate user-friendly explanation
+	// Generate user-friendly explanation
+	private String buildLosslessExplanation(List<Set<String>> schemas, boolean isLossless) {
 		StringBuilder explanation = new StringBuilder();
 		if (isLossless) {
 			explanation.append("✓ The decomposition is lossless-join, meaning no information will be lost when joining the decomposed tables back together.");
@@ -901,7 +733,7 @@ public class DecomposeService {
 
 			// Find overlapping attributes between schemas
 			Map<String, List<Integer>> attrToSchemas = new HashMap<>();
-			for (int i = 0; i < numSchemas; i++) {
+			for (int i = 0; i < schemas.size(); i++) {
 				Set<String> schema_i = schemas.get(i);
 				for (String attr : schema_i) {
 					attrToSchemas.computeIfAbsent(attr, k -> new ArrayList<>()).add(i);
@@ -927,7 +759,7 @@ public class DecomposeService {
 				explanation.append("• However, these common attributes do not form a sufficient key based on your functional dependencies.\n\n");
 
 				explanation.append("Your decomposed tables:\n");
-				for (int i = 0; i < numSchemas; i++) {
+				for (int i = 0; i < schemas.size(); i++) {
 					List<String> schemaAttrs = schemas.get(i).stream().sorted().collect(Collectors.toList());
 					explanation.append("  • R").append(i + 1).append(": {")
 							.append(String.join(", ", schemaAttrs)).append("}\n");
@@ -940,8 +772,7 @@ public class DecomposeService {
 			}
 		}
 
-		detail.setExplanation(explanation.toString());
-		return detail;
+		return explanation.toString();
 	}
 
 
@@ -956,43 +787,40 @@ public class DecomposeService {
 
 		String computationId = req != null ? req.getComputationId() : null;
 
-		// original FDs
-		List<FD> originalFDs = getOriginalFDsOrThrow(session, computationId);
-		System.out.println("DecomposeService.projectFDsOnly: originalFDs = " + originalFDs);
-
-		// originalAttrOrder
-		List<String> originalAttrOrder = getOriginalAttrOrder(session, computationId);
-		System.out.println("DecomposeService.projectFDsOnly: originalAttrOrder = " + originalAttrOrder);
+		// original FDs and attrOrder
+		OriginalRelation original = readOriginalRelation(session, computationId);
+		System.out.println("DecomposeService.projectFDsOnly: originalFDs = " + original.fds());
+		System.out.println("DecomposeService.projectFDsOnly: originalAttrOrder = " + original.attrOrder());
 
 		// Convert incoming column indexes to attribute names
 		List<Integer> cols = req.getColumns() == null ? Collections.emptyList() : req.getColumns();
 		Set<String> attrs = cols.stream()
 				.map(i -> {
-					if (i < 0 || i >= originalAttrOrder.size()) {
+					if (i < 0 || i >= original.attrOrder().size()) {
 						throw new IllegalArgumentException("Column index out of range: " + i);
 					}
-					return originalAttrOrder.get(i);
+					return original.attrOrder().get(i);
 				})
 				.collect(Collectors.toCollection(LinkedHashSet::new));
 		System.out.println("DecomposeService.projectFDsOnly: projected attrs = " + attrs);
 
 		// Projection using closure
-		List<FD> projected = projectFDsByClosure(attrs, originalFDs);
+		List<FD> projected = projectFDsByClosure(attrs, original.fds());
 		System.out.println("DecomposeService.projectFDsOnly: projected (pre-minimize) = " + projected);
 
-		// Minimalizing LHS
-		projected = minimizeLhsForFds(projected, originalFDs);
+		// Drop projected FDs implied by the others
+		projected = minimalCoverService.minimalCover(projected);
 		System.out.println("DecomposeService.projectFDsOnly: projected (minimized) = " + projected);
 
 		// Checking dependency preserving
-		boolean dpPreserved = checkDependencyPreserving(originalFDs, projected);
+		boolean dpPreserved = checkDependencyPreserving(original.fds(), List.of(attrs));
 		System.out.println("DecomposeService.projectFDsOnly: dpPreserved = " + dpPreserved);
 
 		// Checking lossless join
 		@SuppressWarnings("unchecked")
 		Set<String> originalAttrs = (Set<String>) session.getAttribute("originalAttrs");
 		if (originalAttrs == null) {
-			originalAttrs = new LinkedHashSet<>(originalAttrOrder);
+			originalAttrs = new LinkedHashSet<>(original.attrOrder());
 			session.setAttribute("originalAttrs", originalAttrs);
 		}
 		// Build complement (R \ S) to create a 2-way decomposition
@@ -1002,7 +830,7 @@ public class DecomposeService {
 		List<Set<String>> schemas = new ArrayList<>();
 		schemas.add(S);
 		schemas.add(complement);
-		boolean ljPreserved = checkLosslessDecomposition(originalAttrs, schemas, originalFDs);
+		boolean ljPreserved = checkLosslessDecomposition(originalAttrs, schemas, original.fds());
 		System.out.println("DecomposeService.projectFDsOnly: ljPreserved = " + ljPreserved);
 
 		// Convert FDs to string
@@ -1025,6 +853,90 @@ public class DecomposeService {
 		return resp;
 	}
 
+	// Suggested BCNF decompositions of the computation's original relation, best first
+	public DecompositionSuggestionResponse suggestBcnfDecompositions(String computationId, int limit, HttpSession session) {
+		OriginalRelation original = readOriginalRelation(session, computationId);
+
+		BcnfDecompositionEngine.Result result = bcnfDecompositionEngine.decompose(original.attrOrder(), original.fds(), limit);
+		System.out.println("DecomposeService.suggestBcnfDecompositions: " + result.candidates().size()
+				+ " candidates, complete=" + result.complete());
+
+		List<DecompositionSuggestion> suggestions = new ArrayList<>();
+		for (BcnfDecompositionEngine.Candidate candidate : result.candidates()) {
+			suggestions.add(toSuggestion(candidate.schemas(), candidate.missingFds(), original.attrOrder()));
+		}
+		DecompositionSuggestionResponse resp = new DecompositionSuggestionResponse();
+		resp.setTarget("BCNF");
+		resp.setSuggestions(suggestions);
+		resp.setComplete(result.complete());
+		return resp;
+	}
+
+	// 3NF synthesis of the computation's original relation (single, dependency-preserving suggestion)
+	public DecompositionSuggestionResponse synthesizeThreeNf(String computationId, HttpSession session) {
+		OriginalRelation original = readOriginalRelation(session, computationId);
+
+		List<Set<String>> schemas = threeNfSynthesisService.synthesize(original.attrOrder(), original.fds());
+		List<FD> missing = new DependencyPreservationChecker(original.fds(), schemas).unpreservedFds();
+		System.out.println("DecomposeService.synthesizeThreeNf: schemas = " + schemas);
+
+		DecompositionSuggestionResponse resp = new DecompositionSuggestionResponse();
+		resp.setTarget("3NF");
+		resp.setSuggestions(List.of(toSuggestion(schemas, missing, original.attrOrder())));
+		resp.setComplete(true);
+		return resp;
+	}
+
+	/**
+	 * RIC-guided decomposition search on the computation's original relation.
+	 * Candidates are ranked with FD-based checks and the best topK are evaluated with the RIC jar;
+	 * progress is reported to the listener (see RicGuidedSearchService).
+	 */
+	public List<RicGuidedSearchService.Evaluation> ricGuidedSearch(String computationId, int topK, long budgetMillis,
+			boolean monteCarlo, int samples, HttpSession session, RicGuidedSearchService.SearchListener listener) {
+		OriginalRelation original = readOriginalRelation(session, computationId);
+		double[][] originalRic = original.computation().ric().toArray();
+		// The evaluator runs on pool threads, so it works on this snapshot instead of reading the session
+		ColumnarTable originalTable = sessionTableStore.getOriginalTable(original.computation());
+
+		RicGuidedSearchService.TableRicEvaluator evaluator = (columns, projectedFds) -> {
+			String manual = originalTable == null ? "" : String.join(";", toRicRows(originalTable, columns, "")).trim();
+			if (manual.isEmpty()) {
+				throw new IllegalStateException("No manual data available for RIC computation.");
+			}
+			Set<String> attrs = columns.stream()
+					.map(original.attrOrder()::get)
+					.collect(Collectors.toCollection(LinkedHashSet::new));
+			String ricFds = buildNumericRicFds(projectedFds, attrs, original.attrOrder());
+			return ricService.computeRicAdaptive(manual, ricFds, monteCarlo, samples).matrix();
+		};
+		return ricGuidedSearchService.search(original.attrOrder(), original.fds(), originalRic, topK, budgetMillis, evaluator, listener);
+	}
+
+	private DecompositionSuggestion toSuggestion(List<Set<String>> schemas, List<FD> missingFds, List<String> originalAttrOrder) {
+		List<List<Integer>> tables = new ArrayList<>();
+		List<List<String>> tableAttributes = new ArrayList<>();
+		for (Set<String> schema : schemas) {
+			List<Integer> cols = new ArrayList<>();
+			List<String> attrs = new ArrayList<>();
+			for (int i = 0; i < originalAttrOrder.size(); i++) {
+				if (schema.contains(originalAttrOrder.get(i))) {
+					cols.add(i);
+					attrs.add(originalAttrOrder.get(i));
+				}
+			}
+			tables.add(cols);
+			tableAttributes.add(attrs);
+		}
+		DecompositionSuggestion suggestion = new DecompositionSuggestion();
+		suggestion.setTables(tables);
+		suggestion.setTableAttributes(tableAttributes);
+		suggestion.setTableCount(tables.size());
+		suggestion.setDpPreserved(missingFds.isEmpty());
+		suggestion.setMissingFDs(missingFds.stream().map(this::fdToString).collect(Collectors.toList()));
+		return suggestion;
+	}
+
 	/**
 	 * Check if a relation is in BCNF
 	 * Delegates to NormalFormChecker for comprehensive BCNF check
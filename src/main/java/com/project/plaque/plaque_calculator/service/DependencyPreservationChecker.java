@@ -0,0 +1,74 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Dependency preservation test that never builds the projected FD sets.
+ * For an original FD X->Y, start with Z = X and repeat over all schemas Ri:
+ *   Z := Z ∪ ((Z ∩ Ri)+ ∩ Ri)
+ * until Z stops growing; the FD is preserved iff Y ⊆ Z. Closures only use the original FDs,
+ * so each test costs a polynomial number of closure computations.
+ */
+public class DependencyPreservationChecker {
+
+	private final List<FD> fds;
+	private final ClosureEngine engine;
+	private final List<BitSet> schemaBits = new ArrayList<>();
+
+	public DependencyPreservationChecker(List<FD> fds, List<Set<String>> schemas) {
+		this.fds = fds == null ? List.of() : fds;
+		this.engine = new ClosureEngine(this.fds);
+		for (Set<String> schema : schemas) {
+			schemaBits.add(engine.toBits(schema));
+		}
+	}
+
+	public boolean isPreserved() {
+		for (FD fd : fds) {
+			if (!isPreserved(fd)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Original FDs that do not follow from the schemas' projections, in input order
+	public List<FD> unpreservedFds() {
+		List<FD> out = new ArrayList<>();
+		for (FD fd : fds) {
+			if (!isPreserved(fd)) {
+				out.add(fd);
+			}
+		}
+		return out;
+	}
+
+	private boolean isPreserved(FD fd) {
+		BitSet target = engine.toBits(fd.getRhs());
+		BitSet z = engine.toBits(fd.getLhs());
+		boolean grown = true;
+		while (grown && !containsAll(z, target)) {
+			grown = false;
+			for (BitSet schema : schemaBits) {
+				BitSet local = (BitSet) z.clone();
+				local.and(schema);
+				BitSet implied = engine.closure(local);
+				implied.and(schema);
+				implied.andNot(z);
+				if (!implied.isEmpty()) {
+					z.or(implied);
+					grown = true;
+				}
+			}
+		}
+		return containsAll(z, target);
+	}
+
+	private static boolean containsAll(BitSet superset, BitSet subset) {
+		BitSet rest = (BitSet) subset.clone();
+		rest.andNot(superset);
+		return rest.isEmpty();
+	}
+}
@@ -8,6 +8,17 @@ import java.util.stream.Collectors;
 @Service
 public class FDService {
 
+	// The given attribute names in the order of attributes (e.g. the column order of the table)
+	public static Set<String> inAttributeOrder(Collection<String> names, List<String> attributes) {
+		Set<String> ordered = new LinkedHashSet<>();
+		for (String attr : attributes) {
+			if (names.contains(attr)) {
+				ordered.add(attr);
+			}
+		}
+		return ordered;
+	}
+
 	// Calculates the closure of the set X under FDs.
 	public Set<String> computeClosure(Set<String> X, List<FD> fds) {
 		Set<String> closure = new HashSet<>(X);
@@ -0,0 +1,467 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Service for discovering the minimal FDs that hold on table data (TANE)
+ * Algorithm (level-wise over attribute sets X, level k holds sets of size k):
+ * 1. Every X keeps a stripped partition (PositionListIndex) and a candidate set C+(X),
+ *    the intersection of C+(X - {A}) over A in X (C+ of the empty set is every attribute)
+ * 2. For A in X ∩ C+(X): X - {A} -> A holds iff every cluster of the partition of X - {A} has a single
+ *    value of A; then it is a minimal FD, and A and all attributes outside X are removed from C+(X)
+ * 3. Sets with empty C+ are pruned; the next level joins sets sharing all but the last attribute
+ *    whose subsets all survived, and their partitions are products of the two joined partitions
+ * Each level is processed in parallel. Rows and columns are capped, and the search stops between
+ * levels when the time budget is used up (the FDs found so far are valid and minimal).
+ *
+ * Sampled mode (for tables too big for the exact search):
+ * 1. TANE runs on a random or stratified row sample; X -> A is accepted if its g3 error on the sample
+ *    (share of rows to remove so it holds) is at most maxError, and minimal keys of the sample are noted
+ * 2. Only these candidates are verified on the full table, in one grouping pass per distinct LHS
+ * Every FD holding on the full table holds on the sample, so each one has a candidate with a subset LHS;
+ * if that candidate is rejected, the FD is missed and the result is marked incomplete.
+ */
+@Service
+public class FdDiscoveryService {
+
+	public static final int MAX_ROWS = 200_000;
+	public static final int MAX_COLUMNS = 40;
+	public static final int DEFAULT_SAMPLE_SIZE = 5_000;
+	private static final int MAX_SAMPLE_ROUNDS = 5;
+	private static final long DEFAULT_BUDGET_MILLIS = 10_000;
+
+	private final ForkJoinPool pool;
+	private final FdValidationService fdValidationService;
+
+	public FdDiscoveryService(FdValidationService fdValidationService, ForkJoinPool computePool) {
+		this.fdValidationService = fdValidationService;
+		this.pool = computePool;
+	}
+
+	public enum SampleMode { RANDOM, STRATIFIED }
+
+	// complete is false if the time budget or the LHS size limit ended the search early
+	public record Result(List<FD> fds, boolean complete, int rows, int columns, long elapsedMs) {}
+
+	// sampleError is the g3 error estimated on the sample, error the one on the full table
+	public record ApproximateFd(FD fd, double sampleError, double error) {}
+
+	// complete is additionally false if a sample candidate failed on the full table
+	public record SampledResult(List<ApproximateFd> fds, List<Set<String>> keys, boolean complete,
+								int rows, int sampleRows, int columns, long elapsedMs) {}
+
+	private record Found(FD fd, double error) {}
+
+	private record Search(List<Found> fds, List<Set<String>> keys, boolean complete) {}
+
+	public Result discover(ColumnarTable table, List<String> attributeNames) {
+		return discover(table, attributeNames, 0, DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * Discover minimal FDs with a single RHS attribute.
+	 *
+	 * @param table Dictionary-encoded table data
+	 * @param attributeNames Name of every column (e.g. "1", "2", ... as used in the FD input)
+	 * @param maxLhsSize Largest LHS size searched, 0 for no limit
+	 * @param budgetMillis Time budget for the search
+	 */
+	public Result discover(ColumnarTable table, List<String> attributeNames, int maxLhsSize, long budgetMillis) {
+		int rows = table.getRowCount();
+		int cols = table.getColumnCount();
+		if (rows > MAX_ROWS) {
+			throw new IllegalArgumentException("Table has " + rows + " rows; FD discovery supports up to " + MAX_ROWS + ".");
+		}
+		checkColumns(table, attributeNames);
+		long startNs = System.nanoTime();
+		Search search = search(table, attributeNames, maxLhsSize, startNs + budgetMillis * 1_000_000L, 0);
+		List<FD> fds = search.fds().stream().map(Found::fd).toList();
+		long elapsedMs = (System.nanoTime() - startNs) / 1_000_000;
+		System.out.println("[FdDiscoveryService] " + fds.size() + " FDs on " + rows + "x" + cols + " in " + elapsedMs + " ms");
+		return new Result(fds, search.complete(), rows, cols, elapsedMs);
+	}
+
+	/**
+	 * Discover FDs and keys on a row sample and verify them on the full table.
+	 * For exact FDs, the row pairs that refute candidate FDs or keys are added to the sample and the search is
+	 * repeated (up to MAX_SAMPLE_ROUNDS), so candidates that only hold by chance on the sample disappear.
+	 *
+	 * @param sampleSize Number of sampled rows; the whole table is used if it is not larger
+	 * @param maxError Largest g3 error accepted (0 for exact FDs), on the sample and on the full table
+	 * @param seed Seed of the row sampling
+	 */
+	public SampledResult discoverSampled(ColumnarTable table, List<String> attributeNames, SampleMode mode, int sampleSize,
+										 double maxError, int maxLhsSize, long budgetMillis, long seed) {
+		checkColumns(table, attributeNames);
+		int rows = table.getRowCount();
+		int cols = table.getColumnCount();
+		long startNs = System.nanoTime();
+		long deadline = startNs + budgetMillis * 1_000_000L;
+		BitSet sampleRows = new BitSet(rows);
+		if (sampleSize >= rows) {
+			sampleRows.set(0, rows);
+		} else {
+			for (int r : mode == SampleMode.STRATIFIED ? stratifiedSample(table, sampleSize, seed) : randomSample(rows, sampleSize, seed)) {
+				sampleRows.set(r);
+			}
+		}
+
+		List<ApproximateFd> fds = new ArrayList<>();
+		List<Set<String>> keys = new ArrayList<>();
+		boolean complete = false;
+		Search search = null;
+		int candidates = 0;
+		for (int round = 1; round <= MAX_SAMPLE_ROUNDS; round++) {
+			ColumnarTable sample = table.selectRows(sampleRows.stream().toArray());
+			long maxRemoved = (long) Math.floor(maxError * sample.getRowCount());
+			search = search(sample, attributeNames, maxLhsSize, deadline, maxRemoved);
+			List<Found> found = search.fds();
+			candidates = found.size();
+
+			// Streaming verification of the survivors on the full table
+			fds.clear();
+			boolean refuted = false;
+			if (maxError > 0) {
+				double[] errors = fdValidationService.errors(table, attributeNames, found.stream().map(Found::fd).toList());
+				for (int i = 0; i < found.size(); i++) {
+					if (errors[i] <= maxError) {
+						fds.add(new ApproximateFd(found.get(i).fd(), found.get(i).error(), errors[i]));
+					} else {
+						refuted = true;
+					}
+				}
+			} else {
+				int[][] pairs = verifyExact(table, attributeNames, found);
+				for (int i = 0; i < found.size(); i++) {
+					if (pairs[i] == null) {
+						fds.add(new ApproximateFd(found.get(i).fd(), 0, 0));
+					} else {
+						refuted = true;
+						for (int r : pairs[i]) {
+							if (r >= 0) {
+								sampleRows.set(r);
+							}
+						}
+					}
+				}
+			}
+
+			keys.clear();
+			for (Set<String> key : search.keys()) {
+				int[] pair = fdValidationService.duplicatePair(table, attributeNames, key);
+				if (pair == null) {
+					keys.add(key);
+				} else {
+					refuted = true;
+					for (int r : pair) {
+						if (r >= 0) {
+							sampleRows.set(r);
+						}
+					}
+				}
+			}
+			complete = search.complete() && !refuted;
+			if (!refuted || maxError > 0 || System.nanoTime() > deadline) {
+				break;
+			}
+		}
+		long elapsedMs = (System.nanoTime() - startNs) / 1_000_000;
+		System.out.println("[FdDiscoveryService] Sampled " + sampleRows.cardinality() + " of " + rows + " rows: " + fds.size()
+				+ " of " + candidates + " FDs verified in " + elapsedMs + " ms");
+		return new SampledResult(fds, keys, complete, rows, sampleRows.cardinality(), cols, elapsedMs);
+	}
+
+	// Violating row pair per candidate (null if it holds); LHS groups are checked in parallel
+	private int[][] verifyExact(ColumnarTable table, List<String> attributeNames, List<Found> found) {
+		Map<Set<String>, List<Integer>> byLhs = new LinkedHashMap<>();
+		for (int i = 0; i < found.size(); i++) {
+			byLhs.computeIfAbsent(found.get(i).fd().getLhs(), lhs -> new ArrayList<>()).add(i);
+		}
+		int[][] pairs = new int[found.size()][];
+		pool.submit(() -> byLhs.values().parallelStream().forEach(indices -> {
+			List<FD> group = indices.stream().map(i -> found.get(i).fd()).toList();
+			int[][] groupPairs = fdValidationService.violatingPairs(table, attributeNames, group);
+			for (int k = 0; k < indices.size(); k++) {
+				pairs[indices.get(k)] = groupPairs[k];
+			}
+		})).join();
+		return pairs;
+	}
+
+	private void checkColumns(ColumnarTable table, List<String> attributeNames) {
+		int cols = table.getColumnCount();
+		if (cols > MAX_COLUMNS) {
+			throw new IllegalArgumentException("Table has " + cols + " columns; FD discovery supports up to " + MAX_COLUMNS + ".");
+		}
+		if (attributeNames.size() < cols) {
+			throw new IllegalArgumentException("Missing attribute names for " + cols + " columns.");
+		}
+	}
+
+	// Level-wise search; X -> A is accepted if at most maxRemoved rows violate it
+	private Search search(ColumnarTable table, List<String> attributeNames, int maxLhsSize, long deadline, long maxRemoved) {
+		int rows = table.getRowCount();
+		int cols = table.getColumnCount();
+
+		PositionListIndex[] columnPlis = new PositionListIndex[cols];
+		pool.submit(() -> IntStream.range(0, cols).parallel()
+				.forEach(c -> columnPlis[c] = PositionListIndex.forColumn(table.getColumn(c), table.getCardinality(c))))
+				.join();
+
+		BitSet all = new BitSet();
+		all.set(0, cols);
+		Map<BitSet, Node> previous = new HashMap<>();
+		previous.put(new BitSet(), new Node(new int[0], PositionListIndex.forAllRows(rows), all));
+
+		List<Node> level = new ArrayList<>();
+		for (int c = 0; c < cols; c++) {
+			level.add(new Node(new int[]{c}, columnPlis[c], null));
+		}
+
+		List<List<Found>> found = new ArrayList<>();
+		List<Set<String>> keys = new ArrayList<>();
+		boolean complete = true;
+		int size = 1;
+		while (!level.isEmpty()) {
+			if (maxLhsSize > 0 && size > maxLhsSize + 1) {
+				complete = false;
+				break;
+			}
+			if (System.nanoTime() > deadline) {
+				complete = false;
+				System.out.println("[FdDiscoveryService] Time budget reached at level " + size);
+				break;
+			}
+			List<Node> current = level;
+			Map<BitSet, Node> parents = previous;
+			List<List<Found>> perNode = pool.submit(() -> current.parallelStream()
+					.map(node -> computeDependencies(node, parents, table, attributeNames, maxRemoved))
+					.toList()).join();
+			perNode.forEach(found::add);
+
+			Map<BitSet, Node> survivors = new HashMap<>();
+			List<Node> kept = new ArrayList<>();
+			for (Node node : current) {
+				if (isMinimalKey(node, parents)) {
+					keys.add(toNames(node.bits, attributeNames));
+				}
+				if (!node.cplus.isEmpty()) {
+					survivors.put(node.bits, node);
+					kept.add(node);
+				}
+			}
+			level = nextLevel(kept, survivors, rows);
+			previous = survivors;
+			size++;
+		}
+
+		List<Found> fds = new ArrayList<>();
+		found.forEach(fds::addAll);
+		return new Search(fds, keys, complete);
+	}
+
+	// Unique on the data while no subset with one attribute less is
+	private boolean isMinimalKey(Node node, Map<BitSet, Node> parents) {
+		if (!node.pli.isUnique()) {
+			return false;
+		}
+		for (int a : node.attrs) {
+			BitSet parentBits = (BitSet) node.bits.clone();
+			parentBits.clear(a);
+			if (parents.get(parentBits).pli.isUnique()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<Found> computeDependencies(Node node, Map<BitSet, Node> parents, ColumnarTable table, List<String> names,
+											long maxRemoved) {
+		BitSet cplus = new BitSet();
+		boolean first = true;
+		for (int a : node.attrs) {
+			BitSet parentBits = (BitSet) node.bits.clone();
+			parentBits.clear(a);
+			BitSet parentCplus = parents.get(parentBits).cplus;
+			if (first) {
+				cplus.or(parentCplus);
+				first = false;
+			} else {
+				cplus.and(parentCplus);
+			}
+		}
+
+		List<Found> out = new ArrayList<>();
+		for (int a : node.attrs) {
+			if (!cplus.get(a)) {
+				continue;
+			}
+			BitSet lhsBits = (BitSet) node.bits.clone();
+			lhsBits.clear(a);
+			PositionListIndex lhsPli = parents.get(lhsBits).pli;
+			long removed = maxRemoved == 0
+					? (lhsPli.refines(table.getColumn(a)) ? 0 : 1)
+					: removedRows(lhsPli, table.getColumn(a), table.getCardinality(a));
+			if (removed <= maxRemoved) {
+				out.add(new Found(new FD(toNames(lhsBits, names), Set.of(names.get(a))),
+						table.getRowCount() == 0 ? 0 : removed / (double) table.getRowCount()));
+				cplus.clear(a);
+				if (removed == 0) {
+					// Only exact FDs allow pruning the attributes outside X
+					cplus.and(node.bits);
+				}
+			}
+		}
+		node.cplus = cplus;
+		return out;
+	}
+
+	// Rows to remove so that every cluster of the partition has one value of the column (g3 numerator)
+	private static long removedRows(PositionListIndex pli, int[] codes, int cardinality) {
+		int[] counts = new int[cardinality];
+		long removed = 0;
+		for (int[] cluster : pli.getClusters()) {
+			int max = 0;
+			for (int r : cluster) {
+				max = Math.max(max, ++counts[codes[r]]);
+			}
+			for (int r : cluster) {
+				counts[codes[r]] = 0;
+			}
+			removed += cluster.length - max;
+		}
+		return removed;
+	}
+
+	private static Set<String> toNames(BitSet bits, List<String> names) {
+		Set<String> out = new LinkedHashSet<>();
+		for (int b = bits.nextSetBit(0); b >= 0; b = bits.nextSetBit(b + 1)) {
+			out.add(names.get(b));
+		}
+		return out;
+	}
+
+	// Uniform sample without replacement, in table order
+	private static int[] randomSample(int rows, int sampleSize, long seed) {
+		Random random = new Random(seed);
+		int[] order = IntStream.range(0, rows).toArray();
+		for (int i = 0; i < sampleSize; i++) {
+			int j = i + random.nextInt(rows - i);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		int[] sample = Arrays.copyOf(order, sampleSize);
+		Arrays.sort(sample);
+		return sample;
+	}
+
+	/*
+	 * Sample stratified by the partitions of the single columns: every column gets an equal share of the
+	 * sample, filled with row pairs from its clusters in random order, so rows that agree somewhere
+	 * (the ones that can violate FDs) are well represented. The rest is filled uniformly.
+	 */
+	private int[] stratifiedSample(ColumnarTable table, int sampleSize, long seed) {
+		Random random = new Random(seed);
+		int rows = table.getRowCount();
+		int cols = table.getColumnCount();
+		BitSet chosen = new BitSet(rows);
+		int perColumn = cols == 0 ? 0 : sampleSize / cols;
+		for (int c = 0; c < cols && chosen.cardinality() < sampleSize; c++) {
+			int[][] clusters = PositionListIndex.forColumn(table.getColumn(c), table.getCardinality(c)).getClusters();
+			List<int[]> shuffled = new ArrayList<>(Arrays.asList(clusters));
+			Collections.shuffle(shuffled, random);
+			int added = 0;
+			for (int[] cluster : shuffled) {
+				if (added + 2 > perColumn || chosen.cardinality() + 2 > sampleSize) {
+					break;
+				}
+				int first = random.nextInt(cluster.length);
+				int second = (first + 1 + random.nextInt(cluster.length - 1)) % cluster.length;
+				for (int r : new int[]{cluster[first], cluster[second]}) {
+					if (!chosen.get(r)) {
+						chosen.set(r);
+						added++;
+					}
+				}
+			}
+		}
+		int missing = sampleSize - chosen.cardinality();
+		if (missing > 0) {
+			int[] rest = IntStream.range(0, rows).filter(r -> !chosen.get(r)).toArray();
+			for (int i = 0; i < missing; i++) {
+				int j = i + random.nextInt(rest.length - i);
+				int tmp = rest[i];
+				rest[i] = rest[j];
+				rest[j] = tmp;
+				chosen.set(rest[i]);
+			}
+		}
+		return chosen.stream().toArray();
+	}
+
+	// Join nodes sharing all but the last attribute; keep unions whose subsets all survived
+	private List<Node> nextLevel(List<Node> kept, Map<BitSet, Node> survivors, int rows) {
+		List<int[][]> pairs = new ArrayList<>();
+		for (int p = 0; p < kept.size(); p++) {
+			int[] first = kept.get(p).attrs;
+			int k = first.length;
+			for (int q = p + 1; q < kept.size(); q++) {
+				int[] second = kept.get(q).attrs;
+				if (!Arrays.equals(first, 0, k - 1, second, 0, k - 1)) {
+					break; // kept is in lexicographic order, so no later node shares the prefix
+				}
+				int[] union = Arrays.copyOf(first, k + 1);
+				union[k] = second[k - 1];
+				if (allSubsetsSurvived(union, survivors)) {
+					pairs.add(new int[][]{union, {p, q}});
+				}
+			}
+		}
+		return pool.submit(() -> pairs.parallelStream()
+				.map(pair -> {
+					PositionListIndex left = kept.get(pair[1][0]).pli;
+					PositionListIndex right = kept.get(pair[1][1]).pli;
+					return new Node(pair[0], left.intersect(right, rows), null);
+				})
+				.toList()).join();
+	}
+
+	private boolean allSubsetsSurvived(int[] attrs, Map<BitSet, Node> survivors) {
+		BitSet bits = new BitSet();
+		for (int a : attrs) {
+			bits.set(a);
+		}
+		for (int a : attrs) {
+			bits.clear(a);
+			boolean survived = survivors.containsKey(bits);
+			bits.set(a);
+			if (!survived) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Node {
+		private final int[] attrs;
+		private final BitSet bits = new BitSet();
+		private final PositionListIndex pli;
+		private BitSet cplus;
+
+		Node(int[] attrs, PositionListIndex pli, BitSet cplus) {
+			this.attrs = attrs;
+			this.pli = pli;
+			this.cplus = cplus;
+			for (int a : attrs) {
+				bits.set(a);
+			}
+		}
+	}
+}
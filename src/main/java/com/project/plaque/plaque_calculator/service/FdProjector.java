@@ -0,0 +1,145 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Projects an FD set onto a subset of attributes, producing only FDs X->A with a minimal LHS.
+ * Algorithm (level-wise over LHS size):
+ * 0. Attributes of S implied by the empty set (constants) are emitted as ∅->A
+ * 1. Start with all single attributes
+ * 2. For every candidate X compute X+; A in (X+ ∩ S) - X is emitted if no X - {b} already implies A
+ * 3. Only candidates that are no superkey of S and "free" (no b in X is implied by X - {b})
+ *    are extended; every minimal LHS is free, and supersets of superkeys cannot be minimal
+ * 4. The next level is built from pairs sharing all but the last attribute whose subsets all survived
+ * Closures of the previous level are kept, so minimality checks need no extra closure computation.
+ */
+public class FdProjector {
+
+	private final List<FD> fds;
+
+	public FdProjector(List<FD> fds) {
+		this.fds = fds == null ? List.of() : fds;
+	}
+
+	/**
+	 * Project the FDs onto the given attributes.
+	 *
+	 * @param attrs Attributes of the projected relation (iteration order is kept in the output)
+	 * @return FDs with minimal LHS and a single RHS attribute, all inside attrs
+	 */
+	public List<FD> project(Set<String> attrs) {
+		List<FD> out = new ArrayList<>();
+		if (attrs == null || attrs.isEmpty()) {
+			return out;
+		}
+		ClosureEngine engine = new ClosureEngine(attrs, fds);
+		List<String> attrList = new ArrayList<>(attrs);
+		int n = attrList.size();
+		int[] bitOf = new int[n];
+		for (int i = 0; i < n; i++) {
+			bitOf[i] = engine.indexOf(attrList.get(i));
+		}
+		BitSet relation = engine.toBits(attrs);
+
+		BitSet emptyClosure = engine.closure(new BitSet());
+		emptyClosure.and(relation);
+		// The empty LHS is the minimal one for constant attributes; no larger candidate emits them
+		for (int i = 0; i < n; i++) {
+			if (emptyClosure.get(bitOf[i])) {
+				out.add(new FD(Set.of(), Set.of(attrList.get(i))));
+			}
+		}
+
+		// Surviving candidates of the previous level and their closures (restricted to S)
+		Map<BitSet, BitSet> previous = new HashMap<>();
+		previous.put(new BitSet(), emptyClosure);
+		List<int[]> candidates = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			candidates.add(new int[]{i});
+		}
+
+		while (!candidates.isEmpty()) {
+			Map<BitSet, BitSet> current = new HashMap<>();
+			List<int[]> kept = new ArrayList<>();
+			for (int[] combination : candidates) {
+				BitSet x = new BitSet();
+				for (int i : combination) {
+					x.set(bitOf[i]);
+				}
+
+				// Union of the closures of all X - {b}; also detects non-free candidates
+				BitSet impliedBySubsets = new BitSet();
+				boolean free = true;
+				for (int i : combination) {
+					BitSet subset = (BitSet) x.clone();
+					subset.clear(bitOf[i]);
+					BitSet subsetClosure = previous.get(subset);
+					if (subsetClosure.get(bitOf[i])) {
+						free = false;
+						break;
+					}
+					impliedBySubsets.or(subsetClosure);
+				}
+				if (!free) {
+					continue;
+				}
+
+				BitSet closure = engine.closure(x);
+				closure.and(relation);
+				for (int i = 0; i < n; i++) {
+					int a = bitOf[i];
+					if (closure.get(a) && !x.get(a) && !impliedBySubsets.get(a)) {
+						out.add(new FD(engine.toNames(x), Set.of(attrList.get(i))));
+					}
+				}
+
+				if (!closure.equals(relation)) {
+					current.put(x, closure);
+					kept.add(combination);
+				}
+			}
+			candidates = nextLevel(kept, current, bitOf);
+			previous = current;
+		}
+		return out;
+	}
+
+	// Join candidates sharing all but the last position; keep unions whose subsets all survived
+	private List<int[]> nextLevel(List<int[]> kept, Map<BitSet, BitSet> survivors, int[] bitOf) {
+		List<int[]> next = new ArrayList<>();
+		for (int p = 0; p < kept.size(); p++) {
+			int[] first = kept.get(p);
+			int k = first.length;
+			for (int q = p + 1; q < kept.size(); q++) {
+				int[] second = kept.get(q);
+				if (!Arrays.equals(first, 0, k - 1, second, 0, k - 1)) {
+					break; // kept is in lexicographic order, so no later entry shares the prefix
+				}
+				int[] union = Arrays.copyOf(first, k + 1);
+				union[k] = second[k - 1];
+				if (allSubsetsSurvived(union, survivors, bitOf)) {
+					next.add(union);
+				}
+			}
+		}
+		return next;
+	}
+
+	private boolean allSubsetsSurvived(int[] combination, Map<BitSet, BitSet> survivors, int[] bitOf) {
+		BitSet bits = new BitSet();
+		for (int i : combination) {
+			bits.set(bitOf[i]);
+		}
+		for (int i : combination) {
+			bits.clear(bitOf[i]);
+			boolean survived = survivors.containsKey(bits);
+			bits.set(bitOf[i]);
+			if (!survived) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,359 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Service for checking whether FDs hold on table data
+ * Steps:
+ * 1. FDs are grouped by LHS, so every distinct LHS is processed once
+ * 2. One pass over the rows assigns every row a group id for its LHS values, using an
+ *    open-addressing hash table over the dictionary codes (no per-row objects)
+ * 3. For every RHS attribute of the LHS, the first code seen per group is kept; a different code
+ *    in the same group marks the group as violating that attribute
+ * X -> Y holds iff no group violates an attribute of Y. For violated FDs a few example groups
+ * (LHS values and row numbers) are collected.
+ */
+@Service
+public class FdValidationService {
+
+	private static final int MAX_EXAMPLE_GROUPS = 5;
+	private static final int MAX_EXAMPLE_ROWS = 20;
+
+	// rows are 0-based row numbers of the table
+	public record ViolationGroup(List<String> lhsValues, List<Integer> rows) {}
+
+	public record FdValidation(FD fd, boolean holds, int violatingGroups, List<ViolationGroup> examples) {}
+
+	/**
+	 * Validate FDs against the table.
+	 *
+	 * @param table Dictionary-encoded table data
+	 * @param attributeNames Name of every column, as used in the FDs
+	 * @param fds FDs to check; FDs using unknown attributes are reported as not holding
+	 * @param listener Receives every result as soon as its LHS group is done (may be null)
+	 * @return Results in the order of fds
+	 */
+	public List<FdValidation> validate(ColumnarTable table, List<String> attributeNames, List<FD> fds,
+									   Consumer<FdValidation> listener) {
+		Map<String, Integer> column = columnIndex(table, attributeNames);
+
+		Map<FD, FdValidation> results = new HashMap<>();
+		Map<Set<String>, List<FD>> byLhs = new LinkedHashMap<>();
+		for (FD fd : fds) {
+			if (!column.keySet().containsAll(fd.getLhs()) || !column.keySet().containsAll(fd.getRhs())) {
+				report(results, new FdValidation(fd, false, 0, List.of()), listener);
+				continue;
+			}
+			byLhs.computeIfAbsent(fd.getLhs(), lhs -> new ArrayList<>()).add(fd);
+		}
+
+		for (Map.Entry<Set<String>, List<FD>> entry : byLhs.entrySet()) {
+			int[] lhsCols = entry.getKey().stream().mapToInt(column::get).toArray();
+			int[] rowGroup = new int[table.getRowCount()];
+			int groupCount = assignGroups(table, lhsCols, rowGroup);
+
+			// Violating groups per RHS column, shared by all FDs with this LHS
+			Map<Integer, BitSet> violatedByColumn = new HashMap<>();
+			for (FD fd : entry.getValue()) {
+				for (String attr : fd.getRhs()) {
+					violatedByColumn.computeIfAbsent(column.get(attr),
+							c -> violatingGroups(table.getColumn(c), rowGroup, groupCount));
+				}
+			}
+
+			for (FD fd : entry.getValue()) {
+				BitSet violated = new BitSet();
+				for (String attr : fd.getRhs()) {
+					violated.or(violatedByColumn.get(column.get(attr)));
+				}
+				List<ViolationGroup> examples = violated.isEmpty()
+						? List.of()
+						: examples(table, lhsCols, rowGroup, violated);
+				report(results, new FdValidation(fd, violated.isEmpty(), violated.cardinality(), examples), listener);
+			}
+		}
+
+		List<FdValidation> ordered = new ArrayList<>();
+		for (FD fd : fds) {
+			ordered.add(results.get(fd));
+		}
+		return ordered;
+	}
+
+	/**
+	 * g3 error of every FD: the smallest share of rows that has to be removed so the FD holds
+	 * (0 if it holds). Computed in one pass per distinct LHS.
+	 *
+	 * @return Errors in the order of fds; FDs using unknown attributes get 1
+	 */
+	public double[] errors(ColumnarTable table, List<String> attributeNames, List<FD> fds) {
+		Map<String, Integer> column = columnIndex(table, attributeNames);
+		int rows = table.getRowCount();
+		double[] out = new double[fds.size()];
+		Map<Set<String>, List<Integer>> byLhs = new LinkedHashMap<>();
+		for (int i = 0; i < fds.size(); i++) {
+			FD fd = fds.get(i);
+			if (!column.keySet().containsAll(fd.getLhs()) || !column.keySet().containsAll(fd.getRhs())) {
+				out[i] = 1.0;
+				continue;
+			}
+			byLhs.computeIfAbsent(fd.getLhs(), lhs -> new ArrayList<>()).add(i);
+		}
+		if (rows == 0) {
+			return out;
+		}
+
+		int[] rowGroup = new int[rows];
+		int[] rowSubGroup = new int[rows];
+		for (Map.Entry<Set<String>, List<Integer>> entry : byLhs.entrySet()) {
+			int[] lhsCols = entry.getKey().stream().mapToInt(column::get).toArray();
+			int groupCount = assignGroups(table, lhsCols, rowGroup);
+			for (int i : entry.getValue()) {
+				// Rows agreeing on LHS and RHS; per LHS group only the most frequent RHS value is kept
+				int[] cols = union(lhsCols, fds.get(i).getRhs().stream().mapToInt(column::get).toArray());
+				int subGroupCount = assignGroups(table, cols, rowSubGroup);
+				int[] subSize = new int[subGroupCount];
+				int[] subToGroup = new int[subGroupCount];
+				for (int r = 0; r < rows; r++) {
+					subSize[rowSubGroup[r]]++;
+					subToGroup[rowSubGroup[r]] = rowGroup[r];
+				}
+				int[] keep = new int[groupCount];
+				for (int sg = 0; sg < subGroupCount; sg++) {
+					keep[subToGroup[sg]] = Math.max(keep[subToGroup[sg]], subSize[sg]);
+				}
+				long kept = 0;
+				for (int k : keep) {
+					kept += k;
+				}
+				out[i] = (rows - kept) / (double) rows;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * One pair of rows violating each FD, or null where the FD holds. The pass over the rows of an LHS
+	 * stops as soon as every RHS attribute of that LHS has a violation, so failing FDs are cheap.
+	 *
+	 * @return Row pairs in the order of fds; FDs using unknown attributes get {-1, -1}
+	 */
+	public int[][] violatingPairs(ColumnarTable table, List<String> attributeNames, List<FD> fds) {
+		Map<String, Integer> column = columnIndex(table, attributeNames);
+		int[][] out = new int[fds.size()][];
+		Map<Set<String>, List<Integer>> byLhs = new LinkedHashMap<>();
+		for (int i = 0; i < fds.size(); i++) {
+			FD fd = fds.get(i);
+			if (!column.keySet().containsAll(fd.getLhs()) || !column.keySet().containsAll(fd.getRhs())) {
+				out[i] = new int[]{-1, -1};
+				continue;
+			}
+			byLhs.computeIfAbsent(fd.getLhs(), lhs -> new ArrayList<>()).add(i);
+		}
+
+		int rows = table.getRowCount();
+		for (Map.Entry<Set<String>, List<Integer>> entry : byLhs.entrySet()) {
+			int[][] lhsCodes = entry.getKey().stream().map(column::get).map(table::getColumn).toArray(int[][]::new);
+			int[] rhsCols = entry.getValue().stream()
+					.flatMap(i -> fds.get(i).getRhs().stream())
+					.mapToInt(column::get)
+					.distinct()
+					.toArray();
+			int[][] pairByRhs = new int[rhsCols.length][];
+			int pending = rhsCols.length;
+
+			int capacity = Integer.highestOneBit(Math.max(1, rows * 2 - 1)) << 1;
+			int mask = capacity - 1;
+			int[] slotRow = new int[capacity];
+			Arrays.fill(slotRow, -1);
+			for (int r = 0; r < rows && pending > 0; r++) {
+				int slot = (int) (mix(hash(lhsCodes, r)) & mask);
+				int representative;
+				while ((representative = slotRow[slot]) >= 0 && !sameValues(lhsCodes, representative, r)) {
+					slot = (slot + 1) & mask;
+				}
+				if (representative < 0) {
+					slotRow[slot] = r;
+					continue;
+				}
+				for (int k = 0; k < rhsCols.length; k++) {
+					int[] codes = table.getColumn(rhsCols[k]);
+					if (pairByRhs[k] == null && codes[representative] != codes[r]) {
+						pairByRhs[k] = new int[]{representative, r};
+						pending--;
+					}
+				}
+			}
+
+			for (int i : entry.getValue()) {
+				for (String attr : fds.get(i).getRhs()) {
+					int k = indexOf(rhsCols, column.get(attr));
+					if (pairByRhs[k] != null) {
+						out[i] = pairByRhs[k];
+						break;
+					}
+				}
+			}
+		}
+		return out;
+	}
+
+	// Two rows agreeing on all given attributes, or null if the attributes are unique on the data
+	public int[] duplicatePair(ColumnarTable table, List<String> attributeNames, Set<String> attributes) {
+		Map<String, Integer> column = columnIndex(table, attributeNames);
+		if (!column.keySet().containsAll(attributes)) {
+			return new int[]{-1, -1};
+		}
+		int[][] codes = attributes.stream().map(column::get).map(table::getColumn).toArray(int[][]::new);
+		int rows = table.getRowCount();
+		int capacity = Integer.highestOneBit(Math.max(1, rows * 2 - 1)) << 1;
+		int mask = capacity - 1;
+		int[] slotRow = new int[capacity];
+		Arrays.fill(slotRow, -1);
+		for (int r = 0; r < rows; r++) {
+			int slot = (int) (mix(hash(codes, r)) & mask);
+			int representative;
+			while ((representative = slotRow[slot]) >= 0) {
+				if (sameValues(codes, representative, r)) {
+					return new int[]{representative, r};
+				}
+				slot = (slot + 1) & mask;
+			}
+			slotRow[slot] = r;
+		}
+		return null;
+	}
+
+	private static Map<String, Integer> columnIndex(ColumnarTable table, List<String> attributeNames) {
+		Map<String, Integer> column = new HashMap<>();
+		for (int c = 0; c < attributeNames.size() && c < table.getColumnCount(); c++) {
+			column.put(attributeNames.get(c), c);
+		}
+		return column;
+	}
+
+	private static void report(Map<FD, FdValidation> results, FdValidation validation, Consumer<FdValidation> listener) {
+		if (results.putIfAbsent(validation.fd(), validation) == null && listener != null) {
+			listener.accept(validation);
+		}
+	}
+
+	// Group id per row for the values on lhsCols; returns the number of groups
+	private static int assignGroups(ColumnarTable table, int[] lhsCols, int[] rowGroup) {
+		int rows = table.getRowCount();
+		int[][] codes = new int[lhsCols.length][];
+		for (int i = 0; i < lhsCols.length; i++) {
+			codes[i] = table.getColumn(lhsCols[i]);
+		}
+		int capacity = Integer.highestOneBit(Math.max(1, rows * 2 - 1)) << 1;
+		int mask = capacity - 1;
+		int[] slotRow = new int[capacity];
+		Arrays.fill(slotRow, -1);
+		int groups = 0;
+		for (int r = 0; r < rows; r++) {
+			int slot = (int) (mix(hash(codes, r)) & mask);
+			while (true) {
+				int representative = slotRow[slot];
+				if (representative < 0) {
+					slotRow[slot] = r;
+					rowGroup[r] = groups++;
+					break;
+				}
+				if (sameValues(codes, representative, r)) {
+					rowGroup[r] = rowGroup[representative];
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		return groups;
+	}
+
+	private static BitSet violatingGroups(int[] rhsCodes, int[] rowGroup, int groupCount) {
+		int[] firstCode = new int[groupCount];
+		Arrays.fill(firstCode, -1);
+		BitSet violated = new BitSet();
+		for (int r = 0; r < rowGroup.length; r++) {
+			int g = rowGroup[r];
+			if (firstCode[g] < 0) {
+				firstCode[g] = rhsCodes[r];
+			} else if (firstCode[g] != rhsCodes[r]) {
+				violated.set(g);
+			}
+		}
+		return violated;
+	}
+
+	private static List<ViolationGroup> examples(ColumnarTable table, int[] lhsCols, int[] rowGroup, BitSet violated) {
+		Map<Integer, List<Integer>> rowsByGroup = new LinkedHashMap<>();
+		for (int r = 0; r < rowGroup.length; r++) {
+			int g = rowGroup[r];
+			if (!violated.get(g)) {
+				continue;
+			}
+			List<Integer> rows = rowsByGroup.get(g);
+			if (rows == null) {
+				if (rowsByGroup.size() >= MAX_EXAMPLE_GROUPS) {
+					continue;
+				}
+				rows = new ArrayList<>();
+				rowsByGroup.put(g, rows);
+			}
+			if (rows.size() < MAX_EXAMPLE_ROWS) {
+				rows.add(r);
+			}
+		}
+		List<ViolationGroup> out = new ArrayList<>();
+		for (List<Integer> rows : rowsByGroup.values()) {
+			List<String> lhsValues = new ArrayList<>();
+			for (int c : lhsCols) {
+				lhsValues.add(table.getValue(rows.get(0), c));
+			}
+			out.add(new ViolationGroup(lhsValues, List.copyOf(rows)));
+		}
+		return out;
+	}
+
+	private static int[] union(int[] first, int[] second) {
+		return IntStream.concat(Arrays.stream(first), Arrays.stream(second)).distinct().toArray();
+	}
+
+	private static boolean sameValues(int[][] codes, int a, int b) {
+		for (int[] col : codes) {
+			if (col[a] != col[b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long hash(int[][] codes, int row) {
+		long hash = 1;
+		for (int[] col : codes) {
+			hash = hash * 31 + col[row];
+		}
+		return hash;
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static long mix(long h) {
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return h;
+	}
+}
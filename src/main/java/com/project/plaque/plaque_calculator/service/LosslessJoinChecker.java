@@ -0,0 +1,81 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Lossless-join test that picks the cheapest exact method for the number of schemas.
+ * - INTERSECTION: one or two schemas. Every attribute of R must be covered, and for two schemas
+ *   the join is lossless iff (R1 ∩ R2)+ contains R1 or R2, which is a single closure computation.
+ * - CHASE: three or more schemas, decided by ChaseEngine.
+ * Both methods only use FDs whose LHS lies inside R, with the RHS cut to R, like the chase does.
+ */
+public class LosslessJoinChecker {
+
+	public enum Strategy { INTERSECTION, CHASE }
+
+	private final List<String> attributes;
+	private final List<Set<String>> schemas;
+	private final List<FD> fds;
+	private final Strategy strategy;
+
+	public LosslessJoinChecker(Collection<String> attributes, List<Set<String>> schemas, List<FD> fds) {
+		this.attributes = new ArrayList<>(new LinkedHashSet<>(attributes));
+		this.schemas = schemas;
+		this.fds = fds == null ? List.of() : fds;
+		this.strategy = schemas.size() <= 2 ? Strategy.INTERSECTION : Strategy.CHASE;
+	}
+
+	public Strategy strategy() {
+		return strategy;
+	}
+
+	public boolean isLossless() {
+		if (attributes.isEmpty() || schemas.isEmpty()) {
+			return false;
+		}
+		return strategy == Strategy.INTERSECTION ? intersectionTest() : new ChaseEngine(attributes, schemas, fds).isLossless();
+	}
+
+	private boolean intersectionTest() {
+		Set<String> covered = new HashSet<>();
+		schemas.forEach(covered::addAll);
+		if (!covered.containsAll(attributes)) {
+			return false; // a column without distinguished symbols can never be joined back
+		}
+		if (schemas.size() == 1) {
+			return true;
+		}
+
+		ClosureEngine engine = new ClosureEngine(attributes, fdsInsideRelation());
+		BitSet first = engine.toBits(schemas.get(0));
+		BitSet second = engine.toBits(schemas.get(1));
+		BitSet common = (BitSet) first.clone();
+		common.and(second);
+		BitSet closure = engine.closure(common);
+		return containsAll(closure, first) || containsAll(closure, second);
+	}
+
+	private List<FD> fdsInsideRelation() {
+		Set<String> relation = new HashSet<>(attributes);
+		List<FD> out = new ArrayList<>();
+		for (FD fd : fds) {
+			if (!relation.containsAll(fd.getLhs())) {
+				continue;
+			}
+			Set<String> rhs = new LinkedHashSet<>(fd.getRhs());
+			rhs.retainAll(relation);
+			if (!rhs.isEmpty()) {
+				out.add(new FD(fd.getLhs(), rhs));
+			}
+		}
+		return out;
+	}
+
+	private static boolean containsAll(BitSet superset, BitSet subset) {
+		BitSet rest = (BitSet) subset.clone();
+		rest.andNot(superset);
+		return rest.isEmpty();
+	}
+}
@@ -0,0 +1,95 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Service for computing a minimal (canonical) cover of an FD set
+ * Steps:
+ * 1. Split every FD into FDs with a single RHS attribute and drop trivial ones
+ * 2. Remove extraneous LHS attributes
+ * 3. Remove FDs that are implied by the remaining ones
+ * The result is equivalent to the input, so it can replace the input FDs in every closure based check.
+ */
+@Service
+public class MinimalCoverService {
+
+	/**
+	 * Compute a minimal cover of the given FDs.
+	 * The input order is kept, so the same input always gives the same cover.
+	 *
+	 * @param fds List of functional dependencies
+	 * @return Minimal cover with single attribute RHS
+	 */
+	public List<FD> minimalCover(List<FD> fds) {
+		if (fds == null || fds.isEmpty()) {
+			return new ArrayList<>();
+		}
+		ClosureEngine engine = new ClosureEngine(fds);
+
+		// 1. RHS splitting (trivial parts dropped, duplicates removed)
+		List<BitSet> lhsList = new ArrayList<>();
+		List<Integer> rhsList = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (FD fd : fds) {
+			BitSet lhs = engine.toBits(fd.getLhs());
+			BitSet rhs = engine.toBits(fd.getRhs());
+			rhs.andNot(lhs);
+			for (int a = rhs.nextSetBit(0); a >= 0; a = rhs.nextSetBit(a + 1)) {
+				if (seen.add(lhs + "->" + a)) {
+					lhsList.add(lhs);
+					rhsList.add(a);
+				}
+			}
+		}
+
+		// 2. LHS reduction, closures under the original set stay valid since the set only changes to an equivalent one
+		List<BitSet> reducedLhs = new ArrayList<>(lhsList.size());
+		List<Integer> reducedRhs = new ArrayList<>(rhsList.size());
+		seen.clear();
+		for (int i = 0; i < lhsList.size(); i++) {
+			BitSet lhs = (BitSet) lhsList.get(i).clone();
+			int target = rhsList.get(i);
+			for (int b = lhs.nextSetBit(0); b >= 0 && lhs.cardinality() > 1; b = lhs.nextSetBit(b + 1)) {
+				lhs.clear(b);
+				if (!engine.closure(lhs).get(target)) {
+					lhs.set(b);
+				}
+			}
+			if (seen.add(lhs + "->" + target)) {
+				reducedLhs.add(lhs);
+				reducedRhs.add(target);
+			}
+		}
+
+		// 3. Redundant FD removal
+		List<FD> reduced = new ArrayList<>(reducedLhs.size());
+		for (int i = 0; i < reducedLhs.size(); i++) {
+			reduced.add(toFd(engine, reducedLhs.get(i), reducedRhs.get(i)));
+		}
+		ClosureEngine reducedEngine = new ClosureEngine(engine.attributes(), reduced);
+		BitSet removed = new BitSet(reduced.size());
+		for (int i = 0; i < reduced.size(); i++) {
+			removed.set(i);
+			BitSet lhs = reducedEngine.toBits(reduced.get(i).getLhs());
+			int target = reducedEngine.indexOf(engine.nameOf(reducedRhs.get(i)));
+			if (!reducedEngine.closure(lhs, removed).get(target)) {
+				removed.clear(i);
+			}
+		}
+
+		List<FD> cover = new ArrayList<>(reduced.size() - removed.cardinality());
+		for (int i = 0; i < reduced.size(); i++) {
+			if (!removed.get(i)) {
+				cover.add(reduced.get(i));
+			}
+		}
+		return cover;
+	}
+
+	private FD toFd(ClosureEngine engine, BitSet lhs, int rhs) {
+		return new FD(engine.toNames(lhs), Set.of(engine.nameOf(rhs)));
+	}
+}
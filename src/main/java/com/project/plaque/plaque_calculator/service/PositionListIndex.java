@@ -0,0 +1,147 @@
+package com.project.plaque.plaque_calculator.service;
+
+import java.util.*;
+
+/**
+ * Stripped partition (position list index) of the rows of a table.
+ * Rows with equal values on an attribute set form a cluster; clusters of size one are dropped.
+ * - error() = rows in clusters - number of clusters; X -> A holds iff error(X) == error(X ∪ {A})
+ * - A partition without clusters belongs to a unique column combination (superkey of the data)
+ * - intersect() builds the partition of X ∪ Y from those of X and Y in time linear in the rows
+ */
+public final class PositionListIndex {
+
+	private final int[][] clusters;
+	private final int size;
+
+	private PositionListIndex(int[][] clusters) {
+		this.clusters = clusters;
+		int rows = 0;
+		for (int[] cluster : clusters) {
+			rows += cluster.length;
+		}
+		this.size = rows;
+	}
+
+	// Partition of the empty attribute set: all rows are equal
+	public static PositionListIndex forAllRows(int rowCount) {
+		if (rowCount < 2) {
+			return new PositionListIndex(new int[0][]);
+		}
+		int[] all = new int[rowCount];
+		for (int r = 0; r < rowCount; r++) {
+			all[r] = r;
+		}
+		return new PositionListIndex(new int[][]{all});
+	}
+
+	// Partition of one dictionary-encoded column
+	public static PositionListIndex forColumn(int[] codes, int cardinality) {
+		int[] counts = new int[cardinality];
+		for (int code : codes) {
+			counts[code]++;
+		}
+		int[][] byCode = new int[cardinality][];
+		int clusterCount = 0;
+		for (int code = 0; code < cardinality; code++) {
+			if (counts[code] >= 2) {
+				byCode[code] = new int[counts[code]];
+				clusterCount++;
+			}
+		}
+		int[] fill = new int[cardinality];
+		for (int r = 0; r < codes.length; r++) {
+			int code = codes[r];
+			if (byCode[code] != null) {
+				byCode[code][fill[code]++] = r;
+			}
+		}
+		int[][] clusters = new int[clusterCount][];
+		int i = 0;
+		for (int[] cluster : byCode) {
+			if (cluster != null) {
+				clusters[i++] = cluster;
+			}
+		}
+		return new PositionListIndex(clusters);
+	}
+
+	public int[][] getClusters() { return clusters; }
+
+	public int getClusterCount() { return clusters.length; }
+
+	// Number of rows that share their values with another row
+	public int getSize() { return size; }
+
+	public int error() { return size - clusters.length; }
+
+	public boolean isUnique() { return clusters.length == 0; }
+
+	/**
+	 * Partition of the union of both attribute sets.
+	 *
+	 * @param rowCount Number of rows of the table
+	 */
+	public PositionListIndex intersect(PositionListIndex other, int rowCount) {
+		if (isUnique() || other.isUnique()) {
+			return new PositionListIndex(new int[0][]);
+		}
+		int[] probe = new int[rowCount];
+		Arrays.fill(probe, -1);
+		for (int i = 0; i < clusters.length; i++) {
+			for (int r : clusters[i]) {
+				probe[r] = i;
+			}
+		}
+
+		// Rows of one cluster of other, chained per cluster of this
+		int[] head = new int[clusters.length];
+		int[] count = new int[clusters.length];
+		Arrays.fill(head, -1);
+		int[] next = new int[rowCount];
+		int[] touched = new int[clusters.length];
+		List<int[]> out = new ArrayList<>();
+		for (int[] cluster : other.clusters) {
+			int touchedCount = 0;
+			for (int r : cluster) {
+				int p = probe[r];
+				if (p < 0) {
+					continue;
+				}
+				if (count[p] == 0) {
+					touched[touchedCount++] = p;
+				}
+				next[r] = head[p];
+				head[p] = r;
+				count[p]++;
+			}
+			for (int t = 0; t < touchedCount; t++) {
+				int p = touched[t];
+				if (count[p] >= 2) {
+					int[] merged = new int[count[p]];
+					int i = 0;
+					for (int r = head[p]; r >= 0; r = next[r]) {
+						merged[i++] = r;
+					}
+					out.add(merged);
+				}
+				head[p] = -1;
+				count[p] = 0;
+			}
+		}
+		return new PositionListIndex(out.toArray(new int[0][]));
+	}
+
+	// True if all rows of every cluster have the same code, i.e. this attribute set determines the column
+	public boolean refines(int[] codes) {
+		for (int[] cluster : clusters) {
+			int code = codes[cluster[0]];
+			for (int i = 1; i < cluster.length; i++) {
+				if (codes[cluster[i]] != code) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,282 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Decomposition search guided by RIC values.
+ * Steps:
+ * 1. Propose candidates: one binary split per violating determinant X of the relation
+ *    (X+ and X ∪ (R - X+)), the best BCNF decompositions and the 3NF synthesis
+ * 2. Score every candidate with cheap FD-based checks only: lossless join (required),
+ *    dependency preservation, share of BCNF tables, and how much of the redundancy seen in the
+ *    original RIC matrix (1 - RIC per column) ends up in BCNF tables. Tables are checked on the FDs
+ *    projected onto them (FdProjector, once per distinct schema), so BcnfChecker uses its FD_LHS tier
+ * 3. Evaluate only the top-k candidates with the real RIC computation on the shared compute pool,
+ *    at most MAX_PARALLEL at a time; candidates still running when the time budget ends are cancelled
+ * Results are reported to a listener as they arrive, so they can be streamed.
+ */
+@Service
+public class RicGuidedSearchService {
+
+	private static final int MAX_SPLITS = 24;
+	private static final int MAX_TOP_K = 8;
+	private static final int MAX_PARALLEL = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+	private final MinimalCoverService minimalCoverService;
+	private final BcnfDecompositionEngine bcnfDecompositionEngine;
+	private final ThreeNfSynthesisService threeNfSynthesisService;
+	private final ForkJoinPool pool;
+
+	public RicGuidedSearchService(MinimalCoverService minimalCoverService,
+								  BcnfDecompositionEngine bcnfDecompositionEngine,
+								  ThreeNfSynthesisService threeNfSynthesisService,
+								  ForkJoinPool computePool) {
+		this.minimalCoverService = minimalCoverService;
+		this.bcnfDecompositionEngine = bcnfDecompositionEngine;
+		this.threeNfSynthesisService = threeNfSynthesisService;
+		this.pool = computePool;
+	}
+
+	// Computes the RIC matrix of one table given by 0-based columns of the original relation and its FDs
+	@FunctionalInterface
+	public interface TableRicEvaluator {
+		double[][] computeRic(List<Integer> columns, List<FD> projectedFds);
+	}
+
+	public interface SearchListener {
+		void candidatesRanked(List<Candidate> candidates);
+
+		void candidateEvaluated(Evaluation evaluation);
+	}
+
+	public record Candidate(int rank, String source, List<Set<String>> schemas, boolean dependencyPreserving,
+							int bcnfTables, double redundancyCovered, double score) {}
+
+	// meanRic is null if the RIC computation failed or was cut off by the budget
+	public record Evaluation(Candidate candidate, Double meanRic, List<Double> tableMeanRic, long elapsedMs, String error) {}
+
+	/**
+	 * Run the search.
+	 *
+	 * @param attributes Attributes of the relation in column order
+	 * @param fds FDs holding on the relation
+	 * @param ricMatrix RIC matrix of the original table (may be null; then redundancy is not scored)
+	 * @param topK Number of candidates evaluated with the full RIC
+	 * @param budgetMillis Wall clock budget for the RIC evaluations
+	 * @return Evaluations ordered by mean RIC (highest = least redundancy first), then cheap score
+	 */
+	public List<Evaluation> search(List<String> attributes, List<FD> fds, double[][] ricMatrix, int topK,
+								   long budgetMillis, TableRicEvaluator evaluator, SearchListener listener) {
+		List<FD> fdList = fds == null ? List.of() : fds;
+		Projections projections = new Projections(fdList);
+		List<Candidate> ranked = rankCandidates(attributes, fdList, ricMatrix, projections);
+		listener.candidatesRanked(ranked);
+
+		List<Candidate> selected = ranked.subList(0, Math.min(Math.max(1, Math.min(topK, MAX_TOP_K)), ranked.size()));
+		CompletionService<Evaluation> completion = new ExecutorCompletionService<>(pool);
+		Map<Future<Evaluation>, Candidate> running = new LinkedHashMap<>();
+		// The RIC runs block their worker, so only MAX_PARALLEL of the shared pool's threads are used at a time
+		Deque<Candidate> waiting = new ArrayDeque<>(selected);
+		while (running.size() < MAX_PARALLEL && !waiting.isEmpty()) {
+			Candidate candidate = waiting.poll();
+			running.put(completion.submit(() -> evaluate(candidate, attributes, projections, evaluator)), candidate);
+		}
+
+		List<Evaluation> evaluations = new ArrayList<>();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMillis));
+		try {
+			while (!running.isEmpty()) {
+				long remaining = deadline - System.nanoTime();
+				Future<Evaluation> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+				if (done == null) {
+					break;
+				}
+				Candidate candidate = running.remove(done);
+				Evaluation evaluation;
+				try {
+					evaluation = done.get();
+				} catch (ExecutionException ex) {
+					Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+					evaluation = new Evaluation(candidate, null, List.of(), 0, cause.getMessage());
+				}
+				evaluations.add(evaluation);
+				listener.candidateEvaluated(evaluation);
+				if (!waiting.isEmpty()) {
+					Candidate next = waiting.poll();
+					running.put(completion.submit(() -> evaluate(next, attributes, projections, evaluator)), next);
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			// Out of budget: cancel what is still running (the RIC process is destroyed on interrupt)
+			for (Map.Entry<Future<Evaluation>, Candidate> entry : running.entrySet()) {
+				entry.getKey().cancel(true);
+			}
+			List<Candidate> skippedCandidates = new ArrayList<>(running.values());
+			skippedCandidates.addAll(waiting);
+			for (Candidate candidate : skippedCandidates) {
+				Evaluation skipped = new Evaluation(candidate, null, List.of(), 0, "Time budget exceeded.");
+				evaluations.add(skipped);
+				listener.candidateEvaluated(skipped);
+			}
+		}
+
+		evaluations.sort(Comparator.comparing((Evaluation e) -> e.meanRic() == null)
+				.thenComparing(e -> e.meanRic() == null ? 0.0 : -e.meanRic())
+				.thenComparingInt(e -> e.candidate().rank()));
+		return evaluations;
+	}
+
+	// Propose candidates and rank them by the cheap score (best first)
+	public List<Candidate> rankCandidates(List<String> attributes, List<FD> fds, double[][] ricMatrix) {
+		List<FD> fdList = fds == null ? List.of() : fds;
+		return rankCandidates(attributes, fdList, ricMatrix, new Projections(fdList));
+	}
+
+	private List<Candidate> rankCandidates(List<String> attributes, List<FD> fds, double[][] ricMatrix,
+										   Projections projections) {
+		Map<String, Map.Entry<String, List<Set<String>>>> proposals = new LinkedHashMap<>();
+		Set<String> relation = new LinkedHashSet<>(attributes);
+		ClosureEngine engine = new ClosureEngine(relation, fds);
+		BitSet relationBits = engine.toBits(relation);
+
+		for (BitSet x : new BcnfChecker(engine, relation).findViolations(MAX_SPLITS)) {
+			BitSet closure = engine.closure(x);
+			closure.and(relationBits);
+			BitSet rest = (BitSet) relationBits.clone();
+			rest.andNot(closure);
+			rest.or(x);
+			propose(proposals, "Split on " + String.join(",", engine.toNames(x)),
+					List.of(FDService.inAttributeOrder(engine.toNames(closure), attributes), FDService.inAttributeOrder(engine.toNames(rest), attributes)));
+		}
+		for (BcnfDecompositionEngine.Candidate candidate : bcnfDecompositionEngine.decompose(attributes, fds, 3).candidates()) {
+			propose(proposals, "BCNF decomposition", candidate.schemas());
+		}
+		propose(proposals, "3NF synthesis", threeNfSynthesisService.synthesize(attributes, fds));
+
+		double[] redundancy = columnRedundancy(ricMatrix, attributes.size());
+		double totalRedundancy = Arrays.stream(redundancy).sum();
+
+		List<Candidate> scored = new ArrayList<>();
+		for (Map.Entry<String, List<Set<String>>> proposal : proposals.values()) {
+			List<Set<String>> schemas = proposal.getValue();
+			if (schemas.size() < 2 || !new LosslessJoinChecker(attributes, schemas, fds).isLossless()) {
+				continue;
+			}
+			boolean dp = new DependencyPreservationChecker(fds, schemas).isPreserved();
+			int bcnfTables = 0;
+			Set<String> inBcnfTable = new HashSet<>();
+			for (Set<String> schema : schemas) {
+				if (new BcnfChecker(schema, projections.of(schema)).isBcnf()) {
+					bcnfTables++;
+					inBcnfTable.addAll(schema);
+				}
+			}
+			double covered = 0;
+			for (int c = 0; c < attributes.size(); c++) {
+				if (inBcnfTable.contains(attributes.get(c))) {
+					covered += redundancy[c];
+				}
+			}
+			double coveredShare = totalRedundancy > 0 ? covered / totalRedundancy : 0;
+			double score = 2.0 * bcnfTables / schemas.size() + (dp ? 1.0 : 0.0) + coveredShare - 0.1 * (schemas.size() - 2);
+			scored.add(new Candidate(0, proposal.getKey(), schemas, dp, bcnfTables, coveredShare, score));
+		}
+		scored.sort(Comparator.comparingDouble((Candidate c) -> -c.score()).thenComparingInt(c -> c.schemas().size()));
+
+		List<Candidate> ranked = new ArrayList<>();
+		for (int i = 0; i < scored.size(); i++) {
+			Candidate c = scored.get(i);
+			ranked.add(new Candidate(i + 1, c.source(), c.schemas(), c.dependencyPreserving(), c.bcnfTables(),
+					c.redundancyCovered(), c.score()));
+		}
+		return ranked;
+	}
+
+	private Evaluation evaluate(Candidate candidate, List<String> attributes, Projections projections,
+							   TableRicEvaluator evaluator) {
+		long startNs = System.nanoTime();
+		List<Double> tableMeans = new ArrayList<>();
+		double sum = 0;
+		long cells = 0;
+		for (Set<String> schema : candidate.schemas()) {
+			List<Integer> columns = new ArrayList<>();
+			for (int i = 0; i < attributes.size(); i++) {
+				if (schema.contains(attributes.get(i))) {
+					columns.add(i);
+				}
+			}
+			List<FD> projected = minimalCoverService.minimalCover(projections.of(schema));
+			double[][] matrix;
+			try {
+				matrix = evaluator.computeRic(columns, projected);
+			} catch (RuntimeException ex) {
+				// Reported here: the pool hands exceptions of other threads back wrapped, with the class name in the message
+				long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+				return new Evaluation(candidate, null, List.of(), elapsedMs, ex.getMessage());
+			}
+			double tableSum = 0;
+			long tableCells = 0;
+			for (double[] row : matrix == null ? new double[0][0] : matrix) {
+				for (double v : row) {
+					tableSum += v;
+					tableCells++;
+				}
+			}
+			tableMeans.add(tableCells == 0 ? 1.0 : tableSum / tableCells);
+			sum += tableSum;
+			cells += tableCells;
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+		return new Evaluation(candidate, cells == 0 ? 1.0 : sum / cells, tableMeans, elapsedMs, null);
+	}
+
+	// FDs projected onto each schema of one search; candidates share many schemas, and ranking and evaluation both need them
+	private static final class Projections {
+		private final FdProjector projector;
+		private final Map<Set<String>, List<FD>> bySchema = new ConcurrentHashMap<>();
+
+		private Projections(List<FD> fds) {
+			this.projector = new FdProjector(fds);
+		}
+
+		private List<FD> of(Set<String> schema) {
+			return bySchema.computeIfAbsent(schema, projector::project);
+		}
+	}
+
+	// Mean (1 - RIC) per column of the original table; zeros if no matrix is available
+	private static double[] columnRedundancy(double[][] ricMatrix, int columns) {
+		double[] redundancy = new double[columns];
+		if (ricMatrix == null || ricMatrix.length == 0) {
+			return redundancy;
+		}
+		for (int c = 0; c < columns; c++) {
+			double sum = 0;
+			int count = 0;
+			for (double[] row : ricMatrix) {
+				if (c < row.length) {
+					sum += 1.0 - row[c];
+					count++;
+				}
+			}
+			redundancy[c] = count == 0 ? 0 : sum / count;
+		}
+		return redundancy;
+	}
+
+	private static void propose(Map<String, Map.Entry<String, List<Set<String>>>> proposals, String source,
+								List<Set<String>> schemas) {
+		List<String> keys = new ArrayList<>();
+		for (Set<String> schema : schemas) {
+			keys.add(String.join(",", new TreeSet<>(schema)));
+		}
+		Collections.sort(keys);
+		proposals.putIfAbsent(String.join("|", keys), Map.entry(source, schemas));
+	}
+}
@@ -44,7 +44,14 @@ public class RicService {
 
 	private static record RicAttempt(boolean monteCarlo, int samples, int timeoutSeconds) { }
 
-	public record RicComputationResult(double[][] matrix, String finalStrategy, List<String> steps) { }
+	// finalStrategy of a result computed with exact values (no Monte Carlo fallback)
+	public static final String EXACT_STRATEGY = "with exact values";
+
+	public record RicComputationResult(double[][] matrix, String finalStrategy, List<String> steps) {
+		public boolean isExact() {
+			return EXACT_STRATEGY.equals(finalStrategy);
+		}
+	}
 
 	public static class RicComputationException extends RuntimeException {
 		private final List<String> steps;
@@ -243,7 +250,7 @@ public class RicService {
 	// Producing a short summary for logging/UI to user.
 	private String describeAttempt(RicAttempt attempt) {
 		if (!attempt.monteCarlo()) {
-			return "with exact values";
+			return EXACT_STRATEGY;
 		}
 		return "Monte Carlo approximation with " + String.format(Locale.US, "%,d", attempt.samples()) + " samples";
 	}
@@ -0,0 +1,294 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * Analysis of one relation under one FD set.
+ * Holds the closure engine, candidate keys, prime attributes and superkey lookups, and answers
+ * all normal form questions from that state. Keys and normal forms are computed on first use
+ * and then kept, so an instance can be shared (see NormalFormChecker's cache).
+ * If the key enumeration stops at maxKeys, attributes outside the keys found are tested for primality
+ * one by one; a normal form that still cannot be decided is reported as UNDETERMINED.
+ */
+public class SchemaAnalysis {
+
+	public static final String UNDETERMINED = "UNDETERMINED";
+
+	// Closures one exact prime test may compute before the attribute is left unresolved
+	private static final int MAX_PRIME_TEST_CLOSURES = 50_000;
+
+	private final Set<String> attributes;
+	private final List<FD> fds;
+	private final ClosureEngine engine;
+	private final BitSet relation;
+	private final int maxKeys;
+	private final Map<BitSet, Boolean> superkeyCache = new HashMap<>();
+
+	private List<Set<String>> candidateKeys;
+	private boolean keysComplete;
+	private Set<String> primeAttributes;
+	// Attributes whose prime test ran out of budget; empty if the key enumeration was complete
+	private Set<String> unresolvedAttributes;
+	private List<FD> violatingFds;
+	private Boolean bcnf;
+	// null until computed; UNDETERMINED if it cannot be decided
+	private String thirdNormalForm;
+	private String secondNormalForm;
+
+	public SchemaAnalysis(Set<String> attributes, List<FD> fds, int maxKeys) {
+		this.attributes = Collections.unmodifiableSet(new LinkedHashSet<>(attributes));
+		this.fds = fds == null ? List.of() : List.copyOf(fds);
+		this.engine = new ClosureEngine(this.attributes, this.fds);
+		this.relation = engine.toBits(this.attributes);
+		this.maxKeys = maxKeys;
+	}
+
+	public Set<String> getAttributes() {
+		return attributes;
+	}
+
+	public List<FD> getFds() {
+		return fds;
+	}
+
+	public ClosureEngine getEngine() {
+		return engine;
+	}
+
+	public Set<String> closure(Set<String> attrs) {
+		return engine.closure(attrs);
+	}
+
+	public synchronized boolean isSuperkey(Set<String> attrs) {
+		BitSet bits = engine.toBits(attrs);
+		return superkeyCache.computeIfAbsent(bits, b -> {
+			BitSet missing = (BitSet) relation.clone();
+			missing.andNot(engine.closure(b));
+			return missing.isEmpty();
+		});
+	}
+
+	public synchronized List<Set<String>> getCandidateKeys() {
+		if (candidateKeys == null) {
+			CandidateKeyFinder.KeyEnumeration enumeration = new CandidateKeyFinder(engine, attributes).findKeys(maxKeys);
+			candidateKeys = List.copyOf(enumeration.keys());
+			keysComplete = enumeration.complete();
+			if (!keysComplete) {
+				System.out.println("[SchemaAnalysis] Candidate key enumeration stopped after " + maxKeys + " keys");
+			}
+		}
+		return candidateKeys;
+	}
+
+	// false if the key cap was hit; getCandidateKeys then only returns the keys found so far
+	public synchronized boolean isKeysComplete() {
+		getCandidateKeys();
+		return keysComplete;
+	}
+
+	// Attributes known to be in some candidate key
+	public synchronized Set<String> getPrimeAttributes() {
+		if (primeAttributes == null) {
+			Set<String> prime = new LinkedHashSet<>();
+			getCandidateKeys().forEach(prime::addAll);
+			Set<String> unresolved = new LinkedHashSet<>();
+			if (!keysComplete) {
+				BitSet start = engine.closure(new BitSet());
+				start.and(relation);
+				for (String attribute : attributes) {
+					if (prime.contains(attribute)) {
+						continue;
+					}
+					int bit = engine.indexOf(attribute);
+					Boolean isPrime = start.get(bit) ? Boolean.FALSE : primeSearch(start, 0, bit, new int[]{MAX_PRIME_TEST_CLOSURES});
+					if (isPrime == null) {
+						unresolved.add(attribute);
+					} else if (isPrime) {
+						prime.add(attribute);
+					}
+				}
+			}
+			primeAttributes = Collections.unmodifiableSet(prime);
+			unresolvedAttributes = Collections.unmodifiableSet(unresolved);
+		}
+		return primeAttributes;
+	}
+
+	// Attributes neither known to be prime nor known to be non-prime
+	public synchronized Set<String> getUnresolvedAttributes() {
+		getPrimeAttributes();
+		return unresolvedAttributes;
+	}
+
+	// Non-trivial FDs whose LHS is not a superkey
+	public synchronized List<FD> getViolatingFds() {
+		if (violatingFds == null) {
+			List<FD> out = new ArrayList<>();
+			for (FD fd : fds) {
+				if (!fd.getLhs().containsAll(fd.getRhs()) && !isSuperkey(fd.getLhs())) {
+					out.add(fd);
+				}
+			}
+			violatingFds = Collections.unmodifiableList(out);
+		}
+		return violatingFds;
+	}
+
+	public synchronized boolean isBCNF() {
+		if (bcnf == null) {
+			bcnf = attributes.isEmpty() || fds.isEmpty() || new BcnfChecker(engine, attributes).isBcnf();
+		}
+		return bcnf;
+	}
+
+	// true only if the relation is known to be in 3NF (see getNormalForm for undecided cases)
+	public synchronized boolean is3NF() {
+		return "3NF".equals(get3NF());
+	}
+
+	// true only if the relation is known to be in 2NF
+	public synchronized boolean is2NF() {
+		return "3NF".equals(get3NF()) || "2NF".equals(get2NF());
+	}
+
+	// Highest normal form, assuming all relations are in 1NF (atomic values); UNDETERMINED if 3NF or 2NF cannot be decided
+	public synchronized String getNormalForm() {
+		if (attributes.isEmpty()) {
+			return "1NF";
+		}
+		if (isBCNF()) {
+			return "BCNF";
+		}
+		String third = get3NF();
+		if (!"1NF".equals(third)) {
+			return third;
+		}
+		return get2NF();
+	}
+
+	// "3NF", "1NF" (not 3NF) or UNDETERMINED
+	private String get3NF() {
+		if (thirdNormalForm == null) {
+			thirdNormalForm = compute3NF();
+		}
+		return thirdNormalForm;
+	}
+
+	// "2NF", "1NF" (not 2NF) or UNDETERMINED
+	private String get2NF() {
+		if (secondNormalForm == null) {
+			secondNormalForm = compute2NF();
+		}
+		return secondNormalForm;
+	}
+
+	// Every non-trivial FD needs a superkey LHS or only prime attributes in RHS - LHS
+	private String compute3NF() {
+		if (fds.isEmpty()) {
+			return "3NF";
+		}
+		Set<String> prime = getPrimeAttributes();
+		boolean undecided = false;
+		for (FD fd : getViolatingFds()) {
+			Set<String> extraAttrs = new HashSet<>(fd.getRhs());
+			extraAttrs.removeAll(fd.getLhs());
+			extraAttrs.removeAll(prime);
+			if (extraAttrs.isEmpty()) {
+				continue;
+			}
+			if (!unresolvedAttributes.containsAll(extraAttrs)) {
+				return "1NF";
+			}
+			undecided = true;
+		}
+		return undecided ? UNDETERMINED : "3NF";
+	}
+
+	/**
+	 * No non-prime attribute may depend on a proper subset of a candidate key.
+	 * With an incomplete key list a violation found on the known keys still counts,
+	 * but the absence of one proves nothing.
+	 */
+	private String compute2NF() {
+		if (fds.isEmpty()) {
+			return "2NF";
+		}
+		List<Set<String>> keys = getCandidateKeys();
+		if (keys.isEmpty()) {
+			return "2NF";
+		}
+		Set<String> prime = getPrimeAttributes();
+		for (FD fd : fds) {
+			Set<String> lhs = fd.getLhs();
+			if (lhs.containsAll(fd.getRhs())) {
+				continue;
+			}
+			Set<String> nonPrimeInRhs = new HashSet<>(fd.getRhs());
+			nonPrimeInRhs.removeAll(prime);
+			nonPrimeInRhs.removeAll(unresolvedAttributes);
+			if (nonPrimeInRhs.isEmpty()) {
+				continue;
+			}
+			for (Set<String> key : keys) {
+				if (key.containsAll(lhs) && !lhs.equals(key)) {
+					return "1NF";
+				}
+			}
+		}
+		return keysComplete && unresolvedAttributes.isEmpty() ? "2NF" : UNDETERMINED;
+	}
+
+	/**
+	 * Exact prime test, used when the key enumeration was cut off.
+	 * A is prime iff some X ⊆ R - {A} with A ∉ X+ has (X ∪ {A})+ ⊇ R: shrinking X to a minimal such set gives a key with A.
+	 * Only closed sets X need to be tried; they are enumerated once each (close-by-one), and a set whose
+	 * closure contains A is never extended since all its supersets contain A as well.
+	 *
+	 * @param x Closed set without the attribute (closure restricted to the relation)
+	 * @param from First attribute bit that may be added to x
+	 * @param budget Remaining closures, shared by the whole search
+	 * @return Whether the attribute is prime, or null if the budget ran out first
+	 */
+	private Boolean primeSearch(BitSet x, int from, int attribute, int[] budget) {
+		if (--budget[0] < 0) {
+			return null;
+		}
+		BitSet withAttribute = (BitSet) x.clone();
+		withAttribute.set(attribute);
+		BitSet missing = (BitSet) relation.clone();
+		missing.andNot(engine.closure(withAttribute));
+		if (missing.isEmpty()) {
+			return true;
+		}
+		for (int b = relation.nextSetBit(from); b >= 0; b = relation.nextSetBit(b + 1)) {
+			if (b == attribute || x.get(b)) {
+				continue;
+			}
+			if (--budget[0] < 0) {
+				return null;
+			}
+			BitSet y = (BitSet) x.clone();
+			y.set(b);
+			y = engine.closure(y);
+			y.and(relation);
+			if (y.get(attribute) || !sameBelow(x, y, b)) {
+				continue;
+			}
+			Boolean found = primeSearch(y, b + 1, attribute, budget);
+			if (found == null || found) {
+				return found;
+			}
+		}
+		return false;
+	}
+
+	// Close-by-one canonicity test: the closure added no attribute before b
+	private static boolean sameBelow(BitSet x, BitSet y, int b) {
+		BitSet added = (BitSet) y.clone();
+		added.andNot(x);
+		int first = added.nextSetBit(0);
+		return first < 0 || first >= b;
+	}
+}
@@ -0,0 +1,113 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.google.gson.stream.JsonWriter;
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Table data of computations and uploaded datasets. Both are references into the DatasetRegistry,
+ * so sessions working on the same table share one copy of it:
+ * - inputTable    : the rows as entered (shown again on the calc and normalization pages)
+ * - originalTable : the distinct rows with trimmed cells, the relation that gets decomposed
+ * A computation's reference is part of its ComputationRecord; uploaded datasets (see DatasetUploadService)
+ * are referenced from the session under their dataset id.
+ * Row lists and JSON for the pages are derived when needed instead of being stored next to the tables.
+ */
+@Service
+public class SessionTableStore {
+
+	private static final String DATASET_PREFIX = "dataset_";
+
+	private final DatasetRegistry datasetRegistry;
+	private final ComputationStore computationStore;
+
+	public SessionTableStore(DatasetRegistry datasetRegistry, ComputationStore computationStore) {
+		this.datasetRegistry = datasetRegistry;
+		this.computationStore = computationStore;
+	}
+
+	// Registry entry of the computation's table, or null if the computation is unknown
+	public DatasetRegistry.Entry getEntry(HttpSession session, String computationId) {
+		ComputationRecord record = computationStore.get(session, computationId);
+		return record == null ? null : record.datasetEntry();
+	}
+
+	// Distinct rows of the computation, or null if it has no stored table
+	public ColumnarTable getOriginalTable(HttpSession session, String computationId) {
+		DatasetRegistry.Entry entry = getEntry(session, computationId);
+		return entry == null ? null : entry.getOriginalTable();
+	}
+
+	// The views below take a record the caller has already read, so one request reads the store once
+
+	// Rows as entered, or null if the computation has no stored table
+	public ColumnarTable getInputTable(ComputationRecord record) {
+		DatasetRegistry.Entry entry = record.datasetEntry();
+		return entry == null ? null : entry.getInputTable();
+	}
+
+	// Distinct rows of the computation, or null if it has no stored table
+	public ColumnarTable getOriginalTable(ComputationRecord record) {
+		DatasetRegistry.Entry entry = record.datasetEntry();
+		return entry == null ? null : entry.getOriginalTable();
+	}
+
+	public List<List<String>> getOriginalTuples(ComputationRecord record) {
+		ColumnarTable table = getOriginalTable(record);
+		return table == null ? List.of() : table.toRows();
+	}
+
+	// Stores an uploaded table and returns the id that compute and normalize requests can reference
+	public String storeDataset(HttpSession session, ColumnarTable table) {
+		String datasetId = UUID.randomUUID().toString();
+		session.setAttribute(DATASET_PREFIX + datasetId, datasetRegistry.register(table));
+		return datasetId;
+	}
+
+	// Uploaded table, or null for an unknown id
+	public ColumnarTable getDataset(HttpSession session, String datasetId) {
+		if (datasetId == null || datasetId.isBlank()) {
+			return null;
+		}
+		DatasetRegistry.Entry entry = read(session, DATASET_PREFIX + datasetId);
+		return entry == null ? null : entry.getInputTable();
+	}
+
+	// Input rows as a JSON array of string arrays ("[]" without a stored table)
+	public String getInputJson(ComputationRecord record) {
+		ColumnarTable table = getInputTable(record);
+		return table == null ? "[]" : toJson(table);
+	}
+
+	// Writes the rows straight from the codes, without building row lists first
+	public String toJson(ColumnarTable table) {
+		StringWriter out = new StringWriter();
+		try (JsonWriter writer = new JsonWriter(out)) {
+			// Same escaping as Gson.toJson
+			writer.setHtmlSafe(true);
+			writer.beginArray();
+			for (int r = 0; r < table.getRowCount(); r++) {
+				writer.beginArray();
+				for (int c = 0; c < table.getColumnCount(); c++) {
+					writer.value(table.getValue(r, c));
+				}
+				writer.endArray();
+			}
+			writer.endArray();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return out.toString();
+	}
+
+	private DatasetRegistry.Entry read(HttpSession session, String key) {
+		Object stored = session == null ? null : session.getAttribute(key);
+		return stored instanceof DatasetRegistry.Reference reference ? reference.getEntry() : null;
+	}
+}
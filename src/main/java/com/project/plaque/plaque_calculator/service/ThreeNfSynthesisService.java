@@ -0,0 +1,79 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Service for the 3NF synthesis algorithm (Bernstein)
+ * Steps:
+ * 1. Compute a minimal cover of the FDs
+ * 2. Create one schema per LHS: the LHS plus all attributes it determines in the cover
+ * 3. If no schema contains a candidate key of the relation, add a schema for one key
+ * 4. Remove schemas that are contained in another schema
+ * The result is lossless-join and dependency preserving, and every schema is in 3NF.
+ * All steps are polynomial except finding the single key, which only needs one key.
+ */
+@Service
+public class ThreeNfSynthesisService {
+
+	private final MinimalCoverService minimalCoverService;
+
+	public ThreeNfSynthesisService(MinimalCoverService minimalCoverService) {
+		this.minimalCoverService = minimalCoverService;
+	}
+
+	/**
+	 * Synthesize a 3NF decomposition.
+	 *
+	 * @param attributes Attributes of the relation (schemas keep this order)
+	 * @param fds FDs holding on the relation
+	 * @return Schemas of the decomposition
+	 */
+	public List<Set<String>> synthesize(List<String> attributes, List<FD> fds) {
+		List<FD> cover = minimalCoverService.minimalCover(fds);
+
+		// 2. One schema per LHS (cover order)
+		Map<Set<String>, Set<String>> byLhs = new LinkedHashMap<>();
+		for (FD fd : cover) {
+			Set<String> schema = byLhs.computeIfAbsent(new TreeSet<>(fd.getLhs()), lhs -> new HashSet<>(lhs));
+			schema.addAll(fd.getRhs());
+		}
+		List<Set<String>> schemas = new ArrayList<>();
+		for (Set<String> schema : byLhs.values()) {
+			schemas.add(FDService.inAttributeOrder(schema, attributes));
+		}
+
+		// 3. Key schema, unless some schema is already a superkey of the relation
+		Set<String> relation = new LinkedHashSet<>(attributes);
+		ClosureEngine engine = new ClosureEngine(relation, cover);
+		boolean hasKey = false;
+		for (Set<String> schema : schemas) {
+			if (engine.closure(schema).containsAll(relation)) {
+				hasKey = true;
+				break;
+			}
+		}
+		if (!hasKey) {
+			List<Set<String>> keys = new CandidateKeyFinder(engine, relation).findKeys(1).keys();
+			schemas.add(FDService.inAttributeOrder(keys.isEmpty() ? relation : keys.get(0), attributes));
+		}
+
+		// 4. Drop schemas contained in another one (of two equal schemas the first is kept)
+		List<Set<String>> result = new ArrayList<>();
+		for (int i = 0; i < schemas.size(); i++) {
+			Set<String> schema = schemas.get(i);
+			boolean subsumed = false;
+			for (int j = 0; j < schemas.size() && !subsumed; j++) {
+				if (i != j && schemas.get(j).containsAll(schema)) {
+					subsumed = !schema.equals(schemas.get(j)) || j < i;
+				}
+			}
+			if (!subsumed && !schema.isEmpty()) {
+				result.add(schema);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,323 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Service for discovering the minimal unique column combinations (keys) of table data
+ * A set X is unique iff it intersects the difference set (columns where the rows differ) of every row pair,
+ * so the minimal keys are the minimal hitting sets of all difference sets. Checking all pairs is
+ * quadratic, so the search works on a growing subset of them:
+ * 1. Sampling: rows of every cluster of every column partition (PositionListIndex) are sorted by another
+ *    column and neighbours are compared, which finds pairs that agree on many columns
+ * 2. The minimal hitting sets of the sampled difference sets are maintained level by level as
+ *    column bit masks (Berge: a set missing a new difference set is extended by each of its columns)
+ * 3. Every hitting set is validated on the full table in parallel with one hash pass; a duplicate found
+ *    there is a new difference set and goes back to step 2
+ * A validated hitting set is a minimal key: its subsets miss a sampled difference set, so they are not
+ * unique. When a round validates every hitting set, no key is missing. The search deepens the largest
+ * key size one column at a time, so small keys are reported even when the time budget or the candidate
+ * limit stops it on wide tables, and the bottom-up lattice of all non-unique sets is never built.
+ * A table with duplicate rows has no keys.
+ */
+@Service
+public class UccDiscoveryService {
+
+	public static final int MAX_ROWS = 500_000;
+	public static final int MAX_COLUMNS = 64;
+	private static final int MAX_CANDIDATES = 5_000;
+	private static final int MAX_SAMPLED_DIFFERENCES = 20_000;
+	private static final long DEFAULT_BUDGET_MILLIS = 10_000;
+
+	private final ForkJoinPool pool;
+	private final FdValidationService fdValidationService;
+
+	public UccDiscoveryService(FdValidationService fdValidationService, ForkJoinPool computePool) {
+		this.fdValidationService = fdValidationService;
+		this.pool = computePool;
+	}
+
+	// complete is false if the time budget, the size limit or the candidate limit ended the search early;
+	// the keys are then all minimal keys up to the last finished size
+	public record Result(List<Set<String>> keys, boolean complete, int rows, int columns, long elapsedMs) {}
+
+	public Result discover(ColumnarTable table, List<String> attributeNames) {
+		return discover(table, attributeNames, 0, DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * Discover the minimal keys of the data, smallest first.
+	 *
+	 * @param table Dictionary-encoded table data
+	 * @param attributeNames Name of every column
+	 * @param maxKeySize Largest key size reported, 0 for no limit
+	 * @param budgetMillis Time budget for the search
+	 */
+	public Result discover(ColumnarTable table, List<String> attributeNames, int maxKeySize, long budgetMillis) {
+		int rows = table.getRowCount();
+		int cols = table.getColumnCount();
+		if (rows > MAX_ROWS) {
+			throw new IllegalArgumentException("Table has " + rows + " rows; key discovery supports up to " + MAX_ROWS + ".");
+		}
+		if (cols > MAX_COLUMNS) {
+			throw new IllegalArgumentException("Table has " + cols + " columns; key discovery supports up to " + MAX_COLUMNS + ".");
+		}
+		if (attributeNames.size() < cols) {
+			throw new IllegalArgumentException("Missing attribute names for " + cols + " columns.");
+		}
+		long startNs = System.nanoTime();
+		long deadline = startNs + budgetMillis * 1_000_000L;
+		long allColumns = cols == 64 ? -1L : (1L << cols) - 1;
+
+		List<Long> differences = sampleDifferences(table);
+		if (rows >= 2 && differences.contains(0L)) {
+			return new Result(List.of(), true, rows, cols, (System.nanoTime() - startNs) / 1_000_000);
+		}
+
+		// Iterative deepening on the key size: keys up to each size are exact, so results come smallest first
+		List<Long> learned = new ArrayList<>(differences);
+		Set<Long> validated = new HashSet<>();
+		List<Long> keyMasks = List.of();
+		boolean complete = false;
+		int limit = maxKeySize > 0 ? Math.min(maxKeySize, cols) : cols;
+		int size = 0;
+		for (; size <= limit; size++) {
+			HittingSets hittingSets = new HittingSets(allColumns, size);
+			if (!validateUpTo(hittingSets, learned, validated, table, attributeNames, deadline)) {
+				System.out.println("[UccDiscoveryService] Search stopped at key size " + size);
+				break;
+			}
+			keyMasks = hittingSets.masks();
+			if (!hittingSets.truncated) {
+				complete = true;
+				break;
+			}
+		}
+
+		List<Set<String>> keys = new ArrayList<>();
+		keyMasks.stream()
+				.sorted(Comparator.comparingInt(Long::bitCount).thenComparingLong(Long::reverse))
+				.forEach(mask -> keys.add(toNames(mask, attributeNames)));
+		long elapsedMs = (System.nanoTime() - startNs) / 1_000_000;
+		System.out.println("[UccDiscoveryService] " + keys.size() + " keys on " + rows + "x" + cols + " in "
+				+ elapsedMs + " ms (up to size " + Math.min(size, limit) + ")");
+		return new Result(keys, complete, rows, cols, elapsedMs);
+	}
+
+	/*
+	 * Validate hitting sets on the full table until all of them are unique; refuting pairs are added to
+	 * learned. Returns false if the candidate limit or the time budget was hit.
+	 */
+	private boolean validateUpTo(HittingSets hittingSets, List<Long> learned, Set<Long> validated,
+								 ColumnarTable table, List<String> attributeNames, long deadline) {
+		if (!addAll(hittingSets, learned, deadline)) {
+			return false;
+		}
+		while (true) {
+			List<Long> open = hittingSets.masks().stream().filter(mask -> !validated.contains(mask)).toList();
+			List<Long> refuting = pool.submit(() -> open.parallelStream()
+					.map(mask -> {
+						int[] pair = fdValidationService.duplicatePair(table, attributeNames, toNames(mask, attributeNames));
+						return pair == null ? null : difference(table, pair[0], pair[1]);
+					})
+					.toList()).join();
+			List<Long> newDifferences = new ArrayList<>();
+			for (int i = 0; i < open.size(); i++) {
+				if (refuting.get(i) == null) {
+					validated.add(open.get(i));
+				} else {
+					newDifferences.add(refuting.get(i));
+				}
+			}
+			if (newDifferences.isEmpty()) {
+				return true;
+			}
+			learned.addAll(newDifferences);
+			if (!addAll(hittingSets, newDifferences, deadline)) {
+				return false;
+			}
+		}
+	}
+
+	// False if the candidate limit or the time budget was hit
+	private static boolean addAll(HittingSets hittingSets, Collection<Long> differences, long deadline) {
+		for (long difference : minimalSets(differences)) {
+			hittingSets.add(difference);
+			if (hittingSets.size() > MAX_CANDIDATES || System.nanoTime() > deadline) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Difference sets of neighbouring rows in every cluster of every column, clusters sorted by the next column.
+	 * Small difference sets constrain the keys most (their supersets add nothing), so only the smallest
+	 * MAX_SAMPLED_DIFFERENCES distinct ones are kept.
+	 */
+	private List<Long> sampleDifferences(ColumnarTable table) {
+		int cols = table.getColumnCount();
+		List<long[]> perColumn = pool.submit(() -> IntStream.range(0, cols).parallel()
+				.mapToObj(c -> {
+					int[] sortCodes = table.getColumn((c + 1) % cols);
+					int[][] clusters = PositionListIndex.forColumn(table.getColumn(c), table.getCardinality(c)).getClusters();
+					long[] out = new long[Arrays.stream(clusters).mapToInt(cluster -> cluster.length - 1).sum()];
+					int n = 0;
+					for (int[] cluster : clusters) {
+						long[] keyed = new long[cluster.length];
+						for (int i = 0; i < cluster.length; i++) {
+							keyed[i] = ((long) sortCodes[cluster[i]] << 32) | cluster[i];
+						}
+						Arrays.sort(keyed);
+						for (int i = 1; i < keyed.length; i++) {
+							out[n++] = difference(table, (int) keyed[i - 1], (int) keyed[i]);
+						}
+					}
+					return out;
+				})
+				.toList()).join();
+
+		// Bucket by size, then take distinct sets from the smallest buckets
+		int[] bucketSize = new int[65];
+		for (long[] differences : perColumn) {
+			for (long d : differences) {
+				bucketSize[Long.bitCount(d)]++;
+			}
+		}
+		long[][] buckets = new long[65][];
+		for (int b = 0; b <= 64; b++) {
+			buckets[b] = new long[bucketSize[b]];
+		}
+		int[] fill = new int[65];
+		for (long[] differences : perColumn) {
+			for (long d : differences) {
+				int b = Long.bitCount(d);
+				buckets[b][fill[b]++] = d;
+			}
+		}
+		List<Long> out = new ArrayList<>();
+		for (int b = 0; b <= 64 && out.size() < MAX_SAMPLED_DIFFERENCES; b++) {
+			long[] bucket = buckets[b];
+			Arrays.sort(bucket);
+			for (int i = 0; i < bucket.length && out.size() < MAX_SAMPLED_DIFFERENCES; i++) {
+				if (i == 0 || bucket[i] != bucket[i - 1]) {
+					out.add(bucket[i]);
+				}
+			}
+		}
+		return out;
+	}
+
+	private static long difference(ColumnarTable table, int first, int second) {
+		long mask = 0;
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			int[] codes = table.getColumn(c);
+			if (codes[first] != codes[second]) {
+				mask |= 1L << c;
+			}
+		}
+		return mask;
+	}
+
+	// Sets of the collection without a proper subset in it, smallest first
+	private static List<Long> minimalSets(Collection<Long> sets) {
+		List<Long> sorted = new ArrayList<>(new HashSet<>(sets));
+		sorted.sort(Comparator.comparingInt(Long::bitCount));
+		List<Long> minimal = new ArrayList<>();
+		for (long set : sorted) {
+			boolean hasSubset = false;
+			for (long kept : minimal) {
+				if ((kept & set) == kept) {
+					hasSubset = true;
+					break;
+				}
+			}
+			if (!hasSubset) {
+				minimal.add(set);
+			}
+		}
+		return minimal;
+	}
+
+	private static Set<String> toNames(long mask, List<String> names) {
+		Set<String> out = new LinkedHashSet<>();
+		for (long rest = mask; rest != 0; rest &= rest - 1) {
+			out.add(names.get(Long.numberOfTrailingZeros(rest)));
+		}
+		return out;
+	}
+
+	/*
+	 * Minimal hitting sets with at most maxSize columns of the difference sets added so far (initially only
+	 * the empty set). Every minimal hitting set extends one of the previous family, so dropping larger
+	 * extensions loses only hitting sets above maxSize; truncated tells whether that happened.
+	 */
+	private static final class HittingSets {
+		private List<Long> masks = new ArrayList<>(List.of(0L));
+		private final long allColumns;
+		private final int maxSize;
+		private boolean truncated;
+
+		HittingSets(long allColumns, int maxSize) {
+			this.allColumns = allColumns;
+			this.maxSize = maxSize;
+		}
+
+		List<Long> masks() { return masks; }
+
+		int size() { return masks.size(); }
+
+		void add(long difference) {
+			long d = difference & allColumns;
+			List<Long> hitting = new ArrayList<>();
+			List<Long> missing = new ArrayList<>();
+			for (long mask : masks) {
+				(((mask & d) != 0) ? hitting : missing).add(mask);
+			}
+			if (missing.isEmpty()) {
+				return;
+			}
+			if (d == 0) {
+				// Duplicate rows: nothing is unique
+				masks = new ArrayList<>();
+				return;
+			}
+			Set<Long> extended = new LinkedHashSet<>();
+			for (long mask : missing) {
+				if (Long.bitCount(mask) >= maxSize) {
+					truncated = true;
+					continue;
+				}
+				for (long rest = d; rest != 0; rest &= rest - 1) {
+					extended.add(mask | Long.lowestOneBit(rest));
+				}
+			}
+			// An extension is minimal if no other hitting set is contained in it
+			List<Long> next = new ArrayList<>(hitting);
+			List<Long> candidates = new ArrayList<>(extended);
+			candidates.sort(Comparator.comparingInt(Long::bitCount));
+			List<Long> acceptedExtensions = new ArrayList<>();
+			for (long candidate : candidates) {
+				if (containsSubset(hitting, candidate) || containsSubset(acceptedExtensions, candidate)) {
+					continue;
+				}
+				acceptedExtensions.add(candidate);
+			}
+			next.addAll(acceptedExtensions);
+			masks = next;
+		}
+
+		private static boolean containsSubset(List<Long> sets, long candidate) {
+			for (long set : sets) {
+				if (set != candidate && (set & candidate) == set) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -1,16 +1,19 @@
 package com.project.plaque.plaque_calculator.util;
 
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.csv.CSVParser;
 
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Utility helpers for parsing and normalizing CSV text where rows are separated by semicolons
@@ -25,106 +28,123 @@ public final class CsvParsingUtil {
             .setIgnoreEmptyLines(false)
             .build();
 
+    // Inputs with at least this many characters are split into chunks that are parsed in parallel
+    public static final int PARALLEL_THRESHOLD = 1 << 21;
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+
     private CsvParsingUtil() {}
 
     public static List<List<String>> parseRows(String manualData) {
-        if (manualData == null || manualData.trim().isEmpty()) {
+        if (manualData == null || manualData.isBlank()) {
             return List.of();
         }
-
-        // Split by semicolon but respect quoted values that may contain semicolons
-        List<String> rowStrings = splitRespectingQuotes(manualData, ';');
-
         List<List<String>> rows = new ArrayList<>();
-        for (int rowIdx = 0; rowIdx < rowStrings.size(); rowIdx++) {
-            String row = rowStrings.get(rowIdx);
-            String trimmed = row == null ? "" : row.trim();
-            if (trimmed.isEmpty()) {
-                continue;
-            }
-            try {
-                List<String> parsedRow = parseSingleRow(trimmed);
-                if (!parsedRow.isEmpty()) {
-                    rows.add(parsedRow);
-                }
-            } catch (Exception ex) {
-                // Fallback: split by comma respecting quotes
-                List<String> fallbackRow = splitRespectingQuotes(trimmed, ',').stream()
-                        .map(cell -> {
-                            if (cell == null) return "";
-                            String cleaned = cell.trim();
-                            // Remove surrounding quotes if present
-                            if (cleaned.length() >= 2 && cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
-                                cleaned = cleaned.substring(1, cleaned.length() - 1);
-                                // Unescape doubled quotes
-                                cleaned = cleaned.replace("\"\"", "\"");
-                            }
-                            return cleaned;
-                        })
-                        .toList();
-                if (!fallbackRow.isEmpty()) {
-                    rows.add(new ArrayList<>(fallbackRow));
-                }
-            }
-        }
+        CsvTokenizer.tokenize(manualData, row -> rows.add(new ArrayList<>(row)));
         return rows;
     }
 
     /**
-     * Split a string by a delimiter, but respect quoted sections.
-     * Quoted sections (enclosed in double quotes) are not split even if they contain the delimiter.
-     * Handles escaped quotes ("") within quoted sections.
+     * Parse rows straight into a sink (e.g. a ColumnarTable.Builder) without building row lists.
+     * The list passed to the sink is reused for the next row.
      */
-    private static List<String> splitRespectingQuotes(String input, char delimiter) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-        int quoteToggleCount = 0;
-
-        for (int i = 0; i < input.length(); i++) {
-            char c = input.charAt(i);
-
-            if (c == '"') {
-                // Check for escaped quote ("")
-                if (inQuotes && i + 1 < input.length() && input.charAt(i + 1) == '"') {
-                    // This is an escaped quote, add both and skip next
-                    current.append(c);
-                    current.append(input.charAt(i + 1));
-                    i++; // Skip the next quote
-                } else {
-                    // Toggle quote state
-                    inQuotes = !inQuotes;
-                    quoteToggleCount++;
-                    current.append(c);
-                }
-            } else if (c == delimiter && !inQuotes) {
-                // Split here
-                result.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
+    public static void parseRows(String manualData, Consumer<List<String>> sink) {
+        CsvTokenizer.tokenize(manualData, sink);
+    }
 
-        // Add the last segment
-        if (!current.isEmpty()) {
-            result.add(current.toString());
-        }
+    public static void parseRows(Reader reader, Consumer<List<String>> sink) throws IOException {
+        CsvTokenizer.tokenize(reader, sink);
+    }
 
+    // Parse a regular CSV file (one row per line) into a sink; the list passed to the sink is reused
+    public static void parseCsvLines(Reader reader, Consumer<List<String>> sink) throws IOException {
+        CsvTokenizer.tokenizeLines(reader, sink);
+    }
 
-        return result;
+    /**
+     * Parse the input into one sink per chunk, in input order; the chunks are parsed on the given pool.
+     * Inputs below PARALLEL_THRESHOLD are parsed as a single chunk.
+     * Chunks start right after a row separator outside quotes, so every chunk parses exactly as it would in one pass
+     * and concatenating the rows of all sinks gives the rows of parseRows.
+     */
+    public static <S extends Consumer<List<String>>> List<S> parseRowsInChunks(String manualData, Supplier<S> sinkFactory,
+                                                                              ForkJoinPool pool) {
+        if (manualData == null || manualData.isBlank()) {
+            return List.of();
+        }
+        int[] bounds = chunkBoundaries(manualData, pool);
+        int chunks = bounds.length - 1;
+        List<S> sinks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            sinks.add(sinkFactory.get());
+        }
+        if (chunks == 1) {
+            CsvTokenizer.tokenize(manualData, sinks.get(0));
+        } else {
+            pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .forEach(i -> CsvTokenizer.tokenize(manualData, bounds[i], bounds[i + 1], sinks.get(i)))).join();
+        }
+        return sinks;
     }
 
-    private static List<String> parseSingleRow(String row) {
-        try (CSVParser parser = CSVParser.parse(new StringReader(row), CSV_FORMAT)) {
-            List<String> parsed = new ArrayList<>();
-            for (CSVRecord record : parser) {
-                record.forEach(value -> parsed.add(value == null ? "" : value));
+    // Parse table input straight into columns; large inputs are parsed in parallel chunks and merged in order
+    public static ColumnarTable parseColumnar(String manualData, ForkJoinPool pool) {
+        List<ColumnarTable> chunks = new ArrayList<>();
+        for (ColumnarTable.Builder builder : parseRowsInChunks(manualData, ColumnarTable.Builder::new, pool)) {
+            chunks.add(builder.build());
+        }
+        return ColumnarTable.concat(chunks);
+    }
+
+    /**
+     * Start offsets of the chunks plus the input length.
+     * Rows only end at semicolons outside quotes, and whether a position is inside quotes is the parity of the quotes
+     * before it (an escaped "" counts twice). The quotes of every slice are counted in parallel, a prefix sum gives
+     * the state at each slice start, and each chunk then starts after the first free semicolon of its slice.
+     */
+    static int[] chunkBoundaries(String input, ForkJoinPool pool) {
+        int length = input.length();
+        // Chunking only pays off with more than one thread to parse on
+        int slices = length < PARALLEL_THRESHOLD || pool.getParallelism() < 2
+                ? 1
+                : Math.min(pool.getParallelism() * 4, length / MIN_CHUNK_SIZE);
+        if (slices <= 1) {
+            return new int[]{0, length};
+        }
+        int[] sliceStart = new int[slices + 1];
+        for (int i = 0; i <= slices; i++) {
+            sliceStart[i] = (int) ((long) length * i / slices);
+        }
+        boolean[] oddQuotes = new boolean[slices];
+        pool.submit(() -> IntStream.range(0, slices).parallel().forEach(i -> {
+            int quotes = 0;
+            for (int j = sliceStart[i]; j < sliceStart[i + 1]; j++) {
+                if (input.charAt(j) == '"') {
+                    quotes++;
+                }
             }
-            return parsed;
-        } catch (IOException ex) {
-            throw new IllegalArgumentException("Failed to parse CSV row", ex);
+            oddQuotes[i] = (quotes & 1) == 1;
+        })).join();
+        boolean[] inQuotesAtStart = new boolean[slices];
+        for (int i = 1; i < slices; i++) {
+            inQuotesAtStart[i] = inQuotesAtStart[i - 1] ^ oddQuotes[i - 1];
         }
+        // A slice without a free semicolon leaves its chunk empty; later starts are never earlier
+        int[] bounds = new int[slices + 1];
+        pool.submit(() -> IntStream.range(1, slices).parallel().forEach(i -> {
+            boolean inQuotes = inQuotesAtStart[i];
+            int j = sliceStart[i];
+            while (j < length) {
+                char c = input.charAt(j++);
+                if (c == '"') {
+                    inQuotes = !inQuotes;
+                } else if (c == ';' && !inQuotes) {
+                    break;
+                }
+            }
+            bounds[i] = j;
+        })).join();
+        bounds[slices] = length;
+        return bounds;
     }
 
     public static String toCompactString(List<List<String>> rows) {
@@ -138,6 +158,51 @@ public final class CsvParsingUtil {
         return String.join(";", serialized);
     }
 
+    /**
+     * Rows in the manual data format, such that parseRows gives the same rows back.
+     * Cells are quoted when they contain a comma, semicolon, quote or line break, have surrounding whitespace,
+     * or are the only, empty cell of their row.
+     */
+    public static String toManualDataString(List<List<String>> rows) {
+        StringBuilder out = new StringBuilder();
+        for (List<String> row : rows) {
+            if (row == null || row.isEmpty()) {
+                continue;
+            }
+            if (!out.isEmpty()) {
+                out.append(';');
+            }
+            for (int i = 0; i < row.size(); i++) {
+                String cell = row.get(i) == null ? "" : row.get(i);
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (needsQuotes(cell) || (row.size() == 1 && cell.isEmpty())) {
+                    out.append('"').append(cell.replace("\"", "\"\"")).append('"');
+                } else {
+                    out.append(cell);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean needsQuotes(String cell) {
+        if (cell.isEmpty()) {
+            return false;
+        }
+        if (cell.charAt(0) <= ' ' || cell.charAt(cell.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            if (c == ',' || c == ';' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static String writeRow(List<String> row) {
         if (row == null || row.isEmpty()) {
             return "";
@@ -193,14 +258,7 @@ public final class CsvParsingUtil {
             // Replace commas and semicolons within cell values with a safe placeholder
             List<String> sanitizedCells = new ArrayList<>(row.size());
             for (String cell : row) {
-                if (cell == null) {
-                    sanitizedCells.add("");
-                } else {
-                    // Replace internal commas and semicolons with vertical bar to preserve data integrity
-                    // Also remove any double quotes that might interfere with parsing
-                    String sanitized = cell.replace(",", "|").replace(";", "|").replace("\"", "");
-                    sanitizedCells.add(sanitized.trim());
-                }
+                sanitizedCells.add(toRicCell(cell));
             }
             String rowStr = String.join(",", sanitizedCells);
             if (!rowStr.replace(",", "").trim().isEmpty()) {
@@ -209,4 +267,12 @@ public final class CsvParsingUtil {
         }
         return String.join(";", serialized);
     }
+
+    // One cell in RIC format: internal commas and semicolons become a vertical bar, double quotes are removed
+    public static String toRicCell(String cell) {
+        if (cell == null) {
+            return "";
+        }
+        return cell.replace(",", "|").replace(";", "|").replace("\"", "").trim();
+    }
 }
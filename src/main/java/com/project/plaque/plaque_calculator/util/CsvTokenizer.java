@@ -0,0 +1,313 @@
+package com.project.plaque.plaque_calculator.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass tokenizer for the table input format: rows separated by semicolons (outside quotes),
+ * cells separated by commas with RFC-4180 quoting.
+ * Every character is read once and cells go straight to a row sink; no row strings are built.
+ * Rules (the same results as splitting rows first and parsing each with commons-csv):
+ * - Rows are trimmed and empty rows are skipped
+ * - Line breaks inside a row start a new record whose cells are appended to the same row
+ * - Whitespace between a closing quote and the next comma is ignored
+ * - A row that is not valid CSV (text after a closing quote, unterminated quote) is split on commas
+ *   outside quotes instead, with cells trimmed and surrounding quotes removed. Its text is read again from
+ *   the input buffer for that; only the part of a row read with an earlier buffer is kept (see carry)
+ * tokenizeLines reads regular CSV files instead: rows end at line breaks outside quotes and semicolons are plain text.
+ */
+public final class CsvTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private enum State { TOKEN_START, SIMPLE, QUOTED, QUOTE_IN_QUOTED, AFTER_CLOSING_QUOTE }
+
+    private final Consumer<List<String>> sink;
+    // Rows end at line breaks instead of semicolons
+    private final boolean lineRows;
+
+    // Row splitting (semicolons outside quotes)
+    private boolean rowInQuotes;
+    private boolean rowQuotePending;
+    private boolean rowStarted;
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+    // Current input buffer and the offset in it where the current row starts
+    private char[] buffer;
+    private int rowStart;
+    // Start of the current row read with earlier buffers (rows that cross a buffer boundary), for the fallback split
+    private final StringBuilder carry = new StringBuilder();
+
+    // Cell parsing
+    private State state = State.TOKEN_START;
+    private boolean lastTokenDelimiter;
+    private boolean skipLineFeed;
+    private boolean invalid;
+    private final StringBuilder cell = new StringBuilder();
+    private final List<String> cells = new ArrayList<>();
+
+    private CsvTokenizer(Consumer<List<String>> sink, boolean lineRows) {
+        this.sink = sink;
+        this.lineRows = lineRows;
+    }
+
+    // The sink receives every row; the list is reused for the next row, so copy it to keep it
+    public static void tokenize(String input, Consumer<List<String>> sink) {
+        if (input == null) {
+            return;
+        }
+        tokenize(input, 0, input.length(), sink);
+    }
+
+    // Tokenize input[from, to) as if it were the whole input (from must be the start of a row)
+    public static void tokenize(String input, int from, int to, Consumer<List<String>> sink) {
+        CsvTokenizer tokenizer = new CsvTokenizer(sink, false);
+        char[] buffer = new char[Math.min(BUFFER_SIZE, Math.max(1, to - from))];
+        for (int start = from; start < to; start += buffer.length) {
+            int end = Math.min(to, start + buffer.length);
+            input.getChars(start, end, buffer, 0);
+            tokenizer.accept(buffer, end - start);
+        }
+        tokenizer.endInput();
+    }
+
+    public static void tokenize(Reader reader, Consumer<List<String>> sink) throws IOException {
+        read(new CsvTokenizer(sink, false), reader);
+    }
+
+    // One row per line (\n, \r\n or \r outside quotes), as in CSV files
+    public static void tokenizeLines(Reader reader, Consumer<List<String>> sink) throws IOException {
+        read(new CsvTokenizer(sink, true), reader);
+    }
+
+    private static void read(CsvTokenizer tokenizer, Reader reader) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            tokenizer.accept(buffer, read);
+        }
+        tokenizer.endInput();
+    }
+
+    private void accept(char[] buffer, int length) {
+        this.buffer = buffer;
+        rowStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = buffer[i];
+            if (rowQuotePending) {
+                // A quote inside quotes is either the first half of "" or the closing quote
+                rowQuotePending = false;
+                if (c == '"') {
+                    rowChar(c);
+                    continue;
+                }
+                rowInQuotes = false;
+            }
+            if (c == '"') {
+                if (rowInQuotes) {
+                    rowQuotePending = true;
+                } else {
+                    rowInQuotes = true;
+                }
+                rowChar(c);
+            } else if (!rowInQuotes && (lineRows ? c == '\n' || c == '\r' : c == ';')) {
+                // In line mode \r\n ends a row and then an empty one, which is skipped
+                endRow(i);
+                rowStart = i + 1;
+            } else {
+                rowChar(c);
+            }
+        }
+        // The buffer is reused; keep what the fallback split could still need (leading whitespace is never needed)
+        if (rowStarted) {
+            carry.append(buffer, rowStart, length - rowStart);
+        }
+        rowStart = length;
+    }
+
+    private void endInput() {
+        endRow(rowStart);
+    }
+
+    // Trim the row: leading whitespace is dropped, inner whitespace is held back until more text follows
+    private void rowChar(char c) {
+        if (c <= ' ') {
+            if (rowStarted) {
+                pendingWhitespace.append(c);
+            }
+            return;
+        }
+        rowStarted = true;
+        for (int i = 0; i < pendingWhitespace.length(); i++) {
+            cellChar(pendingWhitespace.charAt(i));
+        }
+        pendingWhitespace.setLength(0);
+        cellChar(c);
+    }
+
+    // The current row ends before buffer[end]
+    private void endRow(int end) {
+        if (rowStarted) {
+            if (!invalid) {
+                finishCells();
+            }
+            if (invalid) {
+                fallbackSplit(rowText(end));
+            }
+            if (!cells.isEmpty()) {
+                sink.accept(cells);
+            }
+        }
+        rowInQuotes = false;
+        rowQuotePending = false;
+        rowStarted = false;
+        pendingWhitespace.setLength(0);
+        carry.setLength(0);
+        state = State.TOKEN_START;
+        lastTokenDelimiter = false;
+        skipLineFeed = false;
+        invalid = false;
+        cell.setLength(0);
+        cells.clear();
+    }
+
+    private void cellChar(char c) {
+        if (invalid) {
+            return;
+        }
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (c == '\n') {
+                return;
+            }
+        }
+        switch (state) {
+            case TOKEN_START -> {
+                if (c == ',') {
+                    cells.add("");
+                    lastTokenDelimiter = true;
+                } else if (c == '\r' || c == '\n') {
+                    cells.add("");
+                    endRecord(c);
+                } else if (c == '"') {
+                    state = State.QUOTED;
+                } else {
+                    cell.append(c);
+                    state = State.SIMPLE;
+                }
+            }
+            case SIMPLE -> {
+                if (c == ',') {
+                    endCell(true);
+                } else if (c == '\r' || c == '\n') {
+                    endCell(false);
+                    endRecord(c);
+                } else {
+                    cell.append(c);
+                }
+            }
+            case QUOTED -> {
+                if (c == '"') {
+                    state = State.QUOTE_IN_QUOTED;
+                } else {
+                    cell.append(c);
+                }
+            }
+            case QUOTE_IN_QUOTED -> {
+                if (c == '"') {
+                    cell.append(c);
+                    state = State.QUOTED;
+                } else {
+                    state = State.AFTER_CLOSING_QUOTE;
+                    afterClosingQuote(c);
+                }
+            }
+            case AFTER_CLOSING_QUOTE -> afterClosingQuote(c);
+        }
+    }
+
+    private void afterClosingQuote(char c) {
+        if (c == ',') {
+            endCell(true);
+        } else if (c == '\r' || c == '\n') {
+            endCell(false);
+            endRecord(c);
+        } else if (!Character.isWhitespace(c)) {
+            invalid = true;
+        }
+    }
+
+    private void endCell(boolean delimiter) {
+        cells.add(cell.toString());
+        cell.setLength(0);
+        state = State.TOKEN_START;
+        lastTokenDelimiter = delimiter;
+    }
+
+    private void endRecord(char lineBreak) {
+        state = State.TOKEN_START;
+        lastTokenDelimiter = false;
+        skipLineFeed = lineBreak == '\r';
+    }
+
+    // End of the row text
+    private void finishCells() {
+        switch (state) {
+            case TOKEN_START -> {
+                if (lastTokenDelimiter) {
+                    cells.add("");
+                }
+            }
+            case SIMPLE, QUOTE_IN_QUOTED, AFTER_CLOSING_QUOTE -> endCell(false);
+            case QUOTED -> invalid = true;
+        }
+    }
+
+    // Trimmed text of the current row; only built for invalid rows
+    private String rowText(int end) {
+        if (carry.isEmpty()) {
+            return new String(buffer, rowStart, end - rowStart).trim();
+        }
+        if (end > rowStart) {
+            carry.append(buffer, rowStart, end - rowStart);
+        }
+        return carry.toString().trim();
+    }
+
+    // Split on commas outside quotes; cells are trimmed and unquoted, an empty last cell is dropped
+    private void fallbackSplit(CharSequence row) {
+        cells.clear();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (c == '"') {
+                if (inQuotes && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    current.append(c).append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                    current.append(c);
+                }
+            } else if (c == ',' && !inQuotes) {
+                cells.add(unquote(current));
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (!current.isEmpty()) {
+            cells.add(unquote(current));
+        }
+    }
+
+    private static String unquote(CharSequence cellText) {
+        String cleaned = cellText.toString().trim();
+        if (cleaned.length() >= 2 && cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1).replace("\"\"", "\"");
+        }
+        return cleaned;
+    }
+}
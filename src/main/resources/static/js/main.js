@@ -330,6 +330,120 @@ document.addEventListener('DOMContentLoaded', function() {
         Array.from(fdTableBody.rows).forEach((r, i) => r.cells[0].textContent = i + 1);
     }
 
+    // Discover the FDs that hold on the entered table data and offer them in the FD table
+    const discoverFdsBtn = document.getElementById('discoverFdsBtn');
+    if (discoverFdsBtn) {
+        discoverFdsBtn.addEventListener('click', () => {
+            syncManualDataFromTable();
+            const manualData = document.getElementById('manualData').value.trim();
+            if (!manualData) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Table Data Missing',
+                    text: 'Please enter any table data (manual or CSV).',
+                    confirmButtonText: 'Close'
+                });
+                return;
+            }
+            const params = new URLSearchParams();
+            params.set('manualData', manualData);
+            discoverFdsBtn.disabled = true;
+            fetch('/compute/discover-fds', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8' },
+                body: params.toString()
+            })
+            .then(resp => resp.json().then(data => {
+                if (!resp.ok) throw new Error(data.error || 'FD discovery failed.');
+                return data;
+            }))
+            .then(data => {
+                const fds = data.fds || [];
+                // Columns with one value everywhere; they have no FD form in the table, so they are only reported
+                const constants = data.constantColumns || [];
+                const constantNote = constants.length > 0
+                    ? ` Constant column(s) ${constants.join(', ')} hold a single value and are not listed as FDs.`
+                    : '';
+                if (fds.length === 0) {
+                    Swal.fire({ icon: 'info', title: 'No FDs found', text: `No non-trivial FD holds on this data.${constantNote}` });
+                    return;
+                }
+                populateFdTableFromCsv(fds);
+                const note = data.complete ? '' : ' The search stopped early, so the list may be incomplete.';
+                const sampleNote = data.sampled
+                    ? ` Candidates were found on a sample of ${data.sampleRows} row(s) and verified on all rows.`
+                    : '';
+                Swal.fire({
+                    icon: 'success',
+                    title: 'FDs discovered',
+                    text: `${fds.length} minimal FD(s) hold on ${data.rows} row(s) (${data.elapsedMs} ms).${constantNote}${sampleNote}${note}`
+                });
+            })
+            .catch(err => {
+                Swal.fire({ icon: 'error', title: 'FD discovery failed', text: err.message });
+            })
+            .finally(() => {
+                discoverFdsBtn.disabled = false;
+            });
+        });
+    }
+
+    const discoverKeysBtn = document.getElementById('discoverKeysBtn');
+    if (discoverKeysBtn) {
+        discoverKeysBtn.addEventListener('click', () => {
+            syncManualDataFromTable();
+            const manualData = document.getElementById('manualData').value.trim();
+            if (!manualData) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Table Data Missing',
+                    text: 'Please enter any table data (manual or CSV).',
+                    confirmButtonText: 'Close'
+                });
+                return;
+            }
+            const fds = Array.from(document.querySelectorAll('#fdTable tbody tr'))
+                .map(row => {
+                    const lhs = row.cells[1].textContent.trim();
+                    const rhs = row.cells[3].textContent.trim();
+                    return lhs && rhs ? `${lhs}->${rhs}` : null;
+                })
+                .filter(s => s)
+                .join(';');
+            const params = new URLSearchParams();
+            params.set('manualData', manualData);
+            if (fds) params.set('fds', fds);
+            discoverKeysBtn.disabled = true;
+            fetch('/compute/discover-keys', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8' },
+                body: params.toString()
+            })
+            .then(resp => resp.json().then(data => {
+                if (!resp.ok) throw new Error(data.error || 'Key discovery failed.');
+                return data;
+            }))
+            .then(data => {
+                const keys = data.keys || [];
+                const list = keys.length
+                    ? keys.map(k => `{${k}}`).join(', ')
+                    : 'none (the table contains duplicate rows)';
+                const note = data.complete ? '' : ' The search stopped early, so larger keys may be missing.';
+                let text = `Keys of the data: ${list} (${data.elapsedMs} ms).${note}`;
+                if (data.fdKeys) {
+                    text += ` Candidate keys implied by the entered FDs: ${data.fdKeys.map(k => `{${k}}`).join(', ')}.`;
+                }
+                Swal.fire({ icon: 'info', title: 'Keys discovered', text });
+            })
+            .catch(err => {
+                Swal.fire({ icon: 'error', title: 'Key discovery failed', text: err.message });
+            })
+            .finally(() => {
+                discoverKeysBtn.disabled = false;
+            });
+        });
+    }
+
     // Functional dependencies file preview section
     const fdFileInput = document.getElementById('fdfile');
     let fullFdData     = [];
@@ -589,6 +703,20 @@ document.addEventListener('DOMContentLoaded', function() {
                 }
             });
 
+            source.addEventListener('fd-validation', event => {
+                try {
+                    const payload = JSON.parse(event.data);
+                    if (!payload || payload.holds) return;
+                    const example = (payload.examples || [])[0];
+                    const detail = example
+                        ? ` (e.g. rows ${example.rows.join(', ')} share LHS values ${example.lhsValues.join(', ')})`
+                        : '';
+                    appendStatus(`FD ${payload.fd} does not hold on the data: ${payload.violatingGroups} conflicting row group(s)${detail}`);
+                } catch (err) {
+                    // Ignore malformed validation events
+                }
+            });
+
             source.addEventListener('complete', event => {
                 source.close();
                 if (computeBtn) computeBtn.disabled = false;
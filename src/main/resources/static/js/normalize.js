@@ -1192,8 +1192,8 @@ document.addEventListener('DOMContentLoaded', () => {
         const badgesContainer = document.createElement('div');
         badgesContainer.classList.add('normal-form-badges');
 
-        // Normal form hierarchy
-        const normalForms = ['1NF', '2NF', '3NF', 'BCNF'];
+        // Normal form hierarchy; UNDETERMINED when too many candidate keys leave 2NF/3NF open
+        const normalForms = ['1NF', '2NF', '3NF', 'BCNF', 'UNDETERMINED'];
         const currentIndex = normalForms.indexOf(currentNF.toUpperCase());
 
         if (currentIndex === -1) return; // Invalid normal form
@@ -1213,10 +1213,10 @@ document.addEventListener('DOMContentLoaded', () => {
         // Add check icon and text
         const checkIcon = document.createElement('span');
         checkIcon.classList.add('check-icon');
-        checkIcon.textContent = '✓';
+        checkIcon.textContent = nf === 'UNDETERMINED' ? '?' : '✓';
 
         const text = document.createElement('span');
-        text.textContent = nf;
+        text.textContent = nf === 'UNDETERMINED' ? 'NF undetermined' : nf;
 
         badge.appendChild(checkIcon);
         badge.appendChild(text);
@@ -1243,7 +1243,8 @@ document.addEventListener('DOMContentLoaded', () => {
             '1NF': 'First Normal Form: All attributes are atomic',
             '2NF': 'Second Normal Form: No partial dependencies',
             '3NF': 'Third Normal Form: No transitive dependencies',
-            'BCNF': 'Boyce-Codd Normal Form: Every determinant is a candidate key'
+            'BCNF': 'Boyce-Codd Normal Form: Every determinant is a candidate key',
+            'UNDETERMINED': 'Not in BCNF; too many candidate keys to decide 2NF/3NF exactly'
         };
 
         const prefix = isCurrent ? 'Current: ' : 'Satisfies: ';
@@ -1263,8 +1264,8 @@ document.addEventListener('DOMContentLoaded', () => {
         badgesContainer.classList.add('normal-form-badges');
         badgesContainer.style.marginBottom = '12px';
 
-        // Normal form hierarchy
-        const normalForms = ['1NF', '2NF', '3NF', 'BCNF'];
+        // Normal form hierarchy; UNDETERMINED when too many candidate keys leave 2NF/3NF open
+        const normalForms = ['1NF', '2NF', '3NF', 'BCNF', 'UNDETERMINED'];
         const currentIndex = normalForms.indexOf(currentNF.toUpperCase());
 
         // Invalid normal form
@@ -1285,10 +1286,10 @@ document.addEventListener('DOMContentLoaded', () => {
         // Add check icon and text
         const checkIcon = document.createElement('span');
         checkIcon.classList.add('check-icon');
-        checkIcon.textContent = '✓';
+        checkIcon.textContent = nf === 'UNDETERMINED' ? '?' : '✓';
 
         const text = document.createElement('span');
-        text.textContent = nf;
+        text.textContent = nf === 'UNDETERMINED' ? 'NF undetermined' : nf;
 
         badge.appendChild(checkIcon);
         badge.appendChild(text);
@@ -0,0 +1,116 @@
+package com.project.plaque.plaque_calculator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ColumnarTableTest {
+
+	private static final List<List<String>> ROWS = List.of(
+			List.of("1", "Alice", "Berlin"),
+			List.of("2", "Bob", "Paris"),
+			List.of("1", "Alice", "Berlin"),
+			List.of("3", "Alice", "Rome"),
+			List.of("2", "Bob", "Paris"));
+
+	@Test
+	void rowsRoundTrip() {
+		ColumnarTable table = ColumnarTable.fromRows(ROWS);
+		assertEquals(5, table.getRowCount());
+		assertEquals(3, table.getColumnCount());
+		assertEquals(ROWS, table.toRows());
+		assertEquals(List.of("3", "Alice", "Rome"), table.getRow(3));
+		assertEquals(2, table.getCardinality(1));
+		assertEquals("Paris", table.getValue(4, 2));
+	}
+
+	@Test
+	void shortRowsArePadded() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(List.of("a", "b"), List.of("c")));
+		assertEquals(List.of(List.of("a", "b"), List.of("c", "")), table.toRows());
+	}
+
+	@Test
+	void bytesRoundTrip() {
+		Random random = new Random(3);
+		for (int run = 0; run < 50; run++) {
+			List<List<String>> rows = randomRows(random, 1 + random.nextInt(40), 1 + random.nextInt(5), 1 + random.nextInt(300));
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			byte[] bytes = table.toBytes();
+			ColumnarTable read = ColumnarTable.fromBytes(bytes);
+			assertEquals(rows, read.toRows());
+			assertArrayEquals(bytes, read.toBytes());
+		}
+	}
+
+	@Test
+	void equalRowsEncodeToEqualBytes() {
+		assertArrayEquals(ColumnarTable.fromRows(ROWS).toBytes(), ColumnarTable.fromRows(new ArrayList<>(ROWS)).toBytes());
+	}
+
+	@Test
+	void distinctKeepsFirstAppearance() {
+		ColumnarTable distinct = ColumnarTable.fromRows(ROWS).distinct();
+		assertEquals(List.of(ROWS.get(0), ROWS.get(1), ROWS.get(3)), distinct.toRows());
+	}
+
+	@Test
+	void projectMatchesDistinctProjectedRows() {
+		Random random = new Random(5);
+		for (int run = 0; run < 50; run++) {
+			List<List<String>> rows = randomRows(random, 1 + random.nextInt(30), 4, 3);
+			int[] projection = {random.nextInt(4), random.nextInt(4)};
+			Set<List<String>> expected = new LinkedHashSet<>();
+			for (List<String> row : rows) {
+				expected.add(List.of(row.get(projection[0]), row.get(projection[1])));
+			}
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			assertEquals(new ArrayList<>(expected), table.project(projection).toRows());
+			assertEquals(expected.size(), table.distinctRows(projection).length);
+		}
+	}
+
+	@Test
+	void concatMatchesOneTableOfAllRows() {
+		ColumnarTable first = ColumnarTable.fromRows(ROWS.subList(0, 2));
+		ColumnarTable second = ColumnarTable.fromRows(ROWS.subList(2, 5));
+		ColumnarTable concatenated = ColumnarTable.concat(List.of(first, second));
+		assertEquals(ROWS, concatenated.toRows());
+		assertArrayEquals(ColumnarTable.fromRows(ROWS).toBytes(), concatenated.toBytes());
+	}
+
+	@Test
+	void mapValuesMergesEqualResults() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(List.of(" a"), List.of("a "), List.of("b")));
+		ColumnarTable trimmed = table.mapValues(String::trim);
+		assertEquals(List.of(List.of("a"), List.of("a"), List.of("b")), trimmed.toRows());
+		assertEquals(2, trimmed.getCardinality(0));
+	}
+
+	@Test
+	void selectRowsKeepsTheGivenOrder() {
+		ColumnarTable table = ColumnarTable.fromRows(ROWS);
+		assertEquals(List.of(ROWS.get(3), ROWS.get(0)), table.selectRows(new int[]{3, 0}).toRows());
+		assertSame(table, table.selectRows(new int[]{0, 1, 2, 3, 4}));
+	}
+
+	private static List<List<String>> randomRows(Random random, int rowCount, int columnCount, int cardinality) {
+		List<List<String>> rows = new ArrayList<>();
+		for (int r = 0; r < rowCount; r++) {
+			List<String> row = new ArrayList<>();
+			for (int c = 0; c < columnCount; c++) {
+				row.add(c == 0 && r % 7 == 0 ? "ü\"," + r : "v" + random.nextInt(cardinality));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,80 @@
+package com.project.plaque.plaque_calculator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NormalizationHistoryTest {
+
+	@Test
+	void popReturnsStatesNewestFirst() {
+		NormalizationHistory history = new NormalizationHistory();
+		Map<String, Object> first = state(List.of("1,2"), "A->B");
+		Map<String, Object> second = state(List.of("1,2", "2,3"), "A->B");
+		history.append(first);
+		history.append(second);
+
+		assertEquals(2, history.size());
+		assertEquals(second, history.latest());
+		assertEquals(first, history.get(0));
+		assertEquals(second, history.pop());
+		assertEquals(first, history.pop());
+		assertTrue(history.isEmpty());
+		assertNull(history.pop());
+		assertNull(history.latest());
+	}
+
+	@Test
+	void unchangedValuesAreStoredOnce() {
+		NormalizationHistory history = new NormalizationHistory();
+		for (int i = 0; i < 10; i++) {
+			history.append(state(List.of("1,2", "2,3"), "A->B"));
+		}
+		// The two tables and the FD string
+		assertEquals(3, history.getSharedValueCount());
+
+		history.append(state(List.of("1,2", "3,4"), "A->B"));
+		assertEquals(4, history.getSharedValueCount());
+		history.pop();
+		assertEquals(3, history.getSharedValueCount());
+	}
+
+	@Test
+	void removedKeysAreRestoredOnPop() {
+		NormalizationHistory history = new NormalizationHistory();
+		Map<String, Object> full = state(List.of("1,2"), "A->B");
+		Map<String, Object> reduced = new LinkedHashMap<>();
+		reduced.put("manualPerTable", List.of("1,2"));
+		history.append(full);
+		history.append(reduced);
+
+		assertEquals(reduced, history.latest());
+		history.pop();
+		assertEquals(full, history.latest());
+		assertEquals(List.copyOf(full.keySet()), List.copyOf(history.latest().keySet()));
+	}
+
+	@Test
+	void storedStatesAreReadOnly() {
+		NormalizationHistory history = new NormalizationHistory();
+		history.append(state(List.of("1,2"), "A->B"));
+		@SuppressWarnings("unchecked")
+		List<Object> tables = (List<Object>) history.latest().get("manualPerTable");
+		assertThrows(UnsupportedOperationException.class, () -> tables.add("3,4"));
+		assertThrows(IndexOutOfBoundsException.class, () -> history.get(1));
+	}
+
+	private static Map<String, Object> state(List<String> tables, String fds) {
+		Map<String, Object> state = new LinkedHashMap<>();
+		state.put("manualPerTable", tables);
+		state.put("fds", fds);
+		return state;
+	}
+}
@@ -0,0 +1,67 @@
+package com.project.plaque.plaque_calculator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParsedTableTest {
+
+	@Test
+	void parsesRowsAndCounts() {
+		ParsedTable table = ParsedTable.parse("1,a;2,b,x;3,c", ForkJoinPool.commonPool());
+		assertEquals(3, table.getRowCount());
+		assertEquals(3, table.getColumnCount());
+		assertFalse(table.isConsistent());
+		assertEquals(1, table.getFirstInconsistentRow());
+		assertEquals(List.of("2", "b", "x"), table.getRows().get(1));
+		assertEquals("1,a;2,b,x;3,c", table.getSource());
+	}
+
+	@Test
+	void blankInputIsEmpty() {
+		ParsedTable table = ParsedTable.parse("  ", ForkJoinPool.commonPool());
+		assertTrue(table.isEmpty());
+		assertTrue(table.isConsistent());
+		assertEquals(0, table.getColumnCount());
+	}
+
+	@Test
+	void distinctTableTrimsCells() {
+		ParsedTable table = ParsedTable.parse("1, a;1,a ;2,b", ForkJoinPool.commonPool());
+		assertEquals(3, table.toColumnar().getRowCount());
+		assertEquals(List.of(List.of("1", "a"), List.of("2", "b")), table.getDistinctRows());
+		assertSame(table.getDistinctTable(), table.getDistinctTable());
+	}
+
+	@Test
+	void ricEncodedSourceParsesBackToItsRows() {
+		ParsedTable table = ParsedTable.parse("\"a,b\",c;\"\",\"\";x;\"q\"\"r\",s", ForkJoinPool.commonPool());
+		ParsedTable ric = table.ricEncoded();
+		assertSame(ric, ric.ricEncoded());
+		assertEquals(3, ric.getRowCount());
+		assertEquals(ric.getRows(), ParsedTable.parse(table.getRicString(), ForkJoinPool.commonPool()).getRows());
+		for (List<String> row : ric.getRows()) {
+			for (String cell : row) {
+				assertFalse(cell.contains(",") || cell.contains(";") || cell.contains("\""), cell);
+			}
+		}
+	}
+
+	@Test
+	void viewOfAColumnarTableMatchesTheParsedTable() {
+		String input = "1,\" a,b\";2,\"c\"\"d\"; ;3,\"\";2,\"c\"\"d\";\"\",\"\"";
+		ParsedTable parsed = ParsedTable.parse(input, ForkJoinPool.commonPool());
+		ParsedTable view = ParsedTable.of(parsed.toColumnar());
+		assertEquals(parsed.getRows(), view.getRows());
+		assertEquals(parsed.getRows(), ParsedTable.parse(view.getSource(), ForkJoinPool.commonPool()).getRows());
+		assertEquals(parsed.getDistinctRows(), view.getDistinctRows());
+		assertEquals(parsed.ricEncoded().getRows(), view.ricEncoded().getRows());
+		assertEquals(parsed.getRicString(), view.getRicString());
+	}
+}
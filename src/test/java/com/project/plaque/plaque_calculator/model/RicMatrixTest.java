@@ -0,0 +1,56 @@
+package com.project.plaque.plaque_calculator.model;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RicMatrixTest {
+
+	private static final double[][] RAGGED = {{1.0, 0.5, 0.25}, {0.75}, {}, {0.1, 1.0}};
+
+	@Test
+	void keepsRaggedRows() {
+		RicMatrix matrix = RicMatrix.of(RAGGED);
+		assertEquals(4, matrix.getRowCount());
+		assertEquals(3, matrix.getColumnCount());
+		assertEquals(1, matrix.getRowLength(1));
+		assertEquals(0, matrix.getRowLength(2));
+		assertEquals(0.1, matrix.get(3, 0), 0.0);
+		assertArrayEquals(RAGGED, matrix.toArray());
+		assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(1, 1));
+	}
+
+	@Test
+	void missingRowsAreSkipped() {
+		RicMatrix matrix = RicMatrix.of(new double[][] {{1.0}, null, {0.5}});
+		assertArrayEquals(new double[][] {{1.0}, {0.5}}, matrix.toArray());
+		assertSame(RicMatrix.EMPTY, RicMatrix.of(null));
+		assertTrue(RicMatrix.of(new double[0][]).isEmpty());
+	}
+
+	@Test
+	void cellsAreFormattedAsThePagesCompareThem() {
+		RicMatrix matrix = RicMatrix.of(RAGGED);
+		assertEquals("1.0", matrix.format(0, 0));
+		assertArrayEquals(new String[] {"1.0", "0.5", "0.25"}, matrix.asStringRows().get(0));
+		assertEquals(new Gson().toJson(matrix.asStringRows()), matrix.toJson());
+	}
+
+	@Test
+	void serializationRoundTrip() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(RicMatrix.of(RAGGED));
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertArrayEquals(RAGGED, ((RicMatrix) in.readObject()).toArray());
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BcnfCheckerTest {
+
+	@Test
+	void textbookViolation() {
+		// R(A,B,C) with AB->C, C->B: C is no superkey
+		ClosureEngine engine = new ClosureEngine(attrs("ABC"), fds("AB->C", "C->B"));
+		BcnfChecker checker = new BcnfChecker(engine, attrs("ABC"));
+		assertEquals(BcnfChecker.Strategy.FD_LHS, checker.strategy());
+		assertFalse(checker.isBcnf());
+		assertEquals(attrs("C"), engine.toNames(checker.findViolation()));
+	}
+
+	@Test
+	void keyDeterminantsAreBcnf() {
+		BcnfChecker checker = new BcnfChecker(attrs("ABC"), fds("A->BC", "BC->A"));
+		assertTrue(checker.isBcnf());
+		assertNull(checker.findViolation());
+		assertTrue(new BcnfChecker(attrs("ABC"), List.of()).isBcnf());
+	}
+
+	@Test
+	void fdsThroughOtherAttributesAreSearched() {
+		// A->C holds on ACD through B, and A is no key of ACD
+		ClosureEngine engine = new ClosureEngine(attrs("ABCD"), fds("A->B", "B->C"));
+		BcnfChecker checker = new BcnfChecker(engine, attrs("ACD"));
+		assertEquals(BcnfChecker.Strategy.SUBSET_SEARCH, checker.strategy());
+		assertEquals(attrs("A"), engine.toNames(checker.findViolation()));
+		// On AC, A is the key
+		assertTrue(new BcnfChecker(engine, attrs("AC")).isBcnf());
+	}
+
+	@Test
+	void matchesTheDefinitionOnRandomRelations() {
+		Random random = new Random(14);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 300; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(7));
+			List<String> relation = new ArrayList<>();
+			for (String attribute : attributes) {
+				if (run % 2 == 0 || random.nextInt(3) > 0) {
+					relation.add(attribute);
+				}
+			}
+			ClosureEngine engine = new ClosureEngine(attributes, fds);
+			BcnfChecker checker = new BcnfChecker(engine, new LinkedHashSet<>(relation));
+			String context = relation + " under " + fds;
+			assertEquals(isBcnf(relation, fds), checker.isBcnf(), context);
+			for (BitSet violation : checker.findViolations(5)) {
+				assertTrue(violates(engine.toNames(violation), relation, fds), engine.toNames(violation) + " in " + context);
+			}
+		}
+	}
+
+	private static boolean isBcnf(List<String> relation, List<FD> fds) {
+		for (Set<String> x : subsets(relation)) {
+			if (violates(x, relation, fds)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// X determines an attribute of R outside X without determining all of R
+	private static boolean violates(Set<String> x, List<String> relation, List<FD> fds) {
+		Set<String> closure = closure(x, fds);
+		if (closure.containsAll(relation)) {
+			return false;
+		}
+		for (String attribute : relation) {
+			if (!x.contains(attribute) && closure.contains(attribute)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,84 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BcnfDecompositionEngineTest {
+
+	private ForkJoinPool pool;
+	private BcnfDecompositionEngine engine;
+
+	@BeforeEach
+	void createEngine() {
+		pool = new ForkJoinPool(2);
+		engine = new BcnfDecompositionEngine(pool);
+	}
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void textbookDecompositionLosesTheKeyFd() {
+		// R(A,B,C) with AB->C, C->B splits on C into BC and AC
+		BcnfDecompositionEngine.Result result = engine.decompose(List.of("A", "B", "C"), fds("AB->C", "C->B"), 5);
+		assertTrue(result.complete());
+		assertEquals(1, result.candidates().size());
+		BcnfDecompositionEngine.Candidate candidate = result.candidates().get(0);
+		assertEquals(Set.of(attrs("BC"), attrs("AC")), new HashSet<>(candidate.schemas()));
+		assertFalse(candidate.dependencyPreserving());
+		assertEquals(fds("AB->C"), candidate.missingFds());
+	}
+
+	@Test
+	void relationInBcnfStaysWhole() {
+		BcnfDecompositionEngine.Result result = engine.decompose(List.of("A", "B", "C"), fds("A->BC"), 5);
+		assertEquals(List.of(attrs("ABC")), result.candidates().get(0).schemas());
+		assertTrue(result.candidates().get(0).dependencyPreserving());
+	}
+
+	@Test
+	void transitiveChainIsPreserved() {
+		// A->B, B->C: splitting on B gives AB and BC, which keeps both FDs
+		BcnfDecompositionEngine.Result result = engine.decompose(List.of("A", "B", "C"), fds("A->B", "B->C"), 5);
+		BcnfDecompositionEngine.Candidate best = result.candidates().get(0);
+		assertEquals(Set.of(attrs("AB"), attrs("BC")), new HashSet<>(best.schemas()));
+		assertTrue(best.dependencyPreserving());
+	}
+
+	@Test
+	void randomDecompositionsAreLosslessAndBcnf() {
+		Random random = new Random(15);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 100; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(7));
+			BcnfDecompositionEngine.Result result = engine.decompose(attributes, fds, 4);
+			assertFalse(result.candidates().isEmpty());
+			assertTrue(result.candidates().size() <= 4);
+			ClosureEngine closures = new ClosureEngine(attributes, fds);
+			int previousSize = 0;
+			for (BcnfDecompositionEngine.Candidate candidate : result.candidates()) {
+				String context = candidate.schemas() + " under " + fds;
+				assertTrue(candidate.schemas().size() >= previousSize, "ranked by table count: " + context);
+				previousSize = candidate.schemas().size();
+				assertTrue(new ChaseEngine(attributes, candidate.schemas(), fds).isLossless(), context);
+				for (Set<String> schema : candidate.schemas()) {
+					assertTrue(new BcnfChecker(closures, schema).isBcnf(), schema + " in " + context);
+				}
+				assertEquals(new DependencyPreservationChecker(fds, candidate.schemas()).unpreservedFds(), candidate.missingFds(), context);
+				assertEquals(candidate.missingFds().isEmpty(), candidate.dependencyPreserving(), context);
+			}
+		}
+	}
+}
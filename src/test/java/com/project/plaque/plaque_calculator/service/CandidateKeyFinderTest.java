@@ -0,0 +1,63 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateKeyFinderTest {
+
+	@Test
+	void textbookKeys() {
+		// R(A,B,C,D) with AB->C, C->D, D->A has the keys AB, BC and BD
+		CandidateKeyFinder.KeyEnumeration keys = new CandidateKeyFinder(attrs("ABCD"), fds("AB->C", "C->D", "D->A")).findKeys(100);
+		assertTrue(keys.complete());
+		assertEquals(Set.of(attrs("AB"), attrs("BC"), attrs("BD")), new HashSet<>(keys.keys()));
+	}
+
+	@Test
+	void withoutFdsTheOnlyKeyIsTheRelation() {
+		assertEquals(List.of(attrs("ABC")), new CandidateKeyFinder(attrs("ABC"), List.of()).findKeys(10).keys());
+	}
+
+	@Test
+	void keyLimitMarksTheResultIncomplete() {
+		// A<->B, C<->D, E<->F: eight keys
+		List<FD> fds = fds("A->B", "B->A", "C->D", "D->C", "E->F", "F->E");
+		CandidateKeyFinder.KeyEnumeration limited = new CandidateKeyFinder(attrs("ABCDEF"), fds).findKeys(3);
+		assertEquals(3, limited.keys().size());
+		assertFalse(limited.complete());
+		assertEquals(8, new CandidateKeyFinder(attrs("ABCDEF"), fds).findKeys(100).keys().size());
+	}
+
+	@Test
+	void matchesBruteForceKeys() {
+		Random random = new Random(10);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 150; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(8));
+			CandidateKeyFinder.KeyEnumeration keys = new CandidateKeyFinder(new LinkedHashSet<>(attributes), fds).findKeys(1000);
+			assertTrue(keys.complete());
+			assertEquals(bruteForceKeys(attributes, fds), new HashSet<>(keys.keys()), fds.toString());
+		}
+	}
+
+	private static Set<Set<String>> bruteForceKeys(List<String> attributes, List<FD> fds) {
+		Set<Set<String>> keys = new HashSet<>();
+		for (Set<String> candidate : subsets(attributes)) {
+			if (!closure(candidate, fds).containsAll(attributes)) {
+				continue;
+			}
+			boolean minimal = keys.stream().noneMatch(candidate::containsAll);
+			if (minimal) {
+				keys.add(candidate);
+			}
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,43 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChaseEngineTest {
+
+	private static final List<String> ABCDE = List.of("A", "B", "C", "D", "E");
+
+	@Test
+	void textbookLosslessDecomposition() {
+		// Ullman: R(A,B,C,D,E) into AD, AB, BE, CDE, AE with A->C, B->C, C->D, DE->C, CE->A
+		List<Set<String>> schemas = List.of(attrs("AD"), attrs("AB"), attrs("BE"), attrs("CDE"), attrs("AE"));
+		List<FD> fds = fds("A->C", "B->C", "C->D", "DE->C", "CE->A");
+		assertTrue(new ChaseEngine(ABCDE, schemas, fds).isLossless());
+	}
+
+	@Test
+	void textbookLossyDecomposition() {
+		// The same schemas without CE->A lose the join
+		List<Set<String>> schemas = List.of(attrs("AD"), attrs("AB"), attrs("BE"), attrs("CDE"), attrs("AE"));
+		assertFalse(new ChaseEngine(ABCDE, schemas, fds("A->C", "B->C", "C->D", "DE->C")).isLossless());
+	}
+
+	@Test
+	void twoSchemasNeedAKeyInTheIntersection() {
+		List<String> abc = List.of("A", "B", "C");
+		List<Set<String>> schemas = List.of(attrs("AB"), attrs("BC"));
+		assertFalse(new ChaseEngine(abc, schemas, fds("A->B")).isLossless());
+		assertTrue(new ChaseEngine(abc, schemas, fds("B->C")).isLossless());
+	}
+
+	@Test
+	void uncoveredAttributeIsLossy() {
+		assertFalse(new ChaseEngine(List.of("A", "B", "C"), List.of(attrs("AB")), fds("A->C")).isLossless());
+	}
+}
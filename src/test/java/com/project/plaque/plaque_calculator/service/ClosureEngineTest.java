@@ -0,0 +1,45 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClosureEngineTest {
+
+	@Test
+	void textbookClosure() {
+		ClosureEngine engine = new ClosureEngine(attrs("ABCDE"), fds("A->B", "B->C", "CD->E"));
+		assertEquals(attrs("ABC"), engine.closure(attrs("A")));
+		assertEquals(attrs("ABCDE"), engine.closure(attrs("AD")));
+		assertEquals(attrs("D"), engine.closure(attrs("D")));
+		assertTrue(engine.implies(engine.toBits(attrs("AD")), engine.toBits(attrs("E"))));
+		assertFalse(engine.implies(engine.toBits(attrs("A")), engine.toBits(attrs("E"))));
+	}
+
+	@Test
+	void emptyLhsAddsConstants() {
+		ClosureEngine engine = new ClosureEngine(attrs("ABC"), fds("->A", "A->B"));
+		assertEquals(attrs("AB"), engine.closure(Set.of()));
+	}
+
+	@Test
+	void matchesFixpointClosure() {
+		Random random = new Random(8);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 100; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(8));
+			ClosureEngine engine = new ClosureEngine(attributes, fds);
+			for (Set<String> start : subsets(attributes)) {
+				assertEquals(closure(start, fds), engine.closure(start), start + " under " + fds);
+			}
+		}
+	}
+}
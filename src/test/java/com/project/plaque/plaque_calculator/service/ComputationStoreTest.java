@@ -0,0 +1,131 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.RicMatrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ComputationStoreTest {
+
+	private final DatasetRegistry registry = new DatasetRegistry(new LogService());
+	private final MockHttpSession session = new MockHttpSession();
+	private Path spillDir;
+
+	@BeforeEach
+	void createSpillDir() throws IOException {
+		spillDir = Files.createTempDirectory("computation-store-test");
+	}
+
+	@AfterEach
+	void deleteSpillDir() throws IOException {
+		try (Stream<Path> files = Files.walk(spillDir)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	@Test
+	void recordsAreOnlyVisibleToTheirSession() {
+		ComputationStore store = store(240, 256, spillDir.toString());
+		ComputationRecord record = record("c1", "1");
+		store.put(session, record);
+		assertSame(record, store.get(session, "c1"));
+		assertNull(store.get(new MockHttpSession(), "c1"));
+		assertNull(store.get(session, "missing"));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	void expiredRecordsAreSweptAndReleaseTheirDataset() throws InterruptedException {
+		ComputationStore store = store(240, 256, spillDir.toString());
+		ReflectionTestUtils.setField(store, "ttlMillis", 50L);
+		store.put(session, record("c1", "1"));
+		store.put(session, record("c2", "2"));
+		assertEquals(2, registry.size());
+		Thread.sleep(100);
+		store.removeExpired();
+		assertEquals(0, store.size());
+		assertEquals(0, store.getMemoryBytes());
+		assertEquals(0, registry.size());
+		assertNull(store.get(session, "c1"));
+	}
+
+	@Test
+	void recordsOverTheBudgetAreSpilledAndReadBack() throws IOException {
+		ComputationStore store = store(240, 0, spillDir.toString());
+		ComputationRecord first = record("c1", "1");
+		ComputationRecord second = record("c2", "2");
+		store.put(session, first);
+		store.put(session, second);
+		assertEquals(List.of(spillDir.resolve("c1.computation")), spillFiles());
+		assertEquals(second.estimatedBytes(), store.getMemoryBytes());
+
+		ComputationRecord read = store.get(session, "c1");
+		assertNotNull(read);
+		assertEquals(first.computationId(), read.computationId());
+		assertEquals(first.fdList(), read.fdList());
+		assertEquals(first.ricSteps(), read.ricSteps());
+		assertEquals(first.ricFinalStrategy(), read.ricFinalStrategy());
+		assertSame(first.datasetEntry(), read.datasetEntry());
+		assertArrayEquals(first.ric().toArray(), read.ric().toArray());
+		// Reading it back spilled the other record instead
+		assertEquals(first.estimatedBytes(), store.getMemoryBytes());
+		assertEquals(2, spillFiles().size());
+		assertEquals(2, registry.size());
+
+		session.invalidate();
+		assertEquals(0, store.size());
+		assertEquals(0, registry.size());
+		assertEquals(List.of(), spillFiles());
+	}
+
+	@Test
+	void withoutSpillDirRecordsOverTheBudgetAreRemoved() {
+		ComputationStore store = store(240, 0, " ");
+		store.put(session, record("c1", "1"));
+		store.put(session, record("c2", "2"));
+		assertEquals(1, store.size());
+		assertNull(store.get(session, "c1"));
+		assertNotNull(store.get(session, "c2"));
+		assertEquals(1, registry.size());
+	}
+
+	private ComputationStore store(long ttlMinutes, long maxMemoryMb, String spillDir) {
+		ComputationStore store = new ComputationStore();
+		ReflectionTestUtils.setField(store, "ttlMinutes", ttlMinutes);
+		ReflectionTestUtils.setField(store, "maxMemoryMb", maxMemoryMb);
+		ReflectionTestUtils.setField(store, "spillDir", spillDir);
+		ReflectionTestUtils.invokeMethod(store, "init");
+		return store;
+	}
+
+	private ComputationRecord record(String computationId, String value) {
+		DatasetRegistry.Reference dataset = registry.register(ColumnarTable.fromRows(List.of(List.of(value, "x"))));
+		RicMatrix ric = RicMatrix.of(new double[][] {{1.0, 0.5}});
+		return new ComputationRecord(computationId, dataset, "enabled", "A->B", null, ric, List.of("step"),
+				"exact", false, 0, 0);
+	}
+
+	private List<Path> spillFiles() throws IOException {
+		try (Stream<Path> files = Files.list(spillDir)) {
+			return files.sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DatasetRegistryTest {
+
+	private static final List<List<String>> ROWS = List.of(List.of("1", "a"), List.of("2", "b"), List.of("2", "b"));
+
+	private final DatasetRegistry registry = new DatasetRegistry(new LogService());
+
+	@Test
+	void registerAloneAddsNoEntry() {
+		registry.register(ColumnarTable.fromRows(ROWS));
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void equalTablesShareOneEntryUntilTheLastReferenceIsUnbound() {
+		MockHttpSession first = new MockHttpSession();
+		MockHttpSession second = new MockHttpSession();
+		DatasetRegistry.Reference a = registry.register(ColumnarTable.fromRows(ROWS));
+		DatasetRegistry.Reference b = registry.register(ColumnarTable.fromRows(new ArrayList<>(ROWS)));
+		first.setAttribute("dataset", a);
+		second.setAttribute("dataset", b);
+		assertEquals(1, registry.size());
+		assertSame(a.getEntry(), b.getEntry());
+		String hash = DatasetRegistry.contentHash(ColumnarTable.fromRows(ROWS));
+		assertSame(a.getEntry(), registry.find(hash));
+
+		first.invalidate();
+		assertEquals(1, registry.size());
+		second.removeAttribute("dataset");
+		assertEquals(0, registry.size());
+		assertNull(registry.find(hash));
+	}
+
+	@Test
+	void replacingTheSessionValueReleasesTheOldTable() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("dataset", registry.register(ColumnarTable.fromRows(ROWS)));
+		session.setAttribute("dataset", registry.register(ColumnarTable.fromRows(List.of(List.of("x")))));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	void retainAndReleaseCountLikeSessions() {
+		DatasetRegistry.Reference reference = registry.register(ColumnarTable.fromRows(ROWS));
+		reference.retain();
+		reference.retain();
+		reference.release();
+		assertEquals(1, registry.size());
+		reference.release();
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void originalTableHasDistinctTrimmedRows() {
+		DatasetRegistry.Reference reference = registry.register(ColumnarTable.fromRows(List.of(List.of(" 1", "a"), List.of("1 ", "a"))));
+		assertEquals(2, reference.getEntry().getInputTable().getRowCount());
+		assertEquals(1, reference.getEntry().getOriginalTable().getRowCount());
+	}
+
+	@Test
+	void contentHashDependsOnTheRows() {
+		assertEquals(DatasetRegistry.contentHash(ColumnarTable.fromRows(ROWS)),
+				DatasetRegistry.contentHash(ColumnarTable.fromRows(new ArrayList<>(ROWS))));
+		assertNotEquals(DatasetRegistry.contentHash(ColumnarTable.fromRows(ROWS)),
+				DatasetRegistry.contentHash(ColumnarTable.fromRows(ROWS.subList(0, 2))));
+	}
+}
@@ -0,0 +1,71 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetUploadServiceTest {
+
+	private final SessionTableStore sessionTableStore = new SessionTableStore(new DatasetRegistry(new LogService()), new ComputationStore());
+	private final DatasetUploadService service = new DatasetUploadService(sessionTableStore);
+	private final MockHttpSession session = new MockHttpSession();
+
+	@Test
+	void csvUploadIsStoredAsDataset() throws IOException {
+		byte[] body = "id,name\r\n1,\"a\nb\"\n2,c;d\n".getBytes(StandardCharsets.UTF_8);
+		DatasetUploadService.UploadResult result = service.upload(session, new ByteArrayInputStream(body), body.length,
+				StandardCharsets.UTF_8, DatasetUploadService.Format.CSV, "u1");
+		assertEquals(3, result.rows());
+		assertEquals(2, result.columns());
+		assertEquals(body.length, result.bytes());
+		ColumnarTable stored = sessionTableStore.getDataset(session, result.datasetId());
+		assertEquals(List.of(List.of("id", "name"), List.of("1", "a\nb"), List.of("2", "c;d")), stored.toRows());
+
+		DatasetUploadService.UploadProgress progress = service.getProgress(session, "u1");
+		assertTrue(progress.isDone());
+		assertEquals(result, progress.getResult());
+		assertEquals(body.length, progress.getBytesRead());
+		assertEquals(3, progress.getRows());
+		service.clearProgress(session, "u1");
+		assertNull(service.getProgress(session, "u1"));
+	}
+
+	@Test
+	void manualFormatSplitsRowsOnSemicolons() throws IOException {
+		byte[] body = "1,a;2,b".getBytes(StandardCharsets.UTF_8);
+		DatasetUploadService.UploadResult result = service.upload(session, new ByteArrayInputStream(body), -1,
+				StandardCharsets.UTF_8, DatasetUploadService.Format.MANUAL, null);
+		assertEquals(List.of(List.of("1", "a"), List.of("2", "b")), sessionTableStore.getDataset(session, result.datasetId()).toRows());
+	}
+
+	@Test
+	void failedUploadsReportTheirError() {
+		byte[] empty = " \n".getBytes(StandardCharsets.UTF_8);
+		assertThrows(IllegalArgumentException.class, () -> service.upload(session, new ByteArrayInputStream(empty), empty.length,
+				StandardCharsets.UTF_8, DatasetUploadService.Format.CSV, "empty"));
+		assertEquals("The uploaded file contains no rows.", service.getProgress(session, "empty").getError());
+
+		InputStream broken = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		};
+		assertThrows(IOException.class, () -> service.upload(session, broken, 100, StandardCharsets.UTF_8,
+				DatasetUploadService.Format.CSV, "broken"));
+		DatasetUploadService.UploadProgress progress = service.getProgress(session, "broken");
+		assertTrue(progress.isDone());
+		assertEquals("connection reset", progress.getError());
+	}
+}
@@ -0,0 +1,40 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyPreservationCheckerTest {
+
+	@Test
+	void bcnfDecompositionLosesTheKeyFd() {
+		// R(A,B,C) with AB->C, C->B decomposed into AC and BC: AB->C spans both schemas
+		List<FD> fds = fds("AB->C", "C->B");
+		DependencyPreservationChecker checker = new DependencyPreservationChecker(fds, List.of(attrs("AC"), attrs("BC")));
+		assertFalse(checker.isPreserved());
+		assertEquals(fds("AB->C"), checker.unpreservedFds());
+	}
+
+	@Test
+	void fdFollowingFromTheProjectionsIsPreserved() {
+		// A->C is in no schema but follows from A->B in AB and B->C in BC
+		List<FD> fds = fds("A->B", "B->C", "A->C");
+		DependencyPreservationChecker checker = new DependencyPreservationChecker(fds, List.of(attrs("AB"), attrs("BC")));
+		assertTrue(checker.isPreserved());
+		assertTrue(checker.unpreservedFds().isEmpty());
+	}
+
+	@Test
+	void implicitFdAcrossSchemasIsPreserved() {
+		// A->B, B->C, C->A on AB, BC: C->A follows through C->B->A
+		DependencyPreservationChecker checker = new DependencyPreservationChecker(fds("A->B", "B->C", "C->A"),
+				List.of(attrs("AB"), attrs("BC")));
+		assertTrue(checker.isPreserved());
+	}
+}
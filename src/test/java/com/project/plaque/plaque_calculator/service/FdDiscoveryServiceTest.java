@@ -0,0 +1,171 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FdDiscoveryServiceTest {
+
+	private ForkJoinPool pool;
+	private FdDiscoveryService service;
+
+	@BeforeEach
+	void createService() {
+		pool = new ForkJoinPool(2);
+		service = new FdDiscoveryService(new FdValidationService(), pool);
+	}
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void findsTheMinimalFdsOfSmallTables() {
+		Random random = new Random(1);
+		for (int run = 0; run < 150; run++) {
+			List<List<String>> rows = randomRows(random);
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			List<String> names = names(table.getColumnCount());
+			FdDiscoveryService.Result result = service.discover(table, names, 0, 60_000);
+			assertTrue(result.complete());
+			assertEquals(bruteForceFds(rows, names), new HashSet<>(result.fds()), "rows " + rows);
+		}
+	}
+
+	@Test
+	void sampledDiscoveryOnTheWholeTableIsExact() {
+		Random random = new Random(2);
+		for (int run = 0; run < 50; run++) {
+			List<List<String>> rows = randomRows(random);
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			List<String> names = names(table.getColumnCount());
+			FdDiscoveryService.SampledResult result = service.discoverSampled(table, names,
+					FdDiscoveryService.SampleMode.RANDOM, rows.size(), 0, 0, 60_000, 42);
+			Set<FD> found = new HashSet<>();
+			result.fds().forEach(fd -> found.add(fd.fd()));
+			assertEquals(bruteForceFds(rows, names), found, "rows " + rows);
+		}
+	}
+
+	@Test
+	void sampledFdsHoldOnTheFullTable() {
+		Random random = new Random(3);
+		for (FdDiscoveryService.SampleMode mode : FdDiscoveryService.SampleMode.values()) {
+			for (int run = 0; run < 30; run++) {
+				List<List<String>> rows = randomRows(random);
+				ColumnarTable table = ColumnarTable.fromRows(rows);
+				List<String> names = names(table.getColumnCount());
+				FdDiscoveryService.SampledResult result = service.discoverSampled(table, names, mode,
+						Math.max(1, rows.size() / 3), 0, 0, 60_000, run);
+				Set<FD> expected = bruteForceFds(rows, names);
+				Set<FD> found = new HashSet<>();
+				for (FdDiscoveryService.ApproximateFd fd : result.fds()) {
+					assertEquals(0.0, fd.error(), 0.0);
+					assertTrue(holds(rows, indexes(fd.fd().getLhs(), names), names.indexOf(fd.fd().getRhs().iterator().next())),
+							fd.fd() + " on " + rows);
+					found.add(fd.fd());
+				}
+				if (result.complete()) {
+					assertEquals(expected, found, mode + " " + rows);
+				}
+			}
+		}
+	}
+
+	@Test
+	void rejectsTooManyColumns() {
+		List<String> row = new ArrayList<>();
+		for (int c = 0; c <= FdDiscoveryService.MAX_COLUMNS; c++) {
+			row.add("v");
+		}
+		ColumnarTable table = ColumnarTable.fromRows(List.of(row));
+		assertThrows(IllegalArgumentException.class, () -> service.discover(table, names(row.size())));
+	}
+
+	static List<List<String>> randomRows(Random random) {
+		int rowCount = 1 + random.nextInt(14);
+		int columnCount = 2 + random.nextInt(4);
+		int domain = 2 + random.nextInt(3);
+		List<List<String>> rows = new ArrayList<>();
+		for (int r = 0; r < rowCount; r++) {
+			List<String> row = new ArrayList<>();
+			for (int c = 0; c < columnCount; c++) {
+				row.add(String.valueOf(random.nextInt(domain)));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	static List<String> names(int columns) {
+		List<String> names = new ArrayList<>();
+		for (int c = 1; c <= columns; c++) {
+			names.add(String.valueOf(c));
+		}
+		return names;
+	}
+
+	// Every X -> A that holds while no X - {b} -> A does
+	private static Set<FD> bruteForceFds(List<List<String>> rows, List<String> names) {
+		int n = names.size();
+		Set<FD> out = new HashSet<>();
+		for (int a = 0; a < n; a++) {
+			for (int mask = 0; mask < (1 << n); mask++) {
+				if ((mask & (1 << a)) != 0 || !holds(rows, mask, a)) {
+					continue;
+				}
+				boolean minimal = true;
+				for (int b = 0; b < n && minimal; b++) {
+					if ((mask & (1 << b)) != 0 && holds(rows, mask & ~(1 << b), a)) {
+						minimal = false;
+					}
+				}
+				if (minimal) {
+					Set<String> lhs = new HashSet<>();
+					for (int b = 0; b < n; b++) {
+						if ((mask & (1 << b)) != 0) {
+							lhs.add(names.get(b));
+						}
+					}
+					out.add(new FD(lhs, Set.of(names.get(a))));
+				}
+			}
+		}
+		return out;
+	}
+
+	private static boolean holds(List<List<String>> rows, int lhsMask, int rhs) {
+		Map<List<String>, String> seen = new HashMap<>();
+		for (List<String> row : rows) {
+			List<String> key = new ArrayList<>();
+			for (int c = 0; c < row.size(); c++) {
+				if ((lhsMask & (1 << c)) != 0) {
+					key.add(row.get(c));
+				}
+			}
+			String previous = seen.putIfAbsent(key, row.get(rhs));
+			if (previous != null && !previous.equals(row.get(rhs))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexes(Set<String> attributes, List<String> names) {
+		int mask = 0;
+		for (String attribute : attributes) {
+			mask |= 1 << names.indexOf(attribute);
+		}
+		return mask;
+	}
+}
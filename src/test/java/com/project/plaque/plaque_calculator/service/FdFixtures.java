@@ -0,0 +1,83 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * FDs and relations for the dependency theory tests, written with single-letter attributes ("AB->C").
+ */
+final class FdFixtures {
+
+	private FdFixtures() {}
+
+	static FD fd(String spec) {
+		String[] sides = spec.split("->", -1);
+		return new FD(attrs(sides[0]), attrs(sides[1]));
+	}
+
+	static List<FD> fds(String... specs) {
+		List<FD> out = new ArrayList<>();
+		for (String spec : specs) {
+			out.add(fd(spec));
+		}
+		return out;
+	}
+
+	static Set<String> attrs(String letters) {
+		Set<String> out = new LinkedHashSet<>();
+		for (char c : letters.trim().toCharArray()) {
+			out.add(String.valueOf(c));
+		}
+		return out;
+	}
+
+	// count FDs over the attributes, with an LHS of one or two attributes and a single RHS attribute
+	static List<FD> randomFds(Random random, List<String> attributes, int count) {
+		List<FD> out = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Set<String> lhs = new LinkedHashSet<>();
+			int size = 1 + random.nextInt(2);
+			while (lhs.size() < size) {
+				lhs.add(attributes.get(random.nextInt(attributes.size())));
+			}
+			out.add(new FD(lhs, Set.of(attributes.get(random.nextInt(attributes.size())))));
+		}
+		return out;
+	}
+
+	// Fixpoint over all FDs, the textbook definition
+	static Set<String> closure(Set<String> start, List<FD> fds) {
+		Set<String> out = new HashSet<>(start);
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (FD fd : fds) {
+				if (out.containsAll(fd.getLhs()) && out.addAll(fd.getRhs())) {
+					changed = true;
+				}
+			}
+		}
+		return out;
+	}
+
+	static boolean implies(List<FD> fds, FD fd) {
+		return closure(fd.getLhs(), fds).containsAll(fd.getRhs());
+	}
+
+	// All subsets of the attributes, in order of size
+	static List<Set<String>> subsets(List<String> attributes) {
+		List<Set<String>> out = new ArrayList<>();
+		for (int mask = 0; mask < (1 << attributes.size()); mask++) {
+			Set<String> subset = new LinkedHashSet<>();
+			for (int i = 0; i < attributes.size(); i++) {
+				if ((mask & (1 << i)) != 0) {
+					subset.add(attributes.get(i));
+				}
+			}
+			out.add(subset);
+		}
+		out.sort(Comparator.comparingInt(Set::size));
+		return out;
+	}
+}
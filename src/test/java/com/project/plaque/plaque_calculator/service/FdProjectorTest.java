@@ -0,0 +1,79 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FdProjectorTest {
+
+	@Test
+	void transitiveFdSurvivesTheProjection() {
+		assertEquals(fds("A->C"), new FdProjector(fds("A->B", "B->C")).project(attrs("AC")));
+	}
+
+	@Test
+	void constantsGetAnEmptyLhs() {
+		assertEquals(fds("->A", "->B"), new FdProjector(fds("->A", "A->B")).project(attrs("AB")));
+	}
+
+	@Test
+	void textbookProjection() {
+		// R(A,B,C,D) with A->B, B->C, C->D projected onto ACD: A->C, A->D, C->D
+		Set<FD> projected = new HashSet<>(new FdProjector(fds("A->B", "B->C", "C->D")).project(attrs("ACD")));
+		assertEquals(Set.copyOf(fds("A->C", "A->D", "C->D")), projected);
+	}
+
+	@Test
+	void emptyAttributesGiveNoFds() {
+		assertTrue(new FdProjector(fds("A->B")).project(Set.of()).isEmpty());
+	}
+
+	@Test
+	void matchesBruteForceProjection() {
+		Random random = new Random(12);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 150; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(8));
+			List<String> target = new ArrayList<>();
+			for (String attribute : attributes) {
+				if (random.nextInt(3) > 0) {
+					target.add(attribute);
+				}
+			}
+			List<FD> projected = new FdProjector(fds).project(new LinkedHashSet<>(target));
+			assertEquals(projected.size(), new HashSet<>(projected).size(), "duplicate FDs");
+			assertEquals(bruteForceProjection(target, fds), new HashSet<>(projected), target + " under " + fds);
+		}
+	}
+
+	// X->A for every subset X of the target whose closure contains A while no X - {b} does
+	private static Set<FD> bruteForceProjection(List<String> target, List<FD> fds) {
+		Set<FD> out = new HashSet<>();
+		for (Set<String> lhs : subsets(target)) {
+			Set<String> lhsClosure = closure(lhs, fds);
+			for (String attribute : target) {
+				if (lhs.contains(attribute) || !lhsClosure.contains(attribute)) {
+					continue;
+				}
+				boolean minimal = true;
+				for (String b : lhs) {
+					Set<String> smaller = new HashSet<>(lhs);
+					smaller.remove(b);
+					if (closure(smaller, fds).contains(attribute)) {
+						minimal = false;
+						break;
+					}
+				}
+				if (minimal) {
+					out.add(new FD(lhs, Set.of(attribute)));
+				}
+			}
+		}
+		return out;
+	}
+}
@@ -0,0 +1,128 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FdValidationServiceTest {
+
+	private static final List<String> NAMES = List.of("A", "B", "C");
+
+	private final FdValidationService service = new FdValidationService();
+
+	@Test
+	void reportsViolatingGroupsWithExamples() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(
+				List.of("1", "x", "p"),
+				List.of("1", "y", "p"),
+				List.of("2", "z", "q"),
+				List.of("2", "z", "q")));
+		List<FD> fds = fds("A->C", "A->B", "B->A");
+		List<FdValidationService.FdValidation> streamed = new ArrayList<>();
+		List<FdValidationService.FdValidation> results = service.validate(table, NAMES, fds, streamed::add);
+
+		assertEquals(fds, results.stream().map(FdValidationService.FdValidation::fd).toList());
+		assertEquals(3, streamed.size());
+		assertTrue(results.get(0).holds());
+		assertTrue(results.get(0).examples().isEmpty());
+		FdValidationService.FdValidation violated = results.get(1);
+		assertFalse(violated.holds());
+		assertEquals(1, violated.violatingGroups());
+		assertEquals(List.of(new FdValidationService.ViolationGroup(List.of("1"), List.of(0, 1))), violated.examples());
+		assertTrue(results.get(2).holds());
+	}
+
+	@Test
+	void unknownAttributesDoNotHold() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(List.of("1", "2", "3")));
+		FD unknown = fd("A->Z");
+		assertFalse(service.validate(table, NAMES, List.of(unknown), null).get(0).holds());
+		assertEquals(1.0, service.errors(table, NAMES, List.of(unknown))[0], 0.0);
+		assertArrayEquals(new int[]{-1, -1}, service.violatingPairs(table, NAMES, List.of(unknown))[0]);
+	}
+
+	@Test
+	void matchesBruteForceOnRandomTables() {
+		Random random = new Random(16);
+		for (int run = 0; run < 200; run++) {
+			List<List<String>> rows = new ArrayList<>();
+			int rowCount = 1 + random.nextInt(12);
+			for (int r = 0; r < rowCount; r++) {
+				rows.add(List.of("a" + random.nextInt(3), "b" + random.nextInt(2), "c" + random.nextInt(3)));
+			}
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			List<FD> fds = randomFds(random, NAMES, 1 + random.nextInt(5));
+			List<FdValidationService.FdValidation> results = service.validate(table, NAMES, fds, null);
+			double[] errors = service.errors(table, NAMES, fds);
+			int[][] pairs = service.violatingPairs(table, NAMES, fds);
+			for (int i = 0; i < fds.size(); i++) {
+				FD fd = fds.get(i);
+				String context = fd + " on " + rows;
+				int violating = violatingGroups(rows, fd);
+				assertEquals(violating == 0, results.get(i).holds(), context);
+				assertEquals(violating, results.get(i).violatingGroups(), context);
+				assertEquals(g3(rows, fd), errors[i], 1e-9, context);
+				if (violating == 0) {
+					assertNull(pairs[i], context);
+				} else {
+					assertNotNull(pairs[i], context);
+					List<String> first = rows.get(pairs[i][0]);
+					List<String> second = rows.get(pairs[i][1]);
+					assertEquals(values(first, fd.getLhs()), values(second, fd.getLhs()), context);
+					assertFalse(values(first, fd.getRhs()).equals(values(second, fd.getRhs())), context);
+				}
+			}
+			Set<String> key = attrs("AB");
+			int[] duplicate = service.duplicatePair(table, NAMES, key);
+			Set<List<String>> seen = new HashSet<>();
+			boolean unique = rows.stream().allMatch(row -> seen.add(values(row, key)));
+			assertEquals(unique, duplicate == null, rows.toString());
+		}
+	}
+
+	// LHS groups whose rows disagree on the RHS
+	private static int violatingGroups(List<List<String>> rows, FD fd) {
+		Map<List<String>, Set<List<String>>> rhsByLhs = new HashMap<>();
+		for (List<String> row : rows) {
+			rhsByLhs.computeIfAbsent(values(row, fd.getLhs()), k -> new HashSet<>()).add(values(row, fd.getRhs()));
+		}
+		return (int) rhsByLhs.values().stream().filter(rhs -> rhs.size() > 1).count();
+	}
+
+	// Share of rows outside the most frequent RHS value of their LHS group
+	private static double g3(List<List<String>> rows, FD fd) {
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		Map<List<String>, Map<List<String>, Integer>> counts = new HashMap<>();
+		for (List<String> row : rows) {
+			counts.computeIfAbsent(values(row, fd.getLhs()), k -> new HashMap<>())
+					.merge(values(row, fd.getRhs()), 1, Integer::sum);
+		}
+		int kept = 0;
+		for (Map<List<String>, Integer> group : counts.values()) {
+			kept += Collections.max(group.values());
+		}
+		return (rows.size() - kept) / (double) rows.size();
+	}
+
+	private static List<String> values(List<String> row, Set<String> attributes) {
+		List<String> out = new ArrayList<>();
+		for (int c = 0; c < NAMES.size(); c++) {
+			if (attributes.contains(NAMES.get(c))) {
+				out.add(row.get(c));
+			}
+		}
+		return out;
+	}
+}
@@ -0,0 +1,72 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LosslessJoinCheckerTest {
+
+	private static final List<String> ABCDE = List.of("A", "B", "C", "D", "E");
+
+	@Test
+	void binaryDecompositionUsesTheIntersectionTest() {
+		List<String> abc = List.of("A", "B", "C");
+		List<Set<String>> schemas = List.of(attrs("AB"), attrs("BC"));
+		LosslessJoinChecker lossy = new LosslessJoinChecker(abc, schemas, fds("A->B"));
+		assertEquals(LosslessJoinChecker.Strategy.INTERSECTION, lossy.strategy());
+		assertFalse(lossy.isLossless());
+		assertTrue(new LosslessJoinChecker(abc, schemas, fds("B->C")).isLossless());
+		assertTrue(new LosslessJoinChecker(abc, schemas, fds("B->A")).isLossless());
+	}
+
+	@Test
+	void largerDecompositionsUseTheChase() {
+		List<Set<String>> schemas = List.of(attrs("AD"), attrs("AB"), attrs("BE"), attrs("CDE"), attrs("AE"));
+		LosslessJoinChecker checker = new LosslessJoinChecker(ABCDE, schemas, fds("A->C", "B->C", "C->D", "DE->C", "CE->A"));
+		assertEquals(LosslessJoinChecker.Strategy.CHASE, checker.strategy());
+		assertTrue(checker.isLossless());
+	}
+
+	@Test
+	void degenerateDecompositions() {
+		List<String> abc = List.of("A", "B", "C");
+		assertTrue(new LosslessJoinChecker(abc, List.of(attrs("ABC")), List.of()).isLossless());
+		assertFalse(new LosslessJoinChecker(abc, List.of(attrs("AB"), attrs("A")), fds("A->C")).isLossless());
+		assertFalse(new LosslessJoinChecker(abc, List.of(), fds("A->B")).isLossless());
+	}
+
+	@Test
+	void intersectionTestMatchesTheChase() {
+		Random random = new Random(11);
+		for (int run = 0; run < 300; run++) {
+			List<FD> fds = randomFds(random, ABCDE, 1 + random.nextInt(6));
+			Set<String> left = randomSchema(random);
+			Set<String> right = randomSchema(random);
+			right.addAll(ABCDE.stream().filter(a -> !left.contains(a)).toList());
+			List<Set<String>> schemas = List.of(left, right);
+			Set<String> common = new HashSet<>(left);
+			common.retainAll(right);
+			Set<String> commonClosure = closure(common, fds);
+			boolean expected = commonClosure.containsAll(left) || commonClosure.containsAll(right);
+			String context = schemas + " under " + fds;
+			assertEquals(expected, new LosslessJoinChecker(ABCDE, schemas, fds).isLossless(), context);
+			assertEquals(expected, new ChaseEngine(ABCDE, schemas, fds).isLossless(), context);
+		}
+	}
+
+	private static Set<String> randomSchema(Random random) {
+		Set<String> schema = new LinkedHashSet<>();
+		for (String attribute : ABCDE) {
+			if (random.nextBoolean()) {
+				schema.add(attribute);
+			}
+		}
+		return schema;
+	}
+}
@@ -0,0 +1,57 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinimalCoverServiceTest {
+
+	private final MinimalCoverService service = new MinimalCoverService();
+
+	@Test
+	void textbookCover() {
+		// A->BC, B->C, A->B, AB->C has the minimal cover A->B, B->C
+		List<FD> cover = service.minimalCover(fds("A->BC", "B->C", "A->B", "AB->C"));
+		assertEquals(Set.copyOf(fds("A->B", "B->C")), new HashSet<>(cover));
+	}
+
+	@Test
+	void extraneousLhsAttributeIsRemoved() {
+		assertEquals(fds("A->C", "A->B"), service.minimalCover(fds("AB->C", "A->B")));
+	}
+
+	@Test
+	void randomCoversAreEquivalentAndMinimal() {
+		Random random = new Random(9);
+		List<String> attributes = List.of("A", "B", "C", "D", "E");
+		for (int run = 0; run < 200; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(7));
+			List<FD> cover = service.minimalCover(fds);
+			String context = fds + " -> " + cover;
+			for (FD fd : fds) {
+				assertTrue(implies(cover, fd), context);
+			}
+			for (FD fd : cover) {
+				assertTrue(implies(fds, fd), context);
+				assertEquals(1, fd.getRhs().size(), context);
+				assertFalse(fd.getLhs().containsAll(fd.getRhs()), context);
+				// No FD follows from the others
+				List<FD> others = new ArrayList<>(cover);
+				others.remove(fd);
+				assertFalse(implies(others, fd), context);
+				// No LHS attribute is extraneous
+				for (String attribute : fd.getLhs()) {
+					Set<String> smaller = new HashSet<>(fd.getLhs());
+					smaller.remove(attribute);
+					assertFalse(closure(smaller, cover).containsAll(fd.getRhs()), context);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RicGuidedSearchServiceTest {
+
+	private static final List<String> ABCD = List.of("A", "B", "C", "D");
+	private static final List<FD> FDS = fds("A->B", "B->C");
+
+	private ForkJoinPool pool;
+	private RicGuidedSearchService service;
+
+	@BeforeEach
+	void createService() {
+		pool = new ForkJoinPool(4);
+		MinimalCoverService minimalCoverService = new MinimalCoverService();
+		service = new RicGuidedSearchService(minimalCoverService, new BcnfDecompositionEngine(pool),
+				new ThreeNfSynthesisService(minimalCoverService), pool);
+	}
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void rankedCandidatesAreLosslessAndOrderedByScore() {
+		List<RicGuidedSearchService.Candidate> ranked = service.rankCandidates(ABCD, FDS, null);
+		assertFalse(ranked.isEmpty());
+		Set<Set<Set<String>>> distinct = new HashSet<>();
+		for (int i = 0; i < ranked.size(); i++) {
+			RicGuidedSearchService.Candidate candidate = ranked.get(i);
+			assertEquals(i + 1, candidate.rank());
+			if (i > 0) {
+				assertTrue(ranked.get(i - 1).score() >= candidate.score(), "ranked by score");
+			}
+			assertTrue(candidate.schemas().size() >= 2);
+			assertTrue(new ChaseEngine(ABCD, candidate.schemas(), FDS).isLossless(), candidate.toString());
+			assertEquals(new DependencyPreservationChecker(FDS, candidate.schemas()).isPreserved(), candidate.dependencyPreserving());
+			assertTrue(distinct.add(new HashSet<>(candidate.schemas())), "proposed twice: " + candidate);
+		}
+		// The 3NF synthesis AB, BC, AD is all BCNF and keeps both FDs
+		RicGuidedSearchService.Candidate best = ranked.get(0);
+		assertTrue(best.dependencyPreserving());
+		assertEquals(best.schemas().size(), best.bcnfTables());
+	}
+
+	@Test
+	void redundancyIsScoredFromTheRicMatrix() {
+		// Only column C is redundant, so every candidate covers all or none of it
+		double[][] ric = {{1.0, 1.0, 0.5, 1.0}, {1.0, 1.0, 0.5, 1.0}};
+		for (RicGuidedSearchService.Candidate candidate : service.rankCandidates(ABCD, FDS, ric)) {
+			assertTrue(candidate.redundancyCovered() == 0.0 || candidate.redundancyCovered() == 1.0, candidate.toString());
+		}
+	}
+
+	@Test
+	void evaluationsAreOrderedByMeanRic() {
+		List<RicGuidedSearchService.Candidate> rankedSeen = new ArrayList<>();
+		List<RicGuidedSearchService.Evaluation> streamed = Collections.synchronizedList(new ArrayList<>());
+		// Smaller tables score higher, so candidates with more tables win
+		RicGuidedSearchService.TableRicEvaluator evaluator = (columns, projectedFds) -> {
+			double[][] matrix = new double[2][columns.size()];
+			for (double[] row : matrix) {
+				Arrays.fill(row, 1.0 / columns.size());
+			}
+			return matrix;
+		};
+		List<RicGuidedSearchService.Evaluation> evaluations = service.search(ABCD, FDS, null, 3, 60_000, evaluator,
+				listener(rankedSeen, streamed));
+		assertEquals(Math.min(3, rankedSeen.size()), evaluations.size());
+		assertEquals(evaluations.size(), streamed.size());
+		for (int i = 0; i < evaluations.size(); i++) {
+			RicGuidedSearchService.Evaluation evaluation = evaluations.get(i);
+			assertNull(evaluation.error());
+			assertNotNull(evaluation.meanRic());
+			assertEquals(evaluation.candidate().schemas().size(), evaluation.tableMeanRic().size());
+			if (i > 0) {
+				assertTrue(evaluations.get(i - 1).meanRic() >= evaluation.meanRic());
+			}
+		}
+	}
+
+	@Test
+	void failedAndTimedOutEvaluationsAreReported() {
+		RicGuidedSearchService.TableRicEvaluator failing = (columns, projectedFds) -> {
+			throw new IllegalStateException("RIC failed");
+		};
+		List<RicGuidedSearchService.Evaluation> failed = service.search(ABCD, FDS, null, 2, 60_000, failing,
+				listener(new ArrayList<>(), new ArrayList<>()));
+		assertFalse(failed.isEmpty());
+		failed.forEach(e -> assertEquals("RIC failed", e.error()));
+
+		RicGuidedSearchService.TableRicEvaluator slow = (columns, projectedFds) -> {
+			try {
+				Thread.sleep(10_000);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new double[0][0];
+		};
+		long start = System.nanoTime();
+		List<RicGuidedSearchService.Evaluation> timedOut = service.search(ABCD, FDS, null, 2, 100, slow,
+				listener(new ArrayList<>(), new ArrayList<>()));
+		assertTrue(System.nanoTime() - start < 5_000_000_000L, "budget not enforced");
+		assertFalse(timedOut.isEmpty());
+		for (RicGuidedSearchService.Evaluation evaluation : timedOut) {
+			assertNull(evaluation.meanRic());
+			assertEquals("Time budget exceeded.", evaluation.error());
+		}
+	}
+
+	private static RicGuidedSearchService.SearchListener listener(List<RicGuidedSearchService.Candidate> ranked,
+																  List<RicGuidedSearchService.Evaluation> evaluated) {
+		return new RicGuidedSearchService.SearchListener() {
+			@Override
+			public void candidatesRanked(List<RicGuidedSearchService.Candidate> candidates) {
+				ranked.addAll(candidates);
+			}
+
+			@Override
+			public void candidateEvaluated(RicGuidedSearchService.Evaluation evaluation) {
+				evaluated.add(evaluation);
+			}
+		};
+	}
+}
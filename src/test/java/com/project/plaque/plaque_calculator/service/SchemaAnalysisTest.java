@@ -0,0 +1,68 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaAnalysisTest {
+
+	@Test
+	void textbookNormalForms() {
+		assertEquals("BCNF", new SchemaAnalysis(attrs("ABC"), fds("A->BC"), 100).getNormalForm());
+		// C->B with key AB: B is prime
+		assertEquals("3NF", new SchemaAnalysis(attrs("ABC"), fds("AB->C", "C->B"), 100).getNormalForm());
+		// B->C with key A: transitive
+		assertEquals("2NF", new SchemaAnalysis(attrs("ABC"), fds("A->B", "B->C"), 100).getNormalForm());
+		// A->C with key AB: partial
+		assertEquals("1NF", new SchemaAnalysis(attrs("ABC"), fds("A->C"), 100).getNormalForm());
+	}
+
+	@Test
+	void primeAttributesAreExactWhenTheKeyListIsCutOff() {
+		Random random = new Random(17);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		Set<String> relation = new LinkedHashSet<>(attributes);
+		int undetermined = 0;
+		for (int run = 0; run < 300; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(8));
+			SchemaAnalysis cutOff = new SchemaAnalysis(relation, fds, 1);
+			SchemaAnalysis complete = new SchemaAnalysis(relation, fds, 1000);
+			assertTrue(complete.isKeysComplete());
+			String context = fds.toString();
+			assertEquals(bruteForcePrimes(attributes, fds), complete.getPrimeAttributes(), context);
+			assertEquals(complete.getPrimeAttributes(), cutOff.getPrimeAttributes(), context);
+			assertTrue(cutOff.getUnresolvedAttributes().isEmpty(), context);
+
+			// With exact primes 3NF is decided; 2NF may stay open, but a decided answer is the right one
+			String normalForm = cutOff.getNormalForm();
+			if (normalForm.equals(SchemaAnalysis.UNDETERMINED)) {
+				undetermined++;
+				assertFalse(cutOff.isKeysComplete(), context);
+				assertTrue(Set.of("2NF", "1NF").contains(complete.getNormalForm()), context);
+				assertFalse(cutOff.is2NF(), context);
+			} else {
+				assertEquals(complete.getNormalForm(), normalForm, context);
+			}
+		}
+		assertTrue(undetermined > 0, "no undecided case generated");
+	}
+
+	// Attributes of some minimal superkey
+	private static Set<String> bruteForcePrimes(List<String> attributes, List<FD> fds) {
+		List<Set<String>> keys = new ArrayList<>();
+		for (Set<String> candidate : subsets(attributes)) {
+			if (closure(candidate, fds).containsAll(attributes) && keys.stream().noneMatch(candidate::containsAll)) {
+				keys.add(candidate);
+			}
+		}
+		Set<String> prime = new HashSet<>();
+		keys.forEach(prime::addAll);
+		return prime;
+	}
+}
@@ -0,0 +1,55 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.project.plaque.plaque_calculator.service.FdFixtures.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreeNfSynthesisServiceTest {
+
+	private final ThreeNfSynthesisService service = new ThreeNfSynthesisService(new MinimalCoverService());
+	private final NormalFormChecker normalFormChecker = new NormalFormChecker();
+
+	@Test
+	void textbookSynthesis() {
+		// R(A,B,C,D) with A->B, B->C: AB and BC from the cover, AD for the key
+		List<Set<String>> schemas = service.synthesize(List.of("A", "B", "C", "D"), fds("A->B", "B->C"));
+		assertEquals(List.of(attrs("AB"), attrs("BC"), attrs("AD")), schemas);
+	}
+
+	@Test
+	void relationAlreadyIn3nfStaysWhole() {
+		List<Set<String>> schemas = service.synthesize(List.of("A", "B", "C"), fds("A->BC"));
+		assertEquals(List.of(attrs("ABC")), schemas);
+	}
+
+	@Test
+	void randomSynthesisIsLosslessDependencyPreservingAnd3nf() {
+		Random random = new Random(13);
+		List<String> attributes = List.of("A", "B", "C", "D", "E", "F");
+		for (int run = 0; run < 150; run++) {
+			List<FD> fds = randomFds(random, attributes, 1 + random.nextInt(7));
+			List<Set<String>> schemas = service.synthesize(attributes, fds);
+			String context = schemas + " under " + fds;
+			Set<String> covered = new HashSet<>();
+			schemas.forEach(covered::addAll);
+			assertEquals(new HashSet<>(attributes), covered, context);
+			assertTrue(new ChaseEngine(attributes, schemas, fds).isLossless(), context);
+			assertTrue(new DependencyPreservationChecker(fds, schemas).isPreserved(), context);
+			FdProjector projector = new FdProjector(fds);
+			for (Set<String> schema : schemas) {
+				assertTrue(normalFormChecker.is3NF(schema, projector.project(schema)), schema + " in " + context);
+			}
+			for (int i = 0; i < schemas.size(); i++) {
+				for (int j = 0; j < schemas.size(); j++) {
+					assertFalse(i != j && schemas.get(j).containsAll(schemas.get(i)), "contained schema in " + context);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UccDiscoveryServiceTest {
+
+	private ForkJoinPool pool;
+	private UccDiscoveryService service;
+
+	@BeforeEach
+	void createService() {
+		pool = new ForkJoinPool(2);
+		service = new UccDiscoveryService(new FdValidationService(), pool);
+	}
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void findsTheMinimalKeysOfSmallTables() {
+		Random random = new Random(4);
+		for (int run = 0; run < 150; run++) {
+			List<List<String>> rows = FdDiscoveryServiceTest.randomRows(random);
+			ColumnarTable table = ColumnarTable.fromRows(rows);
+			List<String> names = FdDiscoveryServiceTest.names(table.getColumnCount());
+			UccDiscoveryService.Result result = service.discover(table, names, 0, 60_000);
+			assertTrue(result.complete());
+			assertEquals(bruteForceKeys(rows, names), new HashSet<>(result.keys()), "rows " + rows);
+		}
+	}
+
+	@Test
+	void tableWithDuplicateRowsHasNoKeys() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(List.of("a", "1"), List.of("b", "2"), List.of("a", "1")));
+		assertTrue(service.discover(table, List.of("1", "2")).keys().isEmpty());
+	}
+
+	@Test
+	void keysComeSmallestFirst() {
+		ColumnarTable table = ColumnarTable.fromRows(List.of(
+				List.of("1", "a", "x"),
+				List.of("2", "a", "y"),
+				List.of("3", "b", "x")));
+		List<Set<String>> keys = service.discover(table, List.of("1", "2", "3")).keys();
+		assertEquals(List.of(Set.of("1"), Set.of("2", "3")), keys);
+	}
+
+	// Column sets with distinct values on every row and no such proper subset
+	private static Set<Set<String>> bruteForceKeys(List<List<String>> rows, List<String> names) {
+		int n = names.size();
+		Set<Set<String>> out = new HashSet<>();
+		for (int mask = 0; mask < (1 << n); mask++) {
+			if (!unique(rows, mask)) {
+				continue;
+			}
+			boolean minimal = true;
+			for (int b = 0; b < n && minimal; b++) {
+				if ((mask & (1 << b)) != 0 && unique(rows, mask & ~(1 << b))) {
+					minimal = false;
+				}
+			}
+			if (minimal) {
+				Set<String> key = new HashSet<>();
+				for (int b = 0; b < n; b++) {
+					if ((mask & (1 << b)) != 0) {
+						key.add(names.get(b));
+					}
+				}
+				out.add(key);
+			}
+		}
+		return out;
+	}
+
+	private static boolean unique(List<List<String>> rows, int mask) {
+		Set<List<String>> seen = new HashSet<>();
+		for (List<String> row : rows) {
+			List<String> key = new ArrayList<>();
+			for (int c = 0; c < row.size(); c++) {
+				if ((mask & (1 << c)) != 0) {
+					key.add(row.get(c));
+				}
+			}
+			if (!seen.add(key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
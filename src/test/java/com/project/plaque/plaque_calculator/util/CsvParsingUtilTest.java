@@ -0,0 +1,95 @@
+package com.project.plaque.plaque_calculator.util;
+
+import com.project.plaque.plaque_calculator.model.ColumnarTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvParsingUtilTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void chunkedParseMatchesSequentialParse() {
+        String input = largeInput(new Random(11));
+        int[] bounds = CsvParsingUtil.chunkBoundaries(input, pool);
+        assertTrue(bounds.length > 2, "input should be split into several chunks");
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i] == bounds[i - 1] || input.charAt(bounds[i] - 1) == ';', "chunk " + i + " starts after a row separator");
+        }
+
+        List<Rows> chunks = CsvParsingUtil.parseRowsInChunks(input, Rows::new, pool);
+        List<List<String>> chunked = new ArrayList<>();
+        chunks.forEach(chunk -> chunked.addAll(chunk.rows));
+        assertEquals(CsvParsingUtil.parseRows(input), chunked);
+    }
+
+    @Test
+    void parseColumnarMatchesRowParse() {
+        String input = largeInput(new Random(12));
+        ColumnarTable table = CsvParsingUtil.parseColumnar(input, pool);
+        assertEquals(ColumnarTable.fromRows(CsvParsingUtil.parseRows(input)).toRows(), table.toRows());
+    }
+
+    @Test
+    void smallInputIsOneChunk() {
+        assertEquals(2, CsvParsingUtil.chunkBoundaries("a,b;c,d", pool).length);
+    }
+
+    @Test
+    void manualDataStringParsesBackToTheSameRows() {
+        List<List<String>> rows = List.of(
+                List.of("plain", " padded ", "with,comma"),
+                List.of("semi;colon", "quote\"inside", "line\nbreak"),
+                List.of("", "", ""));
+        assertEquals(rows, CsvParsingUtil.parseRows(CsvParsingUtil.toManualDataString(rows)));
+        // A single empty cell is quoted, otherwise the row would be skipped as empty
+        assertEquals(List.of(List.of("")), CsvParsingUtil.parseRows(CsvParsingUtil.toManualDataString(List.of(List.of("")))));
+    }
+
+    // Over PARALLEL_THRESHOLD characters; quoted separators, line breaks and escaped quotes end up across chunk boundaries
+    private static String largeInput(Random random) {
+        String[] cells = {"plain", "\"a;b\"", "\"line\nbreak\"", "\"say \"\"hi\"\"\"", "\"x,y\"", "\"\"\"\";\"", "12", ""};
+        StringBuilder out = new StringBuilder();
+        while (out.length() < CsvParsingUtil.PARALLEL_THRESHOLD + 4096) {
+            if (!out.isEmpty()) {
+                out.append(';');
+            }
+            for (int c = 0; c < 4; c++) {
+                if (c > 0) {
+                    out.append(',');
+                }
+                out.append(cells[random.nextInt(cells.length)]);
+            }
+        }
+        return out.toString();
+    }
+
+    private static final class Rows implements Consumer<List<String>> {
+        private final List<List<String>> rows = new ArrayList<>();
+
+        @Override
+        public void accept(List<String> row) {
+            rows.add(List.copyOf(row));
+        }
+    }
+}
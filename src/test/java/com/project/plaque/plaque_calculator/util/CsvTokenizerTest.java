@@ -0,0 +1,106 @@
+package com.project.plaque.plaque_calculator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvTokenizerTest {
+
+    @Test
+    void rowsAreTrimmedAndEmptyRowsSkipped() {
+        assertEquals(List.of(List.of("x ", " y"), List.of("z")), tokenize(" x , y ;; z ;"));
+    }
+
+    @Test
+    void quotedSeparatorsStayInTheCell() {
+        assertEquals(List.of(List.of("a", "b;c"), List.of("d", "e,f")), tokenize("a,\"b;c\";d,\"e,f\""));
+    }
+
+    @Test
+    void escapedQuotesAreUnescaped() {
+        assertEquals(List.of(List.of("say \"hi\"", "x")), tokenize("\"say \"\"hi\"\"\",x"));
+    }
+
+    @Test
+    void quotedLineBreakStaysInTheCell() {
+        assertEquals(List.of(List.of("l1\nl2", "b")), tokenize("\"l1\nl2\",b"));
+    }
+
+    @Test
+    void lineBreakOutsideQuotesAppendsToTheRow() {
+        assertEquals(List.of(List.of("a", "b", "c", "d"), List.of("e")), tokenize("a,b\nc,d;e"));
+    }
+
+    @Test
+    void trailingDelimiterGivesAnEmptyCell() {
+        assertEquals(List.of(List.of("a", "")), tokenize("a,"));
+    }
+
+    @Test
+    void invalidRowFallsBackToCommaSplit() {
+        assertEquals(List.of(List.of("\"a\"b", "c"), List.of("d")), tokenize("\"a\"b,c;d"));
+        // Unterminated quote: the quote is kept, the cell is only trimmed
+        assertEquals(List.of(List.of("x", "\"y")), tokenize("x,\"y"));
+    }
+
+    @Test
+    void lineModeSplitsOnLineBreaksOnly() throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        CsvTokenizer.tokenizeLines(new StringReader("a;b,c\nd,e\r\n\"f\ng\",h"), row -> rows.add(List.copyOf(row)));
+        assertEquals(List.of(List.of("a;b", "c"), List.of("d", "e"), List.of("f\ng", "h")), rows);
+    }
+
+    @Test
+    void readerInputParsesLikeStringInput() throws IOException {
+        // Rows (also invalid ones) cross the reader's buffers at every position
+        Random random = new Random(7);
+        String[] parts = {"a", "b c", ",", ";", "\"", "\"\"", "\n", " ", "x\"y", "\"q,r\""};
+        for (int run = 0; run < 200; run++) {
+            StringBuilder input = new StringBuilder();
+            int length = 1 + random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                input.append(parts[random.nextInt(parts.length)]);
+            }
+            String text = input.toString();
+            List<List<String>> rows = new ArrayList<>();
+            CsvTokenizer.tokenize(new OneCharReader(text), row -> rows.add(List.copyOf(row)));
+            assertEquals(tokenize(text), rows, text);
+        }
+    }
+
+    private static List<List<String>> tokenize(String input) {
+        List<List<String>> rows = new ArrayList<>();
+        CsvTokenizer.tokenize(input, row -> rows.add(List.copyOf(row)));
+        return rows;
+    }
+
+    // Returns one character per read, so every row is split over many buffers
+    private static final class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+
+        private OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}